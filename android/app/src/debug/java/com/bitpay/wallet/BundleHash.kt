@@ -1,9 +1,12 @@
 package com.bitpay.wallet
 
 // Debug stub — BundleIntegrityVerifier skips the check entirely in debug builds via
-// BuildConfig.DEBUG, so this value is never read. It exists only so the Kotlin compiler
-// can resolve BundleHash.EXPECTED in all build types.
+// BuildConfig.DEBUG, so these values are never read. They exist only so the Kotlin compiler
+// can resolve the BundleHash manifest in all build types.
 // Release builds get a generated version of this file from the generateReleaseBundleHash task.
 internal object BundleHash {
-    const val EXPECTED = ""
+    const val MERKLE_ROOT = ""
+    const val CHUNK_SIZE = 1024 * 1024
+    const val BUNDLE_SIZE = 0L
+    val CHUNK_HASHES = emptyArray<String>()
 }
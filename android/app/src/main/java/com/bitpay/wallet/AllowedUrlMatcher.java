@@ -0,0 +1,378 @@
+package com.bitpay.wallet;
+
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Compiled form of the AllowedUrlPrefixes allow-list.
+ *
+ * Produces exactly the same verdicts as checking {@code url.toString().startsWith(prefix)} for
+ * every prefix, but matches on the {@link HttpUrl} components instead of building the URL string:
+ * prefixes that name a full authority are indexed by host and matched through a per-host path
+ * trie, and prefixes that end inside the authority are resolved once per host and kept in a small
+ * verdict cache.
+ */
+final class AllowedUrlMatcher {
+    private static final int VERDICT_CACHE_SIZE = 64;
+
+    private final String[] prefixes;
+    private final boolean allowAllHttp;
+    private final boolean allowAllHttps;
+    private final String[] httpAuthorityPrefixes;
+    private final String[] httpsAuthorityPrefixes;
+    private final Map<String, HostRule[]> hostRules;
+    private final LruCache<String, HostVerdict> verdictCache = new LruCache<>(VERDICT_CACHE_SIZE);
+
+    private AllowedUrlMatcher(String[] prefixes,
+                              boolean allowAllHttp,
+                              boolean allowAllHttps,
+                              String[] httpAuthorityPrefixes,
+                              String[] httpsAuthorityPrefixes,
+                              Map<String, HostRule[]> hostRules) {
+        this.prefixes = prefixes;
+        this.allowAllHttp = allowAllHttp;
+        this.allowAllHttps = allowAllHttps;
+        this.httpAuthorityPrefixes = httpAuthorityPrefixes;
+        this.httpsAuthorityPrefixes = httpsAuthorityPrefixes;
+        this.hostRules = hostRules;
+    }
+
+    static AllowedUrlMatcher compile(String[] prefixes) {
+        boolean allowAllHttp = false;
+        boolean allowAllHttps = false;
+        List<String> httpAuthorityPrefixes = new ArrayList<>();
+        List<String> httpsAuthorityPrefixes = new ArrayList<>();
+        Map<String, List<HostRule>> rulesByHost = new HashMap<>();
+
+        for (String prefix : prefixes) {
+            // Prefixes shorter than "scheme://" match every URL of the schemes they start.
+            if ("http://".startsWith(prefix)) {
+                allowAllHttp = true;
+            }
+            if ("https://".startsWith(prefix)) {
+                allowAllHttps = true;
+            }
+
+            String scheme;
+            if (prefix.startsWith("http://")) {
+                scheme = "http";
+            } else if (prefix.startsWith("https://")) {
+                scheme = "https";
+            } else {
+                // HttpUrl only serializes lowercase http/https schemes, nothing else can match.
+                continue;
+            }
+
+            String rest = prefix.substring(scheme.length() + 3);
+            int slash = rest.indexOf('/');
+            if (slash < 0) {
+                // The prefix ends inside the authority, e.g. "https://goerli.base.org".
+                ("http".equals(scheme) ? httpAuthorityPrefixes : httpsAuthorityPrefixes).add(rest);
+                continue;
+            }
+
+            String authority = rest.substring(0, slash);
+            if (authority.indexOf('@') >= 0) {
+                // Only URLs carrying user info can match; those take the legacy path.
+                continue;
+            }
+
+            String host;
+            String portText;
+            if (authority.startsWith("[")) {
+                int close = authority.indexOf(']');
+                if (close < 0) {
+                    continue;
+                }
+                host = authority.substring(1, close);
+                portText = authority.substring(close + 1);
+                if (host.indexOf(':') < 0) {
+                    // HttpUrl only brackets IPv6 hosts.
+                    continue;
+                }
+            } else {
+                int colon = authority.indexOf(':');
+                host = colon < 0 ? authority : authority.substring(0, colon);
+                portText = colon < 0 ? "" : authority.substring(colon);
+            }
+
+            int port = parsePort(scheme, portText);
+            if (port < 0) {
+                continue;
+            }
+
+            List<HostRule> rules = rulesByHost.get(host);
+            if (rules == null) {
+                rules = new ArrayList<>();
+                rulesByHost.put(host, rules);
+            }
+            HostRule rule = null;
+            for (HostRule candidate : rules) {
+                if (candidate.scheme.equals(scheme) && candidate.port == port) {
+                    rule = candidate;
+                }
+            }
+            if (rule == null) {
+                rule = new HostRule(scheme, port);
+                rules.add(rule);
+            }
+            rule.paths.insert(rest.substring(slash));
+        }
+
+        Map<String, HostRule[]> hostRules = new HashMap<>();
+        for (Map.Entry<String, List<HostRule>> entry : rulesByHost.entrySet()) {
+            hostRules.put(entry.getKey(), entry.getValue().toArray(new HostRule[0]));
+        }
+
+        return new AllowedUrlMatcher(
+            Arrays.copyOf(prefixes, prefixes.length),
+            allowAllHttp,
+            allowAllHttps,
+            httpAuthorityPrefixes.toArray(new String[0]),
+            httpsAuthorityPrefixes.toArray(new String[0]),
+            hostRules);
+    }
+
+    boolean matches(HttpUrl url) {
+        if (!url.encodedUsername().isEmpty() || !url.encodedPassword().isEmpty()) {
+            return matchesLegacy(url.toString());
+        }
+
+        String scheme = url.scheme();
+        String host = url.host();
+        int port = url.port();
+
+        HostVerdict verdict = verdictCache.get(host);
+        if (verdict == null || verdict.port != port || !verdict.scheme.equals(scheme)) {
+            verdict = resolve(scheme, host, port);
+            verdictCache.put(host, verdict);
+        }
+
+        if (verdict.allowAll) {
+            return true;
+        }
+        return verdict.paths != null && verdict.paths.matches(url);
+    }
+
+    /**
+     * The original linear scan. Still used for URLs with user info, which are rare enough that
+     * indexing them is not worth the extra rules.
+     */
+    boolean matchesLegacy(String url) {
+        for (String prefix : this.prefixes) {
+            if (url.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HostVerdict resolve(String scheme, String host, int port) {
+        boolean isHttp = "http".equals(scheme);
+        boolean allowAll = isHttp ? allowAllHttp : allowAllHttps;
+
+        if (!allowAll) {
+            String[] authorityPrefixes = isHttp ? httpAuthorityPrefixes : httpsAuthorityPrefixes;
+            if (authorityPrefixes.length > 0) {
+                String authority = host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+                if (port != HttpUrl.defaultPort(scheme)) {
+                    authority = authority + ":" + port;
+                }
+                for (String authorityPrefix : authorityPrefixes) {
+                    if (authority.startsWith(authorityPrefix)) {
+                        allowAll = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        PathTrie paths = null;
+        HostRule[] rules = hostRules.get(host);
+        if (rules != null) {
+            for (HostRule rule : rules) {
+                if (rule.port == port && rule.scheme.equals(scheme)) {
+                    paths = rule.paths;
+                }
+            }
+        }
+
+        // Every encoded path starts with "/", so a bare "/" rule allows the whole host.
+        if (paths != null && paths.matchesEveryPath()) {
+            allowAll = true;
+        }
+
+        return new HostVerdict(scheme, port, allowAll, allowAll ? null : paths);
+    }
+
+    /**
+     * Returns the port a prefix names, or -1 when HttpUrl would never serialize that port text
+     * (default ports are omitted and ports never have leading zeros).
+     */
+    private static int parsePort(String scheme, String portText) {
+        int defaultPort = HttpUrl.defaultPort(scheme);
+        if (portText.isEmpty()) {
+            return defaultPort;
+        }
+        if (portText.length() < 2 || portText.length() > 6 || portText.charAt(1) == '0') {
+            return -1;
+        }
+        int port = 0;
+        for (int i = 1; i < portText.length(); i++) {
+            char c = portText.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            port = port * 10 + (c - '0');
+        }
+        if (port > 65535 || port == defaultPort) {
+            return -1;
+        }
+        return port;
+    }
+
+    private static final class HostRule {
+        final String scheme;
+        final int port;
+        final PathTrie paths = new PathTrie();
+
+        HostRule(String scheme, int port) {
+            this.scheme = scheme;
+            this.port = port;
+        }
+    }
+
+    private static final class HostVerdict {
+        final String scheme;
+        final int port;
+        final boolean allowAll;
+        final PathTrie paths;
+
+        HostVerdict(String scheme, int port, boolean allowAll, PathTrie paths) {
+            this.scheme = scheme;
+            this.port = port;
+            this.allowAll = allowAll;
+            this.paths = paths;
+        }
+    }
+
+    /**
+     * Character trie over everything after the authority: the encoded path, then "?" and the
+     * encoded query, then "#" and the encoded fragment, exactly as HttpUrl serializes them.
+     */
+    private static final class PathTrie {
+        private final Node root = new Node();
+
+        void insert(String pathPrefix) {
+            Node node = root;
+            for (int i = 0; i < pathPrefix.length(); i++) {
+                node = node.childOrCreate(pathPrefix.charAt(i));
+            }
+            node.terminal = true;
+        }
+
+        boolean matchesEveryPath() {
+            Node slash = root.child('/');
+            return slash != null && slash.terminal;
+        }
+
+        boolean matches(HttpUrl url) {
+            Node node = walk(root, url.encodedPath());
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+
+            String query = url.encodedQuery();
+            if (query != null) {
+                node = node.child('?');
+                if (node == null) {
+                    return false;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+                node = walk(node, query);
+                if (node == null) {
+                    return false;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+            }
+
+            String fragment = url.encodedFragment();
+            if (fragment != null) {
+                node = node.child('#');
+                if (node == null) {
+                    return false;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+                node = walk(node, fragment);
+                return node != null && node.terminal;
+            }
+            return false;
+        }
+
+        /**
+         * Follows {@code text} from {@code node}. Returns the first terminal node reached, the node
+         * at the end of the text, or null when the text leaves the trie.
+         */
+        private static Node walk(Node node, String text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (node.terminal) {
+                    return node;
+                }
+                node = node.child(text.charAt(i));
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        boolean terminal;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            Node node = new Node();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+}
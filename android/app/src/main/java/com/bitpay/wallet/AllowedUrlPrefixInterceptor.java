@@ -7,6 +7,7 @@ import android.util.Log;
 import java.io.IOException;
 import java.lang.NullPointerException;
 import java.util.Arrays;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.Interceptor.Chain;
 import okhttp3.Request;
@@ -14,14 +15,35 @@ import okhttp3.Response;
 
 public class AllowedUrlPrefixInterceptor implements Interceptor {
     private static final String TAG = "AllowedUrlPrefixInterceptor";
-    private static String[] allowedUrlPrefixes = {};
+    private static AllowedUrlMatcher sharedMatcher = null;
+    private final AllowedUrlMatcher matcher;
 
     AllowedUrlPrefixInterceptor(Context context) {
+        this.matcher = getMatcher(context);
+    }
+
+    /**
+     * Parses and compiles the allow-list ahead of the first client, e.g. from a startup task.
+     */
+    static void prewarm(Context context) {
+        getMatcher(context);
+    }
+
+    // NetworkingModule builds a new interceptor for every client, so the allow-list is parsed and
+    // compiled once per process and shared.
+    static synchronized AllowedUrlMatcher getMatcher(Context context) {
+        if (sharedMatcher == null) {
+            sharedMatcher = AllowedUrlMatcher.compile(readAllowedUrlPrefixes(context));
+        }
+        return sharedMatcher;
+    }
+
+    static String[] readAllowedUrlPrefixes(Context context) {
         try {
             ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
             String allowedUrlPrefixList = ai.metaData.getString("AllowedUrlPrefixes");
 
-            this.allowedUrlPrefixes = Arrays
+            return Arrays
               .stream(allowedUrlPrefixList.split(","))
               .map((x) -> x == null ? x : x.trim())
               .filter((x) -> x != null && !x.equals(""))
@@ -36,26 +58,18 @@ public class AllowedUrlPrefixInterceptor implements Interceptor {
         catch (Exception ex) {
           Log.d(TAG, "An unexpected error occurred while checking allowed URL prefixes.", ex);
         }
+        return new String[0];
     }
 
-    private boolean isUrlAllowed(String url) {
-        boolean urlIncludedInAllowedUrlPrefixes = false;
-
-        for (int i = 0; i < this.allowedUrlPrefixes.length && !urlIncludedInAllowedUrlPrefixes; i++) {
-            if (url.startsWith(this.allowedUrlPrefixes[i])) {
-                urlIncludedInAllowedUrlPrefixes = true;
-            }
-        }
-
-        return urlIncludedInAllowedUrlPrefixes;
+    private boolean isUrlAllowed(HttpUrl url) {
+        return this.matcher.matches(url);
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
-        String url = request.url().toString();
 
-        if (!this.isUrlAllowed(url)) {
+        if (!this.isUrlAllowed(request.url())) {
             throw new IOException("URL not allowed");
         }
 
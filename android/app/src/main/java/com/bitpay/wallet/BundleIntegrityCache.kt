@@ -0,0 +1,112 @@
+package com.bitpay.wallet
+
+import android.content.Context
+import android.content.pm.PackageManager
+import android.security.keystore.KeyGenParameterSpec
+import android.security.keystore.KeyProperties
+import android.util.Log
+import java.io.File
+import java.security.KeyStore
+import java.security.MessageDigest
+import javax.crypto.KeyGenerator
+import javax.crypto.Mac
+import javax.crypto.SecretKey
+
+/**
+ * Remembers that the bundle of the currently installed package has already been verified.
+ *
+ * The bundle cannot change without the APK changing, so once a full verification passes we store
+ * an HMAC of the package's install identity (version, last update time, APK paths and sizes,
+ * signing certificates and the bundle manifest root) in app-private no-backup storage. The MAC
+ * key lives in the Android Keystore and never leaves it. Any update, reinstall or re-signing
+ * changes the identity, so the MAC no longer matches and the bundle is fully verified again.
+ *
+ * Every failure here is treated as a cache miss, which falls back to full verification.
+ */
+internal object BundleIntegrityCache {
+    private const val TAG = "BundleIntegrityCache"
+    private const val KEYSTORE_PROVIDER = "AndroidKeyStore"
+    private const val KEY_ALIAS = "bundle_integrity_cache_mac"
+    private const val MAC_ALGORITHM = "HmacSHA256"
+    private const val CACHE_FILE_NAME = "bundle-integrity.mac"
+    private const val IDENTITY_VERSION = "1"
+
+    fun isVerified(context: Context): Boolean {
+        return try {
+            val file = cacheFile(context)
+            if (!file.exists()) {
+                return false
+            }
+            val stored = file.readBytes()
+            val expected = mac(context, createKeyIfMissing = false) ?: return false
+            MessageDigest.isEqual(stored, expected)
+        } catch (e: Exception) {
+            Log.w(TAG, "Could not read bundle integrity cache: ${e.message}")
+            false
+        }
+    }
+
+    fun markVerified(context: Context) {
+        try {
+            val value = mac(context, createKeyIfMissing = true) ?: return
+            val file = cacheFile(context)
+            val tmp = File(file.parentFile, "$CACHE_FILE_NAME.tmp")
+            tmp.writeBytes(value)
+            if (!tmp.renameTo(file)) {
+                tmp.delete()
+            }
+        } catch (e: Exception) {
+            Log.w(TAG, "Could not write bundle integrity cache: ${e.message}")
+        }
+    }
+
+    fun clear(context: Context) {
+        cacheFile(context).delete()
+    }
+
+    private fun cacheFile(context: Context): File = File(context.noBackupFilesDir, CACHE_FILE_NAME)
+
+    private fun mac(context: Context, createKeyIfMissing: Boolean): ByteArray? {
+        val key = loadKey(createKeyIfMissing) ?: return null
+        val mac = Mac.getInstance(MAC_ALGORITHM)
+        mac.init(key)
+        return mac.doFinal(installIdentity(context).toByteArray(Charsets.UTF_8))
+    }
+
+    private fun loadKey(createIfMissing: Boolean): SecretKey? {
+        val keyStore = KeyStore.getInstance(KEYSTORE_PROVIDER).apply { load(null) }
+        (keyStore.getKey(KEY_ALIAS, null) as? SecretKey)?.let { return it }
+        if (!createIfMissing) {
+            return null
+        }
+
+        val generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_HMAC_SHA256, KEYSTORE_PROVIDER)
+        generator.init(KeyGenParameterSpec.Builder(KEY_ALIAS, KeyProperties.PURPOSE_SIGN).build())
+        return generator.generateKey()
+    }
+
+    private fun installIdentity(context: Context): String {
+        val packageManager = context.packageManager
+        val packageInfo = packageManager.getPackageInfo(
+            context.packageName,
+            PackageManager.GET_SIGNING_CERTIFICATES
+        )
+        val appInfo = packageInfo.applicationInfo ?: context.applicationInfo
+
+        val certificateDigest = MessageDigest.getInstance("SHA-256")
+        packageInfo.signingInfo?.apkContentsSigners?.forEach { certificateDigest.update(it.toByteArray()) }
+
+        val apks = listOf(appInfo.sourceDir) + (appInfo.splitSourceDirs?.toList() ?: emptyList())
+
+        return buildString {
+            append(IDENTITY_VERSION)
+            append('|').append(packageInfo.longVersionCode)
+            append('|').append(packageInfo.lastUpdateTime)
+            apks.forEach { apk ->
+                append('|').append(apk).append(':').append(File(apk).length())
+            }
+            append('|').append(BundleMerkle.toHex(certificateDigest.digest()))
+            append('|').append(BundleHash.MERKLE_ROOT)
+        }
+    }
+}
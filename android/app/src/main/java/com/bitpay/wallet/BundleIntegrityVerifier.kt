@@ -3,45 +3,119 @@ package com.bitpay.wallet
 import android.app.AlertDialog
 import android.content.Context
 import android.util.Log
-import java.security.MessageDigest
+import java.io.FileInputStream
+import java.io.FileNotFoundException
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
 
 /**
  * Verifies the integrity of the React Native JavaScript bundle to detect tampering.
- * Calculates SHA256 hash of the bundle and compares against expected value.
+ *
+ * The build embeds a chunked Merkle manifest of the bundle in [BundleHash]: the SHA-256 of every
+ * fixed-size chunk plus the root of the tree built over them. Chunks are hashed in parallel on a
+ * pool sized to the device's cores, each is compared with its manifest entry, and the root
+ * recomputed from the chunk hashes must match the embedded root. The tree itself lives in
+ * [BundleMerkle].
+ *
+ * A passing result is remembered per install by [BundleIntegrityCache], so repeat launches of the
+ * same APK skip hashing entirely.
+ *
+ * The hash can be started early on a background thread with [startVerification] and collected
+ * later with [awaitVerification], so hashing overlaps with the rest of app startup instead of
+ * blocking the main thread before the first frame.
  */
 object BundleIntegrityVerifier {
     private const val TAG = "BundleIntegrity"
     private const val BUNDLE_ASSET_NAME = "index.android.bundle"
 
+    // Generous upper bound; a hash that has not finished by then is treated as a failure.
+    private const val VERIFICATION_TIMEOUT_SECONDS = 30L
+
+    private var pendingVerification: Future<Boolean>? = null
+
+    /**
+     * Starts verifying the bundle on a background thread. Safe to call more than once; only the
+     * first call starts a verification.
+     */
+    @Synchronized
+    fun startVerification(context: Context) {
+        if (pendingVerification != null) {
+            return
+        }
+        val appContext = context.applicationContext
+        val executor = Executors.newSingleThreadExecutor { runnable ->
+            Thread(runnable, "BundleIntegrityVerifier")
+        }
+        pendingVerification = executor.submit(Callable { verify(appContext) })
+        executor.shutdown()
+    }
+
+    /**
+     * Waits for the verification started by [startVerification], starting one if needed, and
+     * returns its result. Fails closed: an error, interruption or timeout rejects the launch.
+     */
+    fun awaitVerification(context: Context): Boolean {
+        val verification = synchronized(this) {
+            startVerification(context)
+            pendingVerification!!
+        }
+
+        return try {
+            verification.get(VERIFICATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        } catch (e: Exception) {
+            Log.e(TAG, "Error waiting for bundle integrity verification: ${e.message}")
+            false
+        }
+    }
+
     /**
      * Verifies bundle integrity and returns true if valid.
      * In debug builds, verification is skipped.
-     * In release builds, an empty hash means the build pipeline broke — launch is rejected.
+     * In release builds, an empty manifest means the build pipeline broke — launch is rejected.
      */
     fun verify(context: Context): Boolean {
+        StartupTimeline.mark(StartupTimeline.BUNDLE_VERIFY_START)
+        try {
+            return verifyUntimed(context)
+        } finally {
+            StartupTimeline.mark(StartupTimeline.BUNDLE_VERIFY_END)
+        }
+    }
+
+    private fun verifyUntimed(context: Context): Boolean {
         if (BuildConfig.DEBUG) {
             Log.d(TAG, "Skipping bundle verification in debug build")
             return true
         }
 
-        val expectedHash = BundleHash.EXPECTED
-        if (expectedHash.isEmpty()) {
-            // Fail-closed: a missing hash in release means the generateReleaseBundleHash
+        if (BundleHash.MERKLE_ROOT.isEmpty() || BundleHash.CHUNK_HASHES.isEmpty()) {
+            // Fail-closed: a missing manifest in release means the generateReleaseBundleHash
             // Gradle task did not run. Reject the launch rather than silently skip the check.
             Log.e(TAG, "Bundle hash is not configured — rejecting launch.")
             return false
         }
 
+        if (BundleIntegrityCache.isVerified(context)) {
+            Log.d(TAG, "Bundle already verified for this install")
+            return true
+        }
+
         return try {
-            val computedHash = calculateBundleHash(context)
-            val isValid = computedHash.equals(expectedHash, ignoreCase = true)
+            val isValid = verifyManifest(context)
 
             if (!isValid) {
-                // Log failure without revealing the expected hash — an attacker with
+                // Log failure without revealing the expected hashes — an attacker with
                 // logcat access should not learn what value to target.
                 Log.e(TAG, "Bundle integrity check failed.")
+                BundleIntegrityCache.clear(context)
             } else {
                 Log.d(TAG, "Bundle integrity verified successfully")
+                BundleIntegrityCache.markVerified(context)
             }
 
             isValid
@@ -70,18 +144,87 @@ object BundleIntegrityVerifier {
             .show()
     }
 
-    private fun calculateBundleHash(context: Context): String {
-        val inputStream = context.assets.open(BUNDLE_ASSET_NAME)
-        val digest = MessageDigest.getInstance("SHA-256")
+    private fun verifyManifest(context: Context): Boolean {
+        return try {
+            // The bundle is stored uncompressed (see noCompress in app/build.gradle), so it can be
+            // mapped straight out of the APK and its chunks hashed in parallel.
+            verifyMapped(context)
+        } catch (e: FileNotFoundException) {
+            // openFd fails for compressed assets; fall back to streaming the chunks.
+            verifyStreamed(context)
+        }
+    }
+
+    /** Maps the bundle and hashes its chunks on a pool sized to the device's cores. */
+    private fun verifyMapped(context: Context): Boolean {
+        context.assets.openFd(BUNDLE_ASSET_NAME).use { fd ->
+            if (fd.declaredLength != BundleHash.BUNDLE_SIZE) {
+                return false
+            }
+
+            FileInputStream(fd.fileDescriptor).channel.use { channel ->
+                val mapped = channel.map(FileChannel.MapMode.READ_ONLY, fd.startOffset, fd.declaredLength)
+                val threads = Runtime.getRuntime().availableProcessors().coerceIn(1, BundleHash.CHUNK_HASHES.size)
+                val pool = Executors.newFixedThreadPool(threads) { runnable ->
+                    Thread(runnable, "BundleIntegrityChunk")
+                }
+
+                try {
+                    return BundleMerkle.verify(
+                        mapped,
+                        BundleHash.CHUNK_SIZE,
+                        BundleHash.BUNDLE_SIZE,
+                        BundleHash.CHUNK_HASHES,
+                        BundleHash.MERKLE_ROOT,
+                        pool
+                    )
+                } finally {
+                    pool.shutdownNow()
+                }
+            }
+        }
+    }
+
+    private fun verifyStreamed(context: Context): Boolean {
+        context.assets.open(BUNDLE_ASSET_NAME).use { stream ->
+            val buffer = ByteArray(BundleHash.CHUNK_SIZE)
+            val leaves = ArrayList<ByteArray>(BundleHash.CHUNK_HASHES.size)
+            var total = 0L
 
-        inputStream.use { stream ->
-            val buffer = ByteArray(8192)
-            var bytesRead: Int
-            while (stream.read(buffer).also { bytesRead = it } != -1) {
-                digest.update(buffer, 0, bytesRead)
+            while (true) {
+                val read = readChunk(stream, buffer)
+                if (read == 0) {
+                    break
+                }
+                total += read
+                val index = leaves.size
+                if (index >= BundleHash.CHUNK_HASHES.size) {
+                    return false
+                }
+                val leaf = BundleMerkle.leafHash(ByteBuffer.wrap(buffer, 0, read))
+                if (!BundleMerkle.toHex(leaf).equals(BundleHash.CHUNK_HASHES[index], ignoreCase = true)) {
+                    return false
+                }
+                leaves.add(leaf)
             }
+
+            if (total != BundleHash.BUNDLE_SIZE || leaves.size != BundleHash.CHUNK_HASHES.size) {
+                return false
+            }
+            return BundleMerkle.toHex(BundleMerkle.merkleRoot(leaves))
+                .equals(BundleHash.MERKLE_ROOT, ignoreCase = true)
         }
+    }
 
-        return digest.digest().joinToString("") { "%02x".format(it) }
+    private fun readChunk(stream: InputStream, buffer: ByteArray): Int {
+        var filled = 0
+        while (filled < buffer.size) {
+            val read = stream.read(buffer, filled, buffer.size - filled)
+            if (read == -1) {
+                break
+            }
+            filled += read
+        }
+        return filled
     }
 }
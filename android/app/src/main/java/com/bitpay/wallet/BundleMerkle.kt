@@ -0,0 +1,119 @@
+package com.bitpay.wallet
+
+import java.nio.ByteBuffer
+import java.security.MessageDigest
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+
+/**
+ * The chunked Merkle tree behind [BundleHash], as pure functions over the bundle bytes.
+ *
+ * The bundle is cut into consecutive chunks of chunkSize bytes, the last one possibly shorter.
+ * Leaves are SHA-256(0x00 || chunk) and inner nodes SHA-256(0x01 || left || right); an odd node at
+ * the end of a level is promoted unchanged. This must stay in step with the
+ * generate{Variant}BundleHash task in app/build.gradle.
+ */
+internal object BundleMerkle {
+    // Domain separation between leaves and inner nodes, as in RFC 6962.
+    private const val LEAF_PREFIX: Byte = 0x00
+    private const val NODE_PREFIX: Byte = 0x01
+
+    private val HEX_DIGITS = "0123456789abcdef".toCharArray()
+
+    /**
+     * Whether [bundle], from its position to its limit, matches the manifest: its size, the hash of
+     * every chunk and the root of the tree over them. Chunks are hashed on [executor] when one is
+     * given. The position and limit of [bundle] are left untouched.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun verify(
+        bundle: ByteBuffer,
+        chunkSize: Int,
+        bundleSize: Long,
+        chunkHashes: Array<String>,
+        root: String,
+        executor: ExecutorService? = null
+    ): Boolean {
+        if (bundle.remaining().toLong() != bundleSize ||
+            chunkHashes.isEmpty() ||
+            chunkCount(bundleSize, chunkSize) != chunkHashes.size
+        ) {
+            return false
+        }
+
+        val pending = executor?.let { pool ->
+            chunkHashes.indices.map { index ->
+                pool.submit(Callable { leafHash(chunk(bundle, index, chunkSize)) })
+            }
+        }
+
+        val leaves = ArrayList<ByteArray>(chunkHashes.size)
+        for (index in chunkHashes.indices) {
+            val leaf = pending?.get(index)?.get() ?: leafHash(chunk(bundle, index, chunkSize))
+            if (!toHex(leaf).equals(chunkHashes[index], ignoreCase = true)) {
+                return false
+            }
+            leaves.add(leaf)
+        }
+        return toHex(merkleRoot(leaves)).equals(root, ignoreCase = true)
+    }
+
+    @JvmStatic
+    fun chunkCount(bundleSize: Long, chunkSize: Int): Int =
+        ((bundleSize + chunkSize - 1) / chunkSize).toInt()
+
+    /** A view of chunk [index] of [bundle], counted from its position. */
+    @JvmStatic
+    fun chunk(bundle: ByteBuffer, index: Int, chunkSize: Int): ByteBuffer {
+        val start = bundle.position() + index.toLong() * chunkSize
+        val end = minOf(start + chunkSize, bundle.limit().toLong())
+        val view = bundle.duplicate()
+        view.limit(end.toInt())
+        view.position(start.toInt())
+        return view
+    }
+
+    /** Hash of the leaf over the remaining bytes of [chunk], which it consumes. */
+    @JvmStatic
+    fun leafHash(chunk: ByteBuffer): ByteArray {
+        val digest = MessageDigest.getInstance("SHA-256")
+        digest.update(LEAF_PREFIX)
+        digest.update(chunk)
+        return digest.digest()
+    }
+
+    @JvmStatic
+    fun merkleRoot(leaves: List<ByteArray>): ByteArray {
+        var level = leaves
+        while (level.size > 1) {
+            val next = ArrayList<ByteArray>((level.size + 1) / 2)
+            var i = 0
+            while (i < level.size) {
+                if (i + 1 < level.size) {
+                    val digest = MessageDigest.getInstance("SHA-256")
+                    digest.update(NODE_PREFIX)
+                    digest.update(level[i])
+                    digest.update(level[i + 1])
+                    next.add(digest.digest())
+                } else {
+                    next.add(level[i])
+                }
+                i += 2
+            }
+            level = next
+        }
+        return level[0]
+    }
+
+    @JvmStatic
+    fun toHex(bytes: ByteArray): String {
+        val chars = CharArray(bytes.size * 2)
+        for (i in bytes.indices) {
+            val value = bytes[i].toInt() and 0xff
+            chars[i * 2] = HEX_DIGITS[value ushr 4]
+            chars[i * 2 + 1] = HEX_DIGITS[value and 0x0f]
+        }
+        return String(chars)
+    }
+}
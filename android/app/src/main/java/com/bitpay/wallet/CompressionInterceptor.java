@@ -0,0 +1,158 @@
+package com.bitpay.wallet;
+
+import android.os.SystemClock;
+
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Negotiates Brotli with a gzip fallback and decodes the response itself, recording the size of
+ * every body on the wire and once decoded in {@link NetworkLatencyHistograms}.
+ *
+ * OkHttp only decodes gzip on its own, and only when it added Accept-Encoding itself, so this
+ * interceptor sends "br, gzip" and strips Content-Encoding and Content-Length from what it hands
+ * back. Requests that already carry an Accept-Encoding are passed through untouched: whoever set
+ * it expects the encoded body.
+ *
+ * Decode time is the time spent in the decoder minus the time it spent waiting on the network.
+ * Responses served from the HTTP cache are decoded but not counted.
+ */
+public class CompressionInterceptor implements Interceptor {
+    static final String ACCEPT_ENCODING = "br, gzip";
+
+    private final NetworkLatencyHistograms histograms;
+
+    public CompressionInterceptor(NetworkLatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header("Accept-Encoding") != null) {
+            return chain.proceed(request);
+        }
+
+        Response response = chain.proceed(request.newBuilder().header("Accept-Encoding", ACCEPT_ENCODING).build());
+        ResponseBody body = response.body();
+        int encoding = encodingOf(response.header("Content-Encoding"));
+        if (body == null || encoding < 0 || !hasBody(request, response)) {
+            return response;
+        }
+
+        int slot = response.networkResponse() != null ? histograms.slotFor(request.url()) : -1;
+        WireSource wire = new WireSource(body.source());
+        Source decoded;
+        switch (encoding) {
+            case NetworkLatencyHistograms.ENCODING_BROTLI:
+                decoded = Okio.source(new BrotliInputStream(Okio.buffer(wire).inputStream()));
+                break;
+            case NetworkLatencyHistograms.ENCODING_GZIP:
+                decoded = new GzipSource(wire);
+                break;
+            default:
+                decoded = wire;
+        }
+        Source counted = new DecodedSource(decoded, wire, slot, encoding);
+
+        Response.Builder builder = response.newBuilder();
+        long contentLength = -1;
+        if (encoding == NetworkLatencyHistograms.ENCODING_IDENTITY) {
+            contentLength = body.contentLength();
+        } else {
+            builder.removeHeader("Content-Encoding").removeHeader("Content-Length");
+        }
+        return builder
+            .body(ResponseBody.create(body.contentType(), contentLength, Okio.buffer(counted)))
+            .build();
+    }
+
+    private static int encodingOf(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isEmpty() || "identity".equalsIgnoreCase(contentEncoding)) {
+            return NetworkLatencyHistograms.ENCODING_IDENTITY;
+        }
+        if ("br".equalsIgnoreCase(contentEncoding)) {
+            return NetworkLatencyHistograms.ENCODING_BROTLI;
+        }
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return NetworkLatencyHistograms.ENCODING_GZIP;
+        }
+        // Anything else (e.g. stacked encodings) is left for the caller.
+        return -1;
+    }
+
+    private static boolean hasBody(Request request, Response response) {
+        int code = response.code();
+        return !"HEAD".equals(request.method()) && code != 204 && code != 304 && (code < 100 || code >= 200);
+    }
+
+    /** Counts the encoded bytes and the time spent waiting for them. */
+    private static final class WireSource extends ForwardingSource {
+        long bytes;
+        long readNanos;
+
+        WireSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long start = SystemClock.elapsedRealtimeNanos();
+            long read = super.read(sink, byteCount);
+            readNanos += SystemClock.elapsedRealtimeNanos() - start;
+            if (read > 0) {
+                bytes += read;
+            }
+            return read;
+        }
+    }
+
+    /** Counts the decoded bytes and records the transfer once the body is fully read. */
+    private final class DecodedSource extends ForwardingSource {
+        private final WireSource wire;
+        private final int slot;
+        private final int encoding;
+        private long bytes;
+        private long readNanos;
+        private boolean recorded;
+
+        DecodedSource(Source delegate, WireSource wire, int slot, int encoding) {
+            super(delegate);
+            this.wire = wire;
+            this.slot = slot;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long start = SystemClock.elapsedRealtimeNanos();
+            long read = super.read(sink, byteCount);
+            readNanos += SystemClock.elapsedRealtimeNanos() - start;
+            if (read > 0) {
+                bytes += read;
+            } else if (read == -1) {
+                record();
+            }
+            return read;
+        }
+
+        private void record() {
+            if (recorded || slot < 0) {
+                return;
+            }
+            recorded = true;
+            histograms.recordTransfer(slot, encoding, wire.bytes, bytes, readNanos - wire.readNanos);
+        }
+    }
+}
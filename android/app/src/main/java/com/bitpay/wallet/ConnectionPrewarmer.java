@@ -0,0 +1,125 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens connections to the API hosts at launch so the first JS requests find a warm socket in the
+ * shared connection pool instead of paying DNS, TCP and TLS one after another.
+ *
+ * Each host gets a HEAD request on the shared client from {@link UserAgentClientFactory}. The
+ * response is discarded; what matters is the HTTP/2 connection it leaves in the pool, which every
+ * client React Native derives from the shared one reuses. Those clients also share its
+ * SSLSocketFactory, so if the pooled connection is gone by then, a new handshake can still resume
+ * the TLS session.
+ *
+ * Only https hosts named by a full authority in AllowedUrlPrefixes are considered. The
+ * comma-separated PrewarmHosts manifest meta-data picks which of them to warm; without it, the
+ * first {@link #DEFAULT_MAX_HOSTS} in allow-list order are warmed.
+ */
+public final class ConnectionPrewarmer {
+    private static final String TAG = "ConnectionPrewarmer";
+    static final int DEFAULT_MAX_HOSTS = 3;
+
+    private ConnectionPrewarmer() {}
+
+    /**
+     * Starts the warm-up requests and returns without waiting for them.
+     */
+    public static void prewarm(Context context, OkHttpClient client) {
+        prewarm(client, prewarmUrls(
+            AllowedUrlPrefixInterceptor.readAllowedUrlPrefixes(context),
+            readPrewarmHosts(context)));
+    }
+
+    static void prewarm(OkHttpClient client, List<HttpUrl> urls) {
+        for (HttpUrl url : urls) {
+            Request request = new Request.Builder().url(url).head().build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    Log.d(TAG, "Could not prewarm " + url.host(), e);
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    response.close();
+                }
+            });
+        }
+    }
+
+    static List<HttpUrl> prewarmUrls(String[] allowedUrlPrefixes, String[] prewarmHosts) {
+        // Origin of each allowed host, in allow-list order
+        Map<String, HttpUrl> allowedOrigins = new LinkedHashMap<>();
+        for (String prefix : allowedUrlPrefixes) {
+            // A prefix without a path (e.g. "https://bitpay.") can end inside the authority and
+            // names no single host.
+            if (!prefix.startsWith("https://") || prefix.indexOf('/', "https://".length()) < 0) {
+                continue;
+            }
+            HttpUrl url = HttpUrl.parse(prefix);
+            if (url != null && !allowedOrigins.containsKey(url.host())) {
+                allowedOrigins.put(url.host(), url.newBuilder().encodedPath("/").query(null).fragment(null).build());
+            }
+        }
+
+        List<HttpUrl> urls = new ArrayList<>();
+        if (prewarmHosts == null) {
+            for (HttpUrl origin : allowedOrigins.values()) {
+                if (urls.size() == DEFAULT_MAX_HOSTS) {
+                    break;
+                }
+                urls.add(origin);
+            }
+            return urls;
+        }
+        for (String host : prewarmHosts) {
+            HttpUrl origin = allowedOrigins.get(host);
+            if (origin != null) {
+                urls.add(origin);
+            } else {
+                Log.w(TAG, host + " is not in AllowedUrlPrefixes, not prewarming it");
+            }
+        }
+        return urls;
+    }
+
+    private static String[] readPrewarmHosts(Context context) {
+        try {
+            ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
+            Bundle metaData = ai.metaData;
+            String value = metaData == null ? null : metaData.getString("PrewarmHosts");
+            if (value == null) {
+                return null;
+            }
+            return Arrays
+                .stream(value.split(","))
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .toArray(String[]::new);
+        } catch (PackageManager.NameNotFoundException ex) {
+            Log.d(TAG, "An error occurred while reading PrewarmHosts.", ex);
+            return null;
+        }
+    }
+}
@@ -4,13 +4,16 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import com.braze.Constants;
 import com.braze.push.BrazeNotificationUtils;
 import com.braze.support.BrazeLogger;
-import com.facebook.react.bridge.Arguments;
-import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public class CustomBroadcastReceiver extends BroadcastReceiver {
     private static final String TAG = BrazeLogger.getBrazeLogTag(CustomBroadcastReceiver.class);
@@ -28,15 +31,30 @@ public class CustomBroadcastReceiver extends BroadcastReceiver {
             case Constants.BRAZE_PUSH_INTENT_NOTIFICATION_RECEIVED:
                 Bundle extras = intent.getBundleExtra(Constants.BRAZE_PUSH_EXTRAS_KEY);
                 if (extras != null) {
-                    WritableMap extraParams = Arguments.createMap();
+                    Map<String, String> extraParams = new HashMap<>();
                     for (String key : extras.keySet()) {
                         if (extras.get(key) instanceof String) {
                             String value = extras.getString(key);
-                            extraParams.putString(key, value);
+                            extraParams.put(key, value);
                         }
                     }
-                    Log.d(TAG, String.format("Received push notification. Sending silent event with params: %s", extraParams));
-                    SilentPushModule.sendEvent("SilentPushNotification", extraParams);
+                    String walletId = extras.getString("walletId");
+                    if (walletId == null) {
+                        queueSilentEvent(context, extraParams, null);
+                        break;
+                    }
+                    // The filter may have to be read from disk first; check it off the main thread
+                    // and keep the process alive until the push is dropped, queued or persisted.
+                    PendingResult pendingResult = goAsync();
+                    WalletPushFilter.getInstance(context).mightContainAsync(walletId, mightContain -> {
+                        if (!mightContain) {
+                            Log.d(TAG, "Dropping silent push for a wallet not on this device.");
+                            pendingResult.finish();
+                            return;
+                        }
+                        // SilentPushAggregator only takes events on the main thread.
+                        new Handler(Looper.getMainLooper()).post(() -> queueSilentEvent(context, extraParams, pendingResult));
+                    });
                 }
                 break;
             case Constants.BRAZE_PUSH_INTENT_NOTIFICATION_OPENED:
@@ -50,4 +68,23 @@ public class CustomBroadcastReceiver extends BroadcastReceiver {
                 Log.d(TAG, String.format("Ignoring intent with unsupported action %s", action));
         }
     }
+
+    /**
+     * Hands the push to JS, or persists it while JS cannot take it. Runs on the main thread;
+     * {@code pendingResult} is the receiver's async result if it already went async, or null.
+     */
+    private void queueSilentEvent(Context context, Map<String, String> extraParams, PendingResult pendingResult) {
+        if (SilentPushModule.isJsReady()) {
+            Log.d(TAG, String.format("Received push notification. Queueing silent event with params: %s", extraParams));
+            SilentPushAggregator.getInstance().add(context, extraParams);
+            if (pendingResult != null) {
+                pendingResult.finish();
+            }
+        } else {
+            // JS cannot take the event yet; persist it and keep the process alive until it is on disk.
+            Log.d(TAG, "Received push notification before JS is ready. Persisting silent event.");
+            PendingResult result = pendingResult != null ? pendingResult : goAsync();
+            SilentPushEventLog.getInstance(context).appendAsync(extraParams, result::finish);
+        }
+    }
 }
@@ -5,35 +5,126 @@ import com.braze.support.BrazeLogger;
 import com.braze.ui.inappmessage.BrazeInAppMessageManager;
 import com.braze.ui.inappmessage.InAppMessageOperation;
 import com.braze.ui.inappmessage.listeners.IInAppMessageManagerListener;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.view.View;
+
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CustomInAppMessageManagerListener implements IInAppMessageManagerListener {
     private static final String TAG = BrazeLogger.getBrazeLogTag(CustomInAppMessageManagerListener.class);
-    public boolean isReactNativeAppLoaded = false;
-    private IInAppMessage cachedInAppMessage = null;
+    // Gap between one deferred message closing and the next being handed to Braze
+    private static final long DRAIN_PACE_MS = 500;
+    // A handed-over message that never opens (e.g. Braze dropped it) stops blocking the queue after this
+    private static final long IN_FLIGHT_TIMEOUT_MS = 10_000;
+
+    private final AtomicBoolean reactNativeAppLoaded = new AtomicBoolean(false);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable displayNextRunnable = this::displayNext;
+    private final Runnable inFlightTimeoutRunnable = this::onInFlightTimeout;
+
+    // Guards pendingMessages and inFlightMessage, and orders them against reactNativeAppLoaded so a
+    // message can't be queued after the drain for a load has already run.
+    private final Object lock = new Object();
+    private final InAppMessageQueue pendingMessages = new InAppMessageQueue(InAppMessageQueue.DEFAULT_CAPACITY);
+    private IInAppMessage inFlightMessage = null;
 
     @Override
     public InAppMessageOperation beforeInAppMessageDisplayed(IInAppMessage inAppMessage) {
-        // Delay or discard the message until the React Native app is fully loaded
-        if (!isReactNativeAppLoaded) {
-            // Cache the IAM if the app is not ready
-            Log.d(TAG, "App not ready, caching IAM");
-            cachedInAppMessage = inAppMessage;
-            return InAppMessageOperation.DISPLAY_LATER;  // Discard the message if app is not ready
+        synchronized (lock) {
+            if (inAppMessage == inFlightMessage) {
+                // A deferred message we handed back to Braze
+                if (reactNativeAppLoaded.get()) {
+                    Log.d(TAG, "Displaying deferred in-app message.");
+                    return InAppMessageOperation.DISPLAY_NOW;
+                }
+                inFlightMessage = null;
+                mainHandler.removeCallbacks(inFlightTimeoutRunnable);
+            } else if (reactNativeAppLoaded.get() && inFlightMessage == null && pendingMessages.size() == 0) {
+                Log.d(TAG, "App loaded. Displaying in-app message.");
+                return InAppMessageOperation.DISPLAY_NOW;
+            }
+
+            // Delay the message until the React Native app is fully loaded, or until the messages
+            // deferred before it have been shown. The queue owns it from here, so Braze drops its copy.
+            if (pendingMessages.offer(inAppMessage)) {
+                Log.d(TAG, String.format("Deferring in-app message (%d pending)", pendingMessages.size()));
+            } else {
+                Log.d(TAG, "Deferred in-app message queue full; dropping lower-priority message.");
+            }
+        }
+
+        if (reactNativeAppLoaded.get()) {
+            mainHandler.post(displayNextRunnable);
+        }
+        return InAppMessageOperation.DISCARD;
+    }
+
+    @Override
+    public void afterInAppMessageViewOpened(View inAppMessageView, IInAppMessage inAppMessage) {
+        synchronized (lock) {
+            if (inAppMessage == inFlightMessage) {
+                mainHandler.removeCallbacks(inFlightTimeoutRunnable);
+            }
+        }
+    }
+
+    @Override
+    public void afterInAppMessageViewClosed(IInAppMessage inAppMessage) {
+        synchronized (lock) {
+            if (inAppMessage != inFlightMessage) {
+                return;
+            }
+            inFlightMessage = null;
         }
-        Log.d(TAG, "App loaded. Displaying in-app message.");
-        return InAppMessageOperation.DISPLAY_NOW;  // Display the message if app is loaded
+        mainHandler.removeCallbacks(inFlightTimeoutRunnable);
+        mainHandler.postDelayed(displayNextRunnable, DRAIN_PACE_MS);
+    }
+
+    public boolean isReactNativeAppLoaded() {
+        return reactNativeAppLoaded.get();
     }
 
     public void setReactNativeAppLoaded(boolean isLoaded) {
-        isReactNativeAppLoaded = isLoaded;
+        reactNativeAppLoaded.set(isLoaded);
 
-        // Try to display the cached message when the app is ready
-        if (isLoaded && cachedInAppMessage != null) {
-            Log.d(TAG, "App is ready, displaying cached IAM");
-            BrazeInAppMessageManager.getInstance().addInAppMessage(cachedInAppMessage);
-            cachedInAppMessage = null;  // Clear after displaying
+        // Start draining the deferred messages when the app is ready
+        if (isLoaded) {
+            mainHandler.post(displayNextRunnable);
         }
     }
-}
 
+    /**
+     * Hands the highest-priority deferred message to Braze, one at a time; the next follows once
+     * the previous one closes.
+     */
+    private void displayNext() {
+        IInAppMessage next;
+        synchronized (lock) {
+            if (!reactNativeAppLoaded.get() || inFlightMessage != null) {
+                return;
+            }
+            next = pendingMessages.poll();
+            if (next == null) {
+                return;
+            }
+            inFlightMessage = next;
+        }
+
+        Log.d(TAG, "App is ready, displaying deferred IAM");
+        mainHandler.postDelayed(inFlightTimeoutRunnable, IN_FLIGHT_TIMEOUT_MS);
+        BrazeInAppMessageManager.getInstance().addInAppMessage(next);
+    }
+
+    private void onInFlightTimeout() {
+        synchronized (lock) {
+            if (inFlightMessage == null) {
+                return;
+            }
+            Log.d(TAG, "Deferred in-app message was not displayed; moving on.");
+            inFlightMessage = null;
+        }
+        displayNext();
+    }
+}
@@ -1,12 +1,9 @@
 package com.bitpay.wallet;
 
-import android.app.Activity;
-import androidx.annotation.NonNull;
-
+import com.bitpay.wallet.NativeModuleExecutor.Affinity;
+import com.bitpay.wallet.specs.NativeDoshSpec;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
-import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableMap;
 
 class BpErrorCodes {
@@ -15,55 +12,30 @@ class BpErrorCodes {
   public static final String UNEXPECTED_ERROR = "BP_UNEXPECTED_ERROR";
 }
 
-public class DoshModule extends ReactContextBaseJavaModule {
-  private boolean initialized = false;
+public class DoshModule extends NativeDoshSpec {
+  private final NativeModuleExecutor executor = NativeModuleExecutor.getInstance();
+  private volatile boolean initialized = false;
 
   DoshModule(ReactApplicationContext context) {
     super(context);
   }
 
-  @NonNull
   @Override
-  public String getName() {
-    return "Dosh";
-  }
-
-  @ReactMethod
   public void initializeDosh(String id, ReadableMap uiOptions, Promise promise) {
-    DoshModule self = this;
-    Activity activity = this.getCurrentActivity();
-
-    activity.runOnUiThread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          self.initialized = true;
-          promise.resolve(true);
-        } catch (Exception ex) {
-          promise.reject(BpErrorCodes.UNEXPECTED_ERROR, ex.getMessage());
-        }
-      }
+    executor.execute("Dosh.initializeDosh", Affinity.INLINE, promise, () -> {
+      initialized = true;
+      promise.resolve(true);
     });
   }
 
-  @ReactMethod
+  @Override
   public void presentIntegrationChecklist(Promise promise) {
-    Activity activity = this.getCurrentActivity();
-    ReactApplicationContext context = this.getReactApplicationContext();
-
-    activity.runOnUiThread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          promise.resolve(true);
-        } catch (Exception ex) {
-          promise.reject(BpErrorCodes.UNEXPECTED_ERROR, ex.getMessage());
-        }
-      }
+    executor.executeWithActivity(getReactApplicationContext(), "Dosh.presentIntegrationChecklist", Affinity.UI, promise, activity -> {
+      promise.resolve(true);
     });
   }
 
-  @ReactMethod
+  @Override
   public void setDoshToken(String token, Promise promise) {
     if (!this.initialized) {
       promise.reject(BpErrorCodes.NOT_INIT, "Not initialized");
@@ -75,59 +47,32 @@ public class DoshModule extends ReactContextBaseJavaModule {
       return;
     }
 
-    Activity activity = this.getCurrentActivity();
-
-    activity.runOnUiThread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          promise.resolve(true);
-        } catch (Exception ex) {
-          promise.reject(BpErrorCodes.UNEXPECTED_ERROR, ex.getMessage());
-        }
-      }
+    executor.execute("Dosh.setDoshToken", Affinity.INLINE, promise, () -> {
+      promise.resolve(true);
     });
   }
 
-  @ReactMethod
+  @Override
   public void present(Promise promise) {
     if (!this.initialized) {
       promise.reject(BpErrorCodes.NOT_INIT, "Not initialized");
       return;
     }
 
-    Activity activity = this.getCurrentActivity();
-    ReactApplicationContext context = this.getReactApplicationContext();
-
-    activity.runOnUiThread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          promise.resolve(true);
-        } catch (Exception ex) {
-          promise.reject(BpErrorCodes.UNEXPECTED_ERROR, ex.getMessage());
-        }
-      }
+    executor.executeWithActivity(getReactApplicationContext(), "Dosh.present", Affinity.UI, promise, activity -> {
+      promise.resolve(true);
     });
   }
 
-  @ReactMethod
+  @Override
   public void clearUser(Promise promise) {
     if (!this.initialized) {
       promise.reject(BpErrorCodes.NOT_INIT, "Not initialized");
       return;
     }
 
-    Activity activity = this.getCurrentActivity();
-    activity.runOnUiThread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          promise.resolve(true);
-        } catch (Exception ex) {
-          promise.reject(BpErrorCodes.UNEXPECTED_ERROR, ex.getMessage());
-        }
-      }
+    executor.execute("Dosh.clearUser", Affinity.INLINE, promise, () -> {
+      promise.resolve(true);
     });
   }
 
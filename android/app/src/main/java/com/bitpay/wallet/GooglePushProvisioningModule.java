@@ -1,18 +1,16 @@
 package com.bitpay.wallet;
 
 import android.app.Activity;
-import androidx.annotation.NonNull;
 import android.content.Intent;
 import java.nio.charset.Charset;
 
+import com.bitpay.wallet.specs.NativeGooglePushProvisioningSpec;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ActivityEventListener;
 import com.facebook.react.bridge.BaseActivityEventListener;
-import com.facebook.react.bridge.ReactMethod;
 
-public class GooglePushProvisioningModule extends ReactContextBaseJavaModule {
+public class GooglePushProvisioningModule extends NativeGooglePushProvisioningSpec {
 
   private final ReactApplicationContext reactContext;
   private Promise requestPaymentPromise = null;
@@ -20,40 +18,32 @@ public class GooglePushProvisioningModule extends ReactContextBaseJavaModule {
   private static final int REQUEST_CODE_PUSH_TOKENIZE = 3;
   private Object tapAndPayClient;
 
-  @NonNull
-  @Override
-  public String getName() {
-    return "GooglePushProvisioning";
-  }
-
   @Override
   public void initialize() {
     super.initialize();
     tapAndPayClient = new Object();
   }
 
-  @ReactMethod
+  @Override
   public void addListener(String eventName) {
     // no-op
   }
 
-  @ReactMethod
-  public void removeListeners(Integer count) {
+  @Override
+  public void removeListeners(double count) {
     // no-op
   }
 
-  @ReactMethod
+  @Override
   public void startPushProvision(String opc, String name, String lastFourDigits, Promise promise) {
+    NativeModuleExecutor.getInstance().executeWithActivity(getReactApplicationContext(), "GooglePushProvisioning.startPushProvision", NativeModuleExecutor.Affinity.UI, promise, activity -> {
+      try {
+        requestPaymentPromise = promise;
 
-    GooglePushProvisioningModule self = this;
-    Activity activity = this.getCurrentActivity();
-
-    try {
-      self.requestPaymentPromise = promise;
-
-    } catch(Exception e) {
-      promise.reject("TAP_AND_PAY_START_PUSH_PROVISION_ERROR");
-    }
+      } catch(Exception e) {
+        promise.reject("TAP_AND_PAY_START_PUSH_PROVISION_ERROR");
+      }
+    });
   }
 
   private final ActivityEventListener activityEventListener = new BaseActivityEventListener() {
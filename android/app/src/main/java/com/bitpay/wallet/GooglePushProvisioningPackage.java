@@ -1,26 +1,40 @@
 package com.bitpay.wallet;
-import com.facebook.react.ReactPackage;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.BaseReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
+public class GooglePushProvisioningPackage extends BaseReactPackage {
 
-public class GooglePushProvisioningPackage implements ReactPackage {
-
+  @Nullable
   @Override
-  public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-      return Collections.emptyList();
+  public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+    if (GooglePushProvisioningModule.NAME.equals(name)) {
+      return new GooglePushProvisioningModule(reactContext);
+    }
+    return null;
   }
 
   @Override
-  public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-    List<NativeModule> modules = new ArrayList<>();
-
-    modules.add(new GooglePushProvisioningModule(reactContext));
-    return modules;
+  public ReactModuleInfoProvider getReactModuleInfoProvider() {
+    return () -> {
+      Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+      moduleInfos.put(GooglePushProvisioningModule.NAME, new ReactModuleInfo(
+          GooglePushProvisioningModule.NAME,
+          GooglePushProvisioningModule.class.getName(),
+          false, // canOverrideExistingModule
+          false, // needsEagerInit
+          false, // isCxxModule
+          true // isTurboModule
+      ));
+      return moduleInfos;
+    };
   }
 }
@@ -0,0 +1,295 @@
+package com.bitpay.wallet;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Cuts the tail latency of idempotent reads by sending a second attempt when the first one is
+ * slower than its route usually is, and keeping whichever answers first.
+ *
+ * Only body-less GET/HEAD requests to allow-listed URLs whose route has at least
+ * {@link #MIN_SAMPLES} time-to-first-byte samples in {@link NetworkLatencyHistograms} are hedged.
+ * Background revalidations from {@link ResponseCacheInterceptor} never are, since an attempt would
+ * answer them from the stale cache entry they are meant to refresh.
+ *
+ * While the budget below can pay for a hedge, the first attempt runs as a clone of the call, executed
+ * inline on the thread and in the dispatcher slot of the call itself, so it can be canceled without
+ * canceling the call. If the route's p95 time to first byte passes without response headers, a
+ * second clone is enqueued on the dispatcher, within its usual limits, and the loser is canceled as
+ * soon as either one returns. The hedge bypasses {@link RequestCoalescingInterceptor}, which would
+ * otherwise make it wait for the first attempt.
+ *
+ * Hedges are paid for from a global budget: every eligible request earns a fraction of a hedge
+ * (budgetPercent / 100) and each hedge spends a whole one, so hedges never exceed that share of
+ * eligible requests plus a small burst, even while the backend is struggling.
+ *
+ * The interceptor has to run first in the chain so the attempts, not the call, go through the rest
+ * of the interceptors and the network.
+ */
+public class HedgingInterceptor implements Interceptor {
+    static final int MIN_SAMPLES = 20;
+    static final double PERCENTILE = 0.95;
+    // Below this a hedge saves too little to be worth a second request
+    static final long MIN_DELAY_MILLIS = 50;
+    static final int MAX_BURST = 10;
+    private static final long CANCEL_POLL_MILLIS = 100;
+    // Budget is kept in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+
+    private static final AtomicLong hedgedRequests = new AtomicLong();
+    private static final AtomicLong hedgeWins = new AtomicLong();
+
+    // Calls that are answered by attempts, all attempts, and the second attempts alone
+    private static final Set<Call> racedCalls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Set<Call> attemptCalls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Set<Call> hedgeCalls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final NetworkLatencyHistograms histograms;
+    private final AllowedUrlMatcher allowedUrls;
+    private final long earnedPerRequest;
+    private final AtomicLong budget = new AtomicLong();
+    // Only fires hedge deadlines and forwards cancellation; the requests run on the dispatcher
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "HedgingInterceptor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    HedgingInterceptor(NetworkLatencyHistograms histograms, AllowedUrlMatcher allowedUrls, int budgetPercent) {
+        this.histograms = histograms;
+        this.allowedUrls = allowedUrls;
+        this.earnedPerRequest = HEDGE_COST * budgetPercent / 100;
+    }
+
+    /** Number of second attempts sent. */
+    public static long getHedgedCount() {
+        return hedgedRequests.get();
+    }
+
+    /** Number of second attempts that answered before the first one. */
+    public static long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    public static void resetCounters() {
+        hedgedRequests.set(0);
+        hedgeWins.set(0);
+    }
+
+    /** Whether the call is a second attempt, which must reach the network on its own. */
+    static boolean isHedge(Call call) {
+        return hedgeCalls.contains(call);
+    }
+
+    /** Whether the call is a first or second attempt made on behalf of another call. */
+    static boolean isAttempt(Call call) {
+        return attemptCalls.contains(call);
+    }
+
+    /** Whether the call was answered by attempts and has no timings of its own. */
+    static boolean isRaced(Call call) {
+        return racedCalls.contains(call);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Call call = chain.call();
+        if (isAttempt(call) || ResponseCacheInterceptor.isRevalidation(call) || !isHedgeable(request)) {
+            return chain.proceed(request);
+        }
+
+        long delayMillis = delayMillis(request);
+        earn();
+        if (delayMillis < 0 || budget.get() < HEDGE_COST) {
+            return chain.proceed(request);
+        }
+
+        racedCalls.add(call);
+        Race race = new Race(call, attempt(call, false));
+        ScheduledFuture<?> deadline = timer.schedule(race::hedge, delayMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> cancellation = timer.scheduleWithFixedDelay(
+            race::forwardCancel, CANCEL_POLL_MILLIS, CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            return race.run();
+        } finally {
+            deadline.cancel(false);
+            cancellation.cancel(false);
+        }
+    }
+
+    private boolean isHedgeable(Request request) {
+        String method = request.method();
+        return ("GET".equals(method) || "HEAD".equals(method))
+            && request.body() == null
+            && allowedUrls.matches(request.url());
+    }
+
+    /**
+     * The route's current p95 time to first byte in milliseconds, or -1 while it has too few
+     * samples. The total call time would include reading the body, which the deadline does not.
+     */
+    private long delayMillis(Request request) {
+        int slot = histograms.slotFor(request.url());
+        if (slot == NetworkLatencyHistograms.OVERFLOW_SLOT) {
+            return -1;
+        }
+        double p95 = histograms.percentileMillis(slot, NetworkLatencyHistograms.PHASE_TTFB, PERCENTILE, MIN_SAMPLES);
+        return p95 < 0 ? -1 : Math.max(MIN_DELAY_MILLIS, (long) Math.ceil(p95));
+    }
+
+    private void earn() {
+        long cap = MAX_BURST * HEDGE_COST;
+        long current;
+        do {
+            current = budget.get();
+            if (current >= cap) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(cap, current + earnedPerRequest)));
+    }
+
+    private boolean spend() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    // A clone goes through the same client, and therefore the same allow-list, as the call.
+    private static Call attempt(Call call, boolean hedge) {
+        Call attempt = call.clone();
+        attemptCalls.add(attempt);
+        if (hedge) {
+            hedgeCalls.add(attempt);
+        }
+        return attempt;
+    }
+
+    private final class Race implements Callback {
+        private final Call call;
+        private final Call primary;
+        private final CountDownLatch hedgeDone = new CountDownLatch(1);
+        private Call hedge;
+        // Set once the call has its answer; later responses are closed
+        private boolean finished;
+        private Response hedgeResponse;
+
+        Race(Call call, Call primary) {
+            this.call = call;
+            this.primary = primary;
+        }
+
+        /** Runs the first attempt on the calling thread and returns whichever attempt wins. */
+        Response run() throws IOException {
+            Response response;
+            try {
+                response = primary.execute();
+            } catch (IOException e) {
+                return primaryFailed(e);
+            }
+            synchronized (this) {
+                if (finished) {
+                    // The hedge won while the first attempt was completing
+                    response.close();
+                    return hedgeResponse;
+                }
+                finished = true;
+                if (hedge != null) {
+                    hedge.cancel();
+                }
+                return response;
+            }
+        }
+
+        private Response primaryFailed(IOException error) throws IOException {
+            synchronized (this) {
+                if (finished) {
+                    // Canceled because the hedge won
+                    return hedgeResponse;
+                }
+                if (hedge == null) {
+                    finished = true;
+                    throw error;
+                }
+            }
+            // The hedge may still answer
+            try {
+                while (!hedgeDone.await(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    forwardCancel();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hedge.cancel();
+                throw new IOException("Interrupted while waiting for a hedged request", e);
+            }
+            synchronized (this) {
+                finished = true;
+                if (hedgeResponse != null) {
+                    return hedgeResponse;
+                }
+                throw error;
+            }
+        }
+
+        /** Enqueues the second attempt once the deadline passed without response headers. */
+        synchronized void hedge() {
+            if (finished || call.isCanceled() || !spend()) {
+                return;
+            }
+            hedgedRequests.incrementAndGet();
+            hedge = attempt(call, true);
+            hedge.enqueue(this);
+        }
+
+        synchronized void forwardCancel() {
+            if (!call.isCanceled() || finished) {
+                return;
+            }
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+
+        @Override
+        public void onResponse(@NonNull Call attempt, @NonNull Response response) {
+            synchronized (this) {
+                if (finished) {
+                    response.close();
+                } else {
+                    finished = true;
+                    hedgeResponse = response;
+                    hedgeWins.incrementAndGet();
+                    primary.cancel();
+                }
+            }
+            hedgeDone.countDown();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call attempt, @NonNull IOException e) {
+            hedgeDone.countDown();
+        }
+    }
+}
@@ -2,14 +2,12 @@ package com.bitpay.wallet;
 
 import android.util.Log;
 
+import com.bitpay.wallet.specs.NativeInAppMessageModuleSpec;
 import com.braze.support.BrazeLogger;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
-import com.facebook.react.bridge.ReactMethod;
 
-public class InAppMessageModule extends ReactContextBaseJavaModule {
+public class InAppMessageModule extends NativeInAppMessageModuleSpec {
     private static final String TAG = BrazeLogger.getBrazeLogTag(InAppMessageModule.class);
-    private static final String MODULE_NAME = "InAppMessageModule";
     private final MainApplication app;
 
     public InAppMessageModule(ReactApplicationContext reactContext) {
@@ -18,19 +16,20 @@ public class InAppMessageModule extends ReactContextBaseJavaModule {
     }
 
     @Override
-    public String getName() {
-        return MODULE_NAME;
-    }
-
-    @ReactMethod
     public void notifyReactNativeAppLoaded() {
-        Log.d(TAG, "BitPay App loaded. IAM notification ready to receive.");
-        app.notifyReactNativeAppLoaded();
+        // Only flips a flag; the listener posts its own drain to the main thread
+        NativeModuleExecutor.getInstance().execute("InAppMessageModule.notifyReactNativeAppLoaded", NativeModuleExecutor.Affinity.INLINE, null, () -> {
+            Log.d(TAG, "BitPay App loaded. IAM notification ready to receive.");
+            StartupTimeline.markJsAppLoaded(getReactApplicationContext());
+            app.notifyReactNativeAppLoaded();
+        });
     }
 
-    @ReactMethod
+    @Override
     public void notifyReactNativeAppPaused() {
-        Log.d(TAG, "BitPay App Paused. IAM will be paused until open the app.");
-        app.notifyReactNativeAppPaused();
+        NativeModuleExecutor.getInstance().execute("InAppMessageModule.notifyReactNativeAppPaused", NativeModuleExecutor.Affinity.INLINE, null, () -> {
+            Log.d(TAG, "BitPay App Paused. IAM will be paused until open the app.");
+            app.notifyReactNativeAppPaused();
+        });
     }
 }
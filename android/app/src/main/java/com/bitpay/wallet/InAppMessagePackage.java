@@ -1,23 +1,40 @@
 package com.bitpay.wallet;
-import com.facebook.react.ReactPackage;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.BaseReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
-public class InAppMessagePackage implements ReactPackage {
+public class InAppMessagePackage extends BaseReactPackage {
+
+    @Nullable
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        List<NativeModule> nativeModules = new ArrayList<>();
-        nativeModules.add(new InAppMessageModule(reactContext)); // Pass the context to your native module
-        return nativeModules;
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (InAppMessageModule.NAME.equals(name)) {
+            return new InAppMessageModule(reactContext);
+        }
+        return null;
     }
 
     @Override
-    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-        return new ArrayList<>(); // Return an empty list if not using any custom views
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+            moduleInfos.put(InAppMessageModule.NAME, new ReactModuleInfo(
+                    InAppMessageModule.NAME,
+                    InAppMessageModule.class.getName(),
+                    false, // canOverrideExistingModule
+                    false, // needsEagerInit
+                    false, // isCxxModule
+                    true // isTurboModule
+            ));
+            return moduleInfos;
+        };
     }
 }
-
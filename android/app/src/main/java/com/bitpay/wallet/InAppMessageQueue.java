@@ -0,0 +1,155 @@
+package com.bitpay.wallet;
+
+import android.os.SystemClock;
+
+import com.braze.models.inappmessage.IInAppMessage;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded priority queue of in-app messages deferred until the React Native app is ready.
+ *
+ * Messages are ordered by the campaign's "priority" key-value extra (higher first), then by arrival.
+ * A message replaces any queued message from the same campaign. Expired messages, either past their
+ * Braze expiration or held longer than {@link #MAX_DEFER_MS}, are dropped when the queue is read.
+ * When the queue is full, the lowest-priority message is evicted if the new one outranks it;
+ * otherwise the new one is dropped.
+ *
+ * Not thread-safe on its own; {@link CustomInAppMessageManagerListener} guards it with the same lock
+ * as its loaded flag.
+ */
+class InAppMessageQueue {
+    static final int DEFAULT_CAPACITY = 8;
+    static final long MAX_DEFER_MS = 60 * 60 * 1000;
+    private static final String PRIORITY_EXTRA = "priority";
+    private static final String CAMPAIGN_ID_EXTRA = "campaign_id";
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.priority != b.priority) {
+            return Integer.compare(b.priority, a.priority);
+        }
+        return Long.compare(a.sequence, b.sequence);
+    };
+
+    private final int capacity;
+    private final PriorityQueue<Entry> queue;
+    private long nextSequence = 0;
+
+    InAppMessageQueue(int capacity) {
+        this.capacity = capacity;
+        this.queue = new PriorityQueue<>(capacity, ORDER);
+    }
+
+    /**
+     * Queues {@code message}. Returns false if it was dropped because the queue is full of
+     * higher-priority messages.
+     */
+    boolean offer(IInAppMessage message) {
+        pruneExpired();
+
+        Entry entry = new Entry(message, campaignKey(message), priorityOf(message), nextSequence++, SystemClock.elapsedRealtime());
+
+        Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().campaignKey.equals(entry.campaignKey)) {
+                iterator.remove();
+                break;
+            }
+        }
+
+        if (queue.size() >= capacity) {
+            Entry lowest = null;
+            for (Entry queued : queue) {
+                if (lowest == null || ORDER.compare(queued, lowest) > 0) {
+                    lowest = queued;
+                }
+            }
+            if (lowest.priority >= entry.priority) {
+                return false;
+            }
+            queue.remove(lowest);
+        }
+
+        queue.add(entry);
+        return true;
+    }
+
+    /**
+     * Removes and returns the highest-priority message that has not expired, or null.
+     */
+    IInAppMessage poll() {
+        pruneExpired();
+        Entry entry = queue.poll();
+        return entry == null ? null : entry.message;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    private void pruneExpired() {
+        long now = SystemClock.elapsedRealtime();
+        long wallNow = System.currentTimeMillis();
+        Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            long expiration = entry.message.getExpirationTimestamp();
+            if (now - entry.enqueuedAt > MAX_DEFER_MS || (expiration > 0 && expiration <= wallNow)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int priorityOf(IInAppMessage message) {
+        Map<String, String> extras = message.getExtras();
+        String value = extras == null ? null : extras.get(PRIORITY_EXTRA);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String campaignKey(IInAppMessage message) {
+        Map<String, String> extras = message.getExtras();
+        if (extras != null && extras.get(CAMPAIGN_ID_EXTRA) != null) {
+            return extras.get(CAMPAIGN_ID_EXTRA);
+        }
+        try {
+            JSONObject json = message.getForJsonPut();
+            String triggerId = json == null ? null : json.optString("trigger_id", null);
+            if (triggerId != null && !triggerId.isEmpty()) {
+                return triggerId;
+            }
+        } catch (RuntimeException ignored) {
+            // Fall through to an identity key; the message is still queued, just not deduplicated.
+        }
+        return "message:" + System.identityHashCode(message);
+    }
+
+    private static final class Entry {
+        final IInAppMessage message;
+        final String campaignKey;
+        final int priority;
+        final long sequence;
+        final long enqueuedAt;
+
+        Entry(IInAppMessage message, String campaignKey, int priority, long sequence, long enqueuedAt) {
+            this.message = message;
+            this.campaignKey = campaignKey;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bitpay.wallet;
+
+import android.util.JsonReader;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.regex.Pattern;
+
+/**
+ * JavaScript's {@code Number(value)} applied to JSON values as they are read, so natively decoded
+ * responses keep and drop exactly what the JS decoders would.
+ *
+ * null, false and "" become 0, true becomes 1, strings follow StringToNumber (surrounding
+ * whitespace, signed decimals and exponents, 0x/0o/0b integers), and arrays go through their
+ * string form like {@code Number([x])} does. Everything else is NaN. "Infinity" is read as NaN
+ * rather than infinity, which callers drop the same way.
+ */
+final class JsNumber {
+    // StrDecimalLiteral without Infinity; Double.parseDouble also takes suffixes and hex floats
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+    private static final Pattern NON_DECIMAL = Pattern.compile("0([xX][0-9a-fA-F]+|[oO][0-7]+|[bB][01]+)");
+
+    private JsNumber() {
+    }
+
+    /** Reads the next value and returns {@code Number(value)}. */
+    static double read(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NUMBER:
+                // JSON number literals are valid StrDecimalLiterals; nextDouble() would throw on
+                // out-of-range values without consuming them
+                return fromString(reader.nextString());
+            case STRING:
+                return fromString(reader.nextString());
+            case NULL:
+                reader.nextNull();
+                return 0;
+            case BOOLEAN:
+                return reader.nextBoolean() ? 1 : 0;
+            case BEGIN_ARRAY:
+                return readArray(reader);
+            default:
+                reader.skipValue();
+                return Double.NaN;
+        }
+    }
+
+    /** StringToNumber from the ECMAScript spec. */
+    static double fromString(String value) {
+        String trimmed = trim(value);
+        if (trimmed.isEmpty()) {
+            return 0;
+        }
+        if (DECIMAL.matcher(trimmed).matches()) {
+            return Double.parseDouble(trimmed);
+        }
+        if (NON_DECIMAL.matcher(trimmed).matches()) {
+            char prefix = Character.toLowerCase(trimmed.charAt(1));
+            int radix = prefix == 'x' ? 16 : prefix == 'o' ? 8 : 2;
+            return new BigInteger(trimmed.substring(2), radix).doubleValue();
+        }
+        return Double.NaN;
+    }
+
+    // Number(array) is Number(array.join(",")): 0 when empty, the lone element's string form when
+    // there is one, and NaN otherwise since the separator never parses
+    private static double readArray(JsonReader reader) throws IOException {
+        reader.beginArray();
+        if (!reader.hasNext()) {
+            reader.endArray();
+            return 0;
+        }
+        double result;
+        switch (reader.peek()) {
+            case NUMBER:
+            case STRING:
+            case NULL:
+            case BEGIN_ARRAY:
+                result = read(reader);
+                break;
+            default:
+                // String(true) is "true" and String({}) is "[object Object]"
+                reader.skipValue();
+                result = Double.NaN;
+        }
+        if (reader.hasNext()) {
+            result = Double.NaN;
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return result;
+    }
+
+    private static String trim(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+
+    // WhiteSpace and LineTerminator: tab, VT, FF, BOM, Zs, LF, CR, LS and PS
+    private static boolean isWhitespace(char c) {
+        return c == '\t' || c == '\u000B' || c == '\f' || c == '\uFEFF' || c == '\n' || c == '\r'
+            || Character.isSpaceChar(c);
+    }
+}
@@ -13,6 +13,8 @@ public class LaunchActivity extends Activity {
       MainApplication application = (MainApplication) getApplication();
       // check that MainActivity is not started yet
       if (!application.isActivityInBackStack(MainActivity.class)) {
+        StartupTimeline.onLaunchActivityCreated();
+        StartupTimeline.mark(StartupTimeline.LAUNCH_ACTIVITY_CREATE);
         Intent intent = new Intent(this, MainActivity.class);
         startActivity(intent);
       }
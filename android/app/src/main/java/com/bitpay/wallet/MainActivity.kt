@@ -6,6 +6,7 @@ import android.graphics.Color
 import android.os.Build
 import android.os.Bundle
 import android.view.View
+import android.view.ViewTreeObserver
 import android.view.WindowManager
 import com.braze.ui.inappmessage.BrazeInAppMessageManager
 import com.facebook.react.ReactActivity
@@ -31,19 +32,27 @@ class MainActivity : ReactActivity() {
         DefaultReactActivityDelegate(this, mainComponentName, fabricEnabled)
 
     override fun onCreate(savedInstanceState: Bundle?) {
-        // Integrity check must run before React Native initialises.
+        // The bundle hash was started in MainApplication.onCreate. Create the React host while it
+        // finishes, but wait for the result before super.onCreate, which loads and runs the bundle.
         // super.onCreate is called first in the failure path so the activity window token
         // is valid when AlertDialog.Builder tries to attach the dialog.
-        if (!BundleIntegrityVerifier.verify(this)) {
+        StartupTimeline.onLaunchActivityCreated()
+        (application as MainApplication).reactHost
+        if (!BundleIntegrityVerifier.awaitVerification(this)) {
             super.onCreate(savedInstanceState)
             BundleIntegrityVerifier.showTamperedAlert(this)
             return
         }
 
+        // Background startup work the first frame relies on, e.g. the custom font
+        (application as MainApplication).startupTasks.awaitFirstFrameTasks()
+
         RNBootSplash.init(this, R.style.BootTheme)
+        StartupTimeline.mark(StartupTimeline.BOOT_SPLASH_INIT)
         supportFragmentManager.fragmentFactory = RNScreensFragmentFactory()
         super.onCreate(savedInstanceState)
         (application as MainApplication).addActivityToStack(this.javaClass)
+        markFirstFrame()
 
         window.apply {
             setFlags(
@@ -67,6 +76,17 @@ class MainActivity : ReactActivity() {
         }
     }
 
+    private fun markFirstFrame() {
+        val decorView = window.decorView
+        decorView.viewTreeObserver.addOnDrawListener(object : ViewTreeObserver.OnDrawListener {
+            override fun onDraw() {
+                StartupTimeline.mark(StartupTimeline.FIRST_FRAME)
+                // Listeners can't be removed from inside onDraw
+                decorView.post { decorView.viewTreeObserver.removeOnDrawListener(this) }
+            }
+        })
+    }
+
     private fun setWindowFlag(bits: Int, on: Boolean) {
         val win = window
         val winParams = win.attributes
@@ -96,9 +116,16 @@ class MainActivity : ReactActivity() {
     override fun onPause() {
         // Unregisters the BrazeInAppMessageManager for the current Activity.
         BrazeInAppMessageManager.getInstance().unregisterInAppMessageManager(this)
+        // Persist the store writes JS is holding back before the process can be reclaimed
+        WriteBehindModule.requestFlush(WriteBehindModule.REASON_PAUSE)
         super.onPause();
     }
 
+    override fun onTrimMemory(level: Int) {
+        super.onTrimMemory(level)
+        WriteBehindModule.requestFlush(WriteBehindModule.REASON_TRIM_MEMORY)
+    }
+
     override fun onDestroy() {
         super.onDestroy()
         (application as MainApplication).removeActivityFromStack(this.javaClass)
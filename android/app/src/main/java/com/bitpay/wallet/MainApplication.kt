@@ -28,36 +28,83 @@ class MainApplication : Application(), ReactApplication {
                     add(SilentPushPackage())
                     add(TimerPackage())
                     add(InAppMessagePackage())
+                    add(NetworkMetricsPackage())
+                    add(StartupTimelinePackage())
+                    add(StoreCryptoPackage())
+                    add(PersistSnapshotPackage())
+                    add(WriteBehindPackage())
+                    add(RateSeriesStorePackage())
+                    add(RateFeedPackage())
                 },
-            )
+            ).also { StartupTimeline.mark(StartupTimeline.REACT_HOST_CREATED) }
         }
 
+    lateinit var startupTasks: StartupTaskGraph
+        private set
+
     override fun onCreate() {
         super.onCreate()
+        StartupTimeline.mark(StartupTimeline.APP_CREATE_START)
         val context: Context = this
-        loadReactNative(context)
-
-        // Set custom OkHttpClient
-        OkHttpClientProvider.setOkHttpClientFactory(UserAgentClientFactory(context))
-
-        // Set custom networking module
-        NetworkingModule.setCustomClientBuilder { builder ->
-            builder.addInterceptor(AllowedUrlPrefixInterceptor(context))
-        }
+        val clientFactory = UserAgentClientFactory(context)
 
-        // Register custom font
-        ReactFontManager.getInstance().addCustomFont(this, "Archivo", R.font.archivo)
+        startupTasks = StartupTaskGraph.Builder()
+            // Hash the JS bundle in the background; MainActivity waits for the result before the
+            // bundle is loaded.
+            .add("bundleVerification") {
+                BundleIntegrityVerifier.startVerification(context)
+            }
+            .add("loadReactNative", dependsOn = listOf("bundleVerification")) {
+                loadReactNative(context)
+            }
+            // Set custom OkHttpClient. All RN networking clients derive from one shared core,
+            // so they share its connection pool and dispatcher.
+            .add("okHttpClientFactory") {
+                OkHttpClientProvider.setOkHttpClientFactory(clientFactory)
+            }
+            // Build the shared client (meta-data, cache directory) before the first request needs it
+            .add("sharedHttpClient", StartupTaskGraph.Mode.BACKGROUND) {
+                clientFactory.getSharedClient()
+            }
+            .add("allowedUrlPrefixes", StartupTaskGraph.Mode.BACKGROUND) {
+                AllowedUrlPrefixInterceptor.prewarm(context)
+            }
+            // Open pooled connections to the API hosts so the first JS requests skip DNS/TCP/TLS
+            .add("connectionPrewarm", StartupTaskGraph.Mode.BACKGROUND, dependsOn = listOf("sharedHttpClient")) {
+                ConnectionPrewarmer.prewarm(context, clientFactory.getSharedClient())
+            }
+            // Set custom networking module
+            .add("networkingModule") {
+                NetworkingModule.setCustomClientBuilder { builder ->
+                    builder.addInterceptor(AllowedUrlPrefixInterceptor(context))
+                }
+            }
+            // Start reading the fiat rate series file so it is in memory before the store rehydrates
+            .add("rateSeriesStore", StartupTaskGraph.Mode.BACKGROUND) {
+                RateSeriesStore.getInstance(context)
+            }
+            // Register custom font
+            .add("customFont", StartupTaskGraph.Mode.BACKGROUND, beforeFirstFrame = true) {
+                ReactFontManager.getInstance().addCustomFont(context, "Archivo", R.font.archivo)
+            }
+            // Initialize Braze
+            .add("brazeInAppMessages") {
+                BrazeInAppMessageManager.getInstance().ensureSubscribedToInAppMessageEvents(context)
+                customInAppMessageManagerListener = CustomInAppMessageManagerListener()
+                BrazeInAppMessageManager.getInstance().setCustomInAppMessageManagerListener(customInAppMessageManagerListener)
+            }
+            .add("brazeLifecycle") {
+                registerActivityLifecycleCallbacks(
+                    BrazeActivityLifecycleCallbackListener(
+                        sessionHandlingEnabled = true,
+                        registerInAppMessageManager = false
+                    )
+                )
+            }
+            .build()
 
-        // Initialize Braze
-        BrazeInAppMessageManager.getInstance().ensureSubscribedToInAppMessageEvents(context)
-        customInAppMessageManagerListener = CustomInAppMessageManagerListener()
-        BrazeInAppMessageManager.getInstance().setCustomInAppMessageManagerListener(customInAppMessageManagerListener)
-        registerActivityLifecycleCallbacks(
-            BrazeActivityLifecycleCallbackListener(
-                sessionHandlingEnabled = true,
-                registerInAppMessageManager = false
-            )
-        )
+        startupTasks.start()
+        StartupTimeline.mark(StartupTimeline.APP_CREATE_END)
     }
 
     fun notifyReactNativeAppLoaded() {
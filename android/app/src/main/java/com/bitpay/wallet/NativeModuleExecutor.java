@@ -0,0 +1,226 @@
+package com.bitpay.wallet;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactContext;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs native module method bodies on the thread each method declares.
+ *
+ * - {@link Affinity#INLINE} runs on the calling (native modules) thread.
+ * - {@link Affinity#BACKGROUND} runs on a small shared pool, for disk or other blocking work.
+ * - {@link Affinity#UI} runs on the main thread. A call made on the main thread runs immediately;
+ *   otherwise it joins a queue that is drained by a single posted message, so a burst of calls
+ *   costs one main-thread hop instead of one each.
+ *
+ * Methods that need an activity get it on the thread they run on, and their promise is rejected
+ * with {@link #NO_ACTIVITY} when there is none. Anything a body throws rejects its promise.
+ *
+ * The time between a call being enqueued and its body starting is recorded per method in the same
+ * log-linear buckets as {@link NetworkLatencyHistograms}.
+ */
+public final class NativeModuleExecutor {
+    private static final String TAG = "NativeModuleExecutor";
+    public static final String NO_ACTIVITY = "E_NO_ACTIVITY";
+    public static final String UNEXPECTED_ERROR = "E_UNEXPECTED";
+    private static final int BACKGROUND_THREADS = 2;
+
+    public enum Affinity { UI, BACKGROUND, INLINE }
+
+    public interface Body {
+        void run() throws Exception;
+    }
+
+    public interface ActivityBody {
+        void run(Activity activity) throws Exception;
+    }
+
+    private static final NativeModuleExecutor INSTANCE = new NativeModuleExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ConcurrentLinkedQueue<Task> uiQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean uiDrainPosted = new AtomicBoolean(false);
+    private final Runnable drainUiQueue = this::drainUiQueue;
+    private final ExecutorService background = Executors.newFixedThreadPool(BACKGROUND_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "NativeModuleBackground");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentHashMap<String, MethodStats> stats = new ConcurrentHashMap<>();
+
+    public static NativeModuleExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    private NativeModuleExecutor() {}
+
+    /**
+     * Runs {@code body} for {@code method} on its declared thread. A failure rejects
+     * {@code promise} when there is one and is logged otherwise.
+     */
+    public void execute(String method, Affinity affinity, @Nullable Promise promise, Body body) {
+        MethodStats methodStats = statsFor(method, affinity);
+        Task task = new Task(methodStats, promise, body, SystemClock.elapsedRealtimeNanos());
+        switch (affinity) {
+            case UI:
+                if (Looper.myLooper() == Looper.getMainLooper()) {
+                    task.run();
+                    return;
+                }
+                uiQueue.add(task);
+                if (uiDrainPosted.compareAndSet(false, true)) {
+                    mainHandler.post(drainUiQueue);
+                }
+                return;
+            case BACKGROUND:
+                background.execute(task);
+                return;
+            default:
+                task.run();
+        }
+    }
+
+    /**
+     * Like {@link #execute}, handing {@code body} the current activity. Rejects {@code promise}
+     * with {@link #NO_ACTIVITY} instead when there is none by the time the body would run.
+     */
+    public void executeWithActivity(ReactContext context, String method, Affinity affinity, Promise promise, ActivityBody body) {
+        execute(method, affinity, promise, () -> {
+            Activity activity = context.getCurrentActivity();
+            if (activity == null) {
+                promise.reject(NO_ACTIVITY, method + " needs an activity but none is attached");
+                return;
+            }
+            body.run(activity);
+        });
+    }
+
+    private void drainUiQueue() {
+        // Cleared first so a call enqueued while draining posts a new drain instead of being missed.
+        uiDrainPosted.set(false);
+        Task task;
+        while ((task = uiQueue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private MethodStats statsFor(String method, Affinity affinity) {
+        MethodStats existing = stats.get(method);
+        if (existing != null) {
+            return existing;
+        }
+        MethodStats created = new MethodStats(method, affinity);
+        existing = stats.putIfAbsent(method, created);
+        return existing == null ? created : existing;
+    }
+
+    public void reset() {
+        for (MethodStats methodStats : stats.values()) {
+            methodStats.reset();
+        }
+    }
+
+    /**
+     * Visits every method that has run at least once since the last reset.
+     */
+    public void forEachMethod(MethodVisitor visitor) {
+        long[] bucketCounts = new long[NetworkLatencyHistograms.BUCKETS];
+        for (MethodStats methodStats : stats.values()) {
+            long count = 0;
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                bucketCounts[bucket] = methodStats.buckets.get(bucket);
+                count += bucketCounts[bucket];
+            }
+            if (count == 0) {
+                continue;
+            }
+            visitor.visit(
+                methodStats.method,
+                methodStats.affinity,
+                new NetworkLatencyHistograms.PhaseStats(
+                    count,
+                    methodStats.totalMicros.get() / 1000.0 / count,
+                    NetworkLatencyHistograms.percentileMillis(bucketCounts, count, 0.50),
+                    NetworkLatencyHistograms.percentileMillis(bucketCounts, count, 0.95),
+                    NetworkLatencyHistograms.percentileMillis(bucketCounts, count, 0.99)),
+                methodStats.maxMicros.get() / 1000.0);
+        }
+    }
+
+    public interface MethodVisitor {
+        void visit(String method, Affinity affinity, NetworkLatencyHistograms.PhaseStats queueLatency, double maxMillis);
+    }
+
+    private static final class MethodStats {
+        final String method;
+        final Affinity affinity;
+        final AtomicIntegerArray buckets = new AtomicIntegerArray(NetworkLatencyHistograms.BUCKETS);
+        final AtomicLong totalMicros = new AtomicLong();
+        final AtomicLong maxMicros = new AtomicLong();
+
+        MethodStats(String method, Affinity affinity) {
+            this.method = method;
+            this.affinity = affinity;
+        }
+
+        void record(long latencyNanos) {
+            long micros = Math.max(0, latencyNanos / 1000);
+            buckets.incrementAndGet(NetworkLatencyHistograms.bucketFor(micros));
+            totalMicros.addAndGet(micros);
+            long max;
+            while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+                // Retry until this sample is recorded or a larger one wins.
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            totalMicros.set(0);
+            maxMicros.set(0);
+        }
+    }
+
+    private static final class Task implements Runnable {
+        final MethodStats methodStats;
+        @Nullable final Promise promise;
+        final Body body;
+        final long enqueuedAt;
+
+        Task(MethodStats methodStats, @Nullable Promise promise, Body body, long enqueuedAt) {
+            this.methodStats = methodStats;
+            this.promise = promise;
+            this.body = body;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            methodStats.record(SystemClock.elapsedRealtimeNanos() - enqueuedAt);
+            try {
+                body.run();
+            } catch (Exception e) {
+                Log.e(TAG, methodStats.method + " failed", e);
+                if (promise != null) {
+                    promise.reject(UNEXPECTED_ERROR, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.bitpay.wallet;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Per-route latency histograms for the native HTTP stack.
+ *
+ * Everything is preallocated: routes live in a fixed open-addressed table keyed by a hash of the
+ * host and normalized path, and each (route, phase) pair owns a log-linear histogram of
+ * microsecond durations. Recording is a handful of atomic increments and never allocates or
+ * locks. Routes beyond {@link #ROUTE_SLOTS} share an overflow slot.
+ *
+ * Each route also counts its response bodies per content encoding: how many, their size on the
+ * wire and once decoded, and the time spent decoding them.
+ */
+public final class NetworkLatencyHistograms {
+    public static final int PHASE_DNS = 0;
+    public static final int PHASE_CONNECT = 1;
+    public static final int PHASE_TLS = 2;
+    public static final int PHASE_REQUEST = 3;
+    public static final int PHASE_TTFB = 4;
+    public static final int PHASE_BODY = 5;
+    public static final int PHASE_TOTAL = 6;
+    static final int PHASE_COUNT = 7;
+    static final String[] PHASE_NAMES = {"dns", "connect", "tls", "request", "ttfb", "body", "total"};
+
+    public static final int ENCODING_IDENTITY = 0;
+    public static final int ENCODING_GZIP = 1;
+    public static final int ENCODING_BROTLI = 2;
+    static final int ENCODING_COUNT = 3;
+    static final String[] ENCODING_NAMES = {"identity", "gzip", "br"};
+    // responses, wire bytes, decoded bytes, decode micros
+    private static final int TRANSFER_FIELDS = 4;
+
+    static final int ROUTE_SLOTS = 32;
+    static final int OVERFLOW_SLOT = ROUTE_SLOTS;
+    private static final int SLOT_COUNT = ROUTE_SLOTS + 1;
+
+    // 4 sub-buckets per power of two, up to 2^33 microseconds.
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = 32 * SUB_BUCKETS;
+
+    private static final int MAX_ROUTE_SEGMENTS = 4;
+    private static final int MAX_SEGMENT_LENGTH = 16;
+
+    private static final NetworkLatencyHistograms INSTANCE = new NetworkLatencyHistograms();
+
+    private final AtomicLongArray routeKeys = new AtomicLongArray(ROUTE_SLOTS);
+    private final AtomicReferenceArray<String> routeHosts = new AtomicReferenceArray<>(SLOT_COUNT);
+    private final AtomicReferenceArray<String> routePaths = new AtomicReferenceArray<>(SLOT_COUNT);
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(SLOT_COUNT * PHASE_COUNT * BUCKETS);
+    private final AtomicLongArray totals = new AtomicLongArray(SLOT_COUNT * PHASE_COUNT);
+    private final AtomicLongArray failures = new AtomicLongArray(SLOT_COUNT);
+    private final AtomicLongArray transfers = new AtomicLongArray(SLOT_COUNT * ENCODING_COUNT * TRANSFER_FIELDS);
+
+    public static NetworkLatencyHistograms getInstance() {
+        return INSTANCE;
+    }
+
+    NetworkLatencyHistograms() {
+        routeHosts.set(OVERFLOW_SLOT, "*");
+        routePaths.set(OVERFLOW_SLOT, "*");
+    }
+
+    /**
+     * Returns the slot for the URL's host and route. Only the first request for a new route builds
+     * its label strings.
+     */
+    public int slotFor(HttpUrl url) {
+        String host = url.host();
+        String path = url.encodedPath();
+        long key = routeHash(host, path);
+
+        int start = (int) ((key ^ (key >>> 32)) & 0x7fffffff) % ROUTE_SLOTS;
+        for (int i = 0; i < ROUTE_SLOTS; i++) {
+            int slot = (start + i) % ROUTE_SLOTS;
+            long existing = routeKeys.get(slot);
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == 0 && routeKeys.compareAndSet(slot, 0, key)) {
+                routeHosts.set(slot, host);
+                routePaths.set(slot, normalizedPath(path));
+                return slot;
+            }
+            if (routeKeys.get(slot) == key) {
+                return slot;
+            }
+        }
+        return OVERFLOW_SLOT;
+    }
+
+    public void record(int slot, int phase, long durationNanos) {
+        if (durationNanos < 0) {
+            return;
+        }
+        long micros = durationNanos / 1000;
+        int index = (slot * PHASE_COUNT + phase);
+        counts.incrementAndGet(index * BUCKETS + bucketFor(micros));
+        totals.addAndGet(index, micros);
+    }
+
+    public void recordFailure(int slot) {
+        failures.incrementAndGet(slot);
+    }
+
+    public void recordTransfer(int slot, int encoding, long wireBytes, long decodedBytes, long decodeNanos) {
+        int index = (slot * ENCODING_COUNT + encoding) * TRANSFER_FIELDS;
+        transfers.incrementAndGet(index);
+        transfers.addAndGet(index + 1, wireBytes);
+        transfers.addAndGet(index + 2, decodedBytes);
+        transfers.addAndGet(index + 3, Math.max(0, decodeNanos / 1000));
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        for (int i = 0; i < totals.length(); i++) {
+            totals.set(i, 0);
+        }
+        for (int i = 0; i < failures.length(); i++) {
+            failures.set(i, 0);
+        }
+        for (int i = 0; i < transfers.length(); i++) {
+            transfers.set(i, 0);
+        }
+    }
+
+    /**
+     * Visits every route that has recorded at least one sample.
+     */
+    public void forEachRoute(RouteVisitor visitor) {
+        long[] bucketCounts = new long[BUCKETS];
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            String host = routeHosts.get(slot);
+            if (host == null) {
+                continue;
+            }
+
+            PhaseStats[] phases = new PhaseStats[PHASE_COUNT];
+            boolean hasSamples = false;
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                int index = slot * PHASE_COUNT + phase;
+                long count = 0;
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    bucketCounts[bucket] = counts.get(index * BUCKETS + bucket);
+                    count += bucketCounts[bucket];
+                }
+                if (count == 0) {
+                    continue;
+                }
+                hasSamples = true;
+                phases[phase] = new PhaseStats(
+                    count,
+                    totals.get(index) / 1000.0 / count,
+                    percentileMillis(bucketCounts, count, 0.50),
+                    percentileMillis(bucketCounts, count, 0.95),
+                    percentileMillis(bucketCounts, count, 0.99));
+            }
+
+            TransferStats[] routeTransfers = new TransferStats[ENCODING_COUNT];
+            for (int encoding = 0; encoding < ENCODING_COUNT; encoding++) {
+                int index = (slot * ENCODING_COUNT + encoding) * TRANSFER_FIELDS;
+                long responses = transfers.get(index);
+                if (responses == 0) {
+                    continue;
+                }
+                hasSamples = true;
+                routeTransfers[encoding] = new TransferStats(
+                    responses,
+                    transfers.get(index + 1),
+                    transfers.get(index + 2),
+                    transfers.get(index + 3) / 1000.0);
+            }
+
+            long failed = failures.get(slot);
+            if (hasSamples || failed > 0) {
+                visitor.visit(host, routePaths.get(slot), failed, phases, routeTransfers);
+            }
+        }
+    }
+
+    public interface RouteVisitor {
+        /**
+         * {@code phases} and {@code transfers} are indexed by phase and encoding, with null for
+         * those without samples.
+         */
+        void visit(String host, String route, long failures, PhaseStats[] phases, TransferStats[] transfers);
+    }
+
+    public static final class TransferStats {
+        public final long responses;
+        public final long wireBytes;
+        public final long decodedBytes;
+        public final double decodeMillis;
+
+        TransferStats(long responses, long wireBytes, long decodedBytes, double decodeMillis) {
+            this.responses = responses;
+            this.wireBytes = wireBytes;
+            this.decodedBytes = decodedBytes;
+            this.decodeMillis = decodeMillis;
+        }
+    }
+
+    public static final class PhaseStats {
+        public final long count;
+        public final double meanMillis;
+        public final double p50Millis;
+        public final double p95Millis;
+        public final double p99Millis;
+
+        PhaseStats(long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis) {
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+        }
+    }
+
+    static int bucketFor(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        int bucket = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /** Midpoint of the bucket, in microseconds. */
+    static double bucketMidpointMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (width - 1) / 2.0;
+    }
+
+    /**
+     * Returns a percentile of one phase of the slot in milliseconds, or -1 if it has fewer than
+     * {@code minSamples} samples. Reads the live counts without allocating, so it is cheap enough to
+     * call per request.
+     */
+    double percentileMillis(int slot, int phase, double percentile, long minSamples) {
+        int base = (slot * PHASE_COUNT + phase) * BUCKETS;
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += counts.get(base + bucket);
+        }
+        if (count == 0 || count < minSamples) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(base + bucket);
+            if (seen >= rank) {
+                return bucketMidpointMicros(bucket) / 1000.0;
+            }
+        }
+        return bucketMidpointMicros(BUCKETS - 1) / 1000.0;
+    }
+
+    static double percentileMillis(long[] bucketCounts, long count, double percentile) {
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= rank) {
+                return bucketMidpointMicros(bucket) / 1000.0;
+            }
+        }
+        return bucketMidpointMicros(bucketCounts.length - 1) / 1000.0;
+    }
+
+    /**
+     * FNV-1a over the host and the normalized path, computed without building either string.
+     */
+    private static long routeHash(String host, String path) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < host.length(); i++) {
+            hash = (hash ^ host.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '|') * 0x100000001b3L;
+
+        int segments = 0;
+        int start = 1;
+        while (start <= path.length() && segments < MAX_ROUTE_SEGMENTS) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end == start) {
+                break;
+            }
+            hash = (hash ^ '/') * 0x100000001b3L;
+            if (isIdentifier(path, start, end)) {
+                hash = (hash ^ '*') * 0x100000001b3L;
+            } else {
+                for (int i = start; i < end; i++) {
+                    hash = (hash ^ path.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            segments++;
+            start = end + 1;
+        }
+
+        // 0 marks an empty table slot.
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * The path as hashed by {@link #routeHash}: at most four segments, with identifiers such as
+     * wallet ids or transaction hashes replaced by "*".
+     */
+    static String normalizedPath(String path) {
+        StringBuilder builder = new StringBuilder();
+        int segments = 0;
+        int start = 1;
+        while (start <= path.length() && segments < MAX_ROUTE_SEGMENTS) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end == start) {
+                break;
+            }
+            builder.append('/');
+            if (isIdentifier(path, start, end)) {
+                builder.append('*');
+            } else {
+                builder.append(path, start, end);
+            }
+            segments++;
+            start = end + 1;
+        }
+        return builder.length() == 0 ? "/" : builder.toString();
+    }
+
+    private static boolean isIdentifier(String path, int start, int end) {
+        if (end - start > MAX_SEGMENT_LENGTH) {
+            return true;
+        }
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
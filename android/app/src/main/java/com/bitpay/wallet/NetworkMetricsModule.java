@@ -0,0 +1,96 @@
+package com.bitpay.wallet;
+
+import com.bitpay.wallet.specs.NativeNetworkMetricsSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Exposes the native HTTP latency histograms, per-route transfer sizes and request counters to JS,
+ * along with the queue latency of native module calls recorded by {@link NativeModuleExecutor}.
+ */
+public class NetworkMetricsModule extends NativeNetworkMetricsSpec {
+    public NetworkMetricsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Resolves with per-route phase percentiles (in milliseconds) and transfer sizes per content
+     * encoding, request counters and per-method native module queue latency
+     * @param promise
+     */
+    @Override
+    public void getSnapshot(Promise promise) {
+        WritableArray routes = Arguments.createArray();
+        NetworkLatencyHistograms.getInstance().forEachRoute((host, route, failures, phases, transfers) -> {
+            WritableMap routeMap = Arguments.createMap();
+            routeMap.putString("host", host);
+            routeMap.putString("route", route);
+            routeMap.putDouble("failures", failures);
+            for (int phase = 0; phase < phases.length; phase++) {
+                NetworkLatencyHistograms.PhaseStats stats = phases[phase];
+                if (stats == null) {
+                    continue;
+                }
+                WritableMap phaseMap = Arguments.createMap();
+                phaseMap.putDouble("count", stats.count);
+                phaseMap.putDouble("mean", stats.meanMillis);
+                phaseMap.putDouble("p50", stats.p50Millis);
+                phaseMap.putDouble("p95", stats.p95Millis);
+                phaseMap.putDouble("p99", stats.p99Millis);
+                routeMap.putMap(NetworkLatencyHistograms.PHASE_NAMES[phase], phaseMap);
+            }
+            WritableMap transferMap = Arguments.createMap();
+            for (int encoding = 0; encoding < transfers.length; encoding++) {
+                NetworkLatencyHistograms.TransferStats stats = transfers[encoding];
+                if (stats == null) {
+                    continue;
+                }
+                WritableMap encodingMap = Arguments.createMap();
+                encodingMap.putDouble("responses", stats.responses);
+                encodingMap.putDouble("wireBytes", stats.wireBytes);
+                encodingMap.putDouble("decodedBytes", stats.decodedBytes);
+                encodingMap.putDouble("decodeMs", stats.decodeMillis);
+                transferMap.putMap(NetworkLatencyHistograms.ENCODING_NAMES[encoding], encodingMap);
+            }
+            routeMap.putMap("transfer", transferMap);
+            routes.pushMap(routeMap);
+        });
+
+        WritableMap counters = Arguments.createMap();
+        counters.putDouble("upstreamRequests", RequestCoalescingInterceptor.getUpstreamCount());
+        counters.putDouble("coalescedRequests", RequestCoalescingInterceptor.getCoalescedCount());
+        counters.putDouble("hedgedRequests", HedgingInterceptor.getHedgedCount());
+        counters.putDouble("hedgeWins", HedgingInterceptor.getHedgeWinCount());
+
+        WritableArray nativeModules = Arguments.createArray();
+        NativeModuleExecutor.getInstance().forEachMethod((method, affinity, queueLatency, maxMillis) -> {
+            WritableMap methodMap = Arguments.createMap();
+            methodMap.putString("method", method);
+            methodMap.putString("thread", affinity.name().toLowerCase());
+            methodMap.putDouble("count", queueLatency.count);
+            methodMap.putDouble("mean", queueLatency.meanMillis);
+            methodMap.putDouble("p50", queueLatency.p50Millis);
+            methodMap.putDouble("p95", queueLatency.p95Millis);
+            methodMap.putDouble("p99", queueLatency.p99Millis);
+            methodMap.putDouble("max", maxMillis);
+            nativeModules.pushMap(methodMap);
+        });
+
+        WritableMap snapshot = Arguments.createMap();
+        snapshot.putArray("routes", routes);
+        snapshot.putMap("counters", counters);
+        snapshot.putArray("nativeModules", nativeModules);
+        promise.resolve(snapshot);
+    }
+
+    @Override
+    public void reset() {
+        NetworkLatencyHistograms.getInstance().reset();
+        RequestCoalescingInterceptor.resetCounters();
+        HedgingInterceptor.resetCounters();
+        NativeModuleExecutor.getInstance().reset();
+    }
+}
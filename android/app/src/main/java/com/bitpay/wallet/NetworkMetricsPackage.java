@@ -0,0 +1,40 @@
+package com.bitpay.wallet;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.BaseReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class NetworkMetricsPackage extends BaseReactPackage {
+
+    @Nullable
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (NetworkMetricsModule.NAME.equals(name)) {
+            return new NetworkMetricsModule(reactContext);
+        }
+        return null;
+    }
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+            moduleInfos.put(NetworkMetricsModule.NAME, new ReactModuleInfo(
+                    NetworkMetricsModule.NAME,
+                    NetworkMetricsModule.class.getName(),
+                    false, // canOverrideExistingModule
+                    false, // needsEagerInit
+                    false, // isCxxModule
+                    true // isTurboModule
+            ));
+            return moduleInfos;
+        };
+    }
+}
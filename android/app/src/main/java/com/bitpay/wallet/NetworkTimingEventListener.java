@@ -0,0 +1,150 @@
+package com.bitpay.wallet;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * Times each phase of a call (DNS, connect, TLS, request write, time to first byte, body read and
+ * the whole call) and records them in {@link NetworkLatencyHistograms}.
+ *
+ * OkHttp creates one listener per call and invokes it from a single thread at a time, so the
+ * timestamps are plain fields. Calls that {@link HedgingInterceptor} answered with attempts are
+ * not recorded; each attempt records itself.
+ */
+public class NetworkTimingEventListener extends EventListener {
+    public static final class Factory implements EventListener.Factory {
+        private final NetworkLatencyHistograms histograms;
+
+        public Factory(NetworkLatencyHistograms histograms) {
+            this.histograms = histograms;
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            return new NetworkTimingEventListener(histograms);
+        }
+    }
+
+    private final NetworkLatencyHistograms histograms;
+    private int slot = NetworkLatencyHistograms.OVERFLOW_SLOT;
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseBodyStart;
+
+    NetworkTimingEventListener(NetworkLatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = now();
+        slot = histograms.slotFor(call.request().url());
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = now();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        histograms.record(slot, NetworkLatencyHistograms.PHASE_DNS, now() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = now();
+        secureConnectStart = 0;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = now();
+        histograms.record(slot, NetworkLatencyHistograms.PHASE_CONNECT, secureConnectStart - connectStart);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        histograms.record(slot, NetworkLatencyHistograms.PHASE_TLS, now() - secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        if (secureConnectStart == 0) {
+            // Plain-text connection; TCP connect was not already recorded at the TLS boundary.
+            histograms.record(slot, NetworkLatencyHistograms.PHASE_CONNECT, now() - connectStart);
+        }
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = now();
+        requestEnd = 0;
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = now();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = now();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        long responseStart = now();
+        if (requestEnd != 0) {
+            histograms.record(slot, NetworkLatencyHistograms.PHASE_REQUEST, requestEnd - requestStart);
+            histograms.record(slot, NetworkLatencyHistograms.PHASE_TTFB, responseStart - requestEnd);
+            requestEnd = 0;
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = now();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        histograms.record(slot, NetworkLatencyHistograms.PHASE_BODY, now() - responseBodyStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        if (HedgingInterceptor.isRaced(call)) {
+            return;
+        }
+        histograms.record(slot, NetworkLatencyHistograms.PHASE_TOTAL, now() - callStart);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        // The losing attempt of a hedge is canceled on purpose
+        if (HedgingInterceptor.isRaced(call) || (call.isCanceled() && HedgingInterceptor.isAttempt(call))) {
+            return;
+        }
+        histograms.recordFailure(slot);
+    }
+}
@@ -0,0 +1,292 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressed, checksummed filesystem snapshot of the persist:root store, kept as a fallback for
+ * when MMKV is missing or unreadable.
+ *
+ * A snapshot file is
+ *
+ *   header:  magic (int)
+ *   body:    zlib deflate stream of the UTF-8 payload
+ *   trailer: payload length in bytes (long), CRC32 of the payload (int), magic (int)
+ *
+ * Writes stream the payload through Deflater into a temp file, sync it, move the current snapshot
+ * to .bak and rename the temp file into place. All file work runs on one dedicated thread. When
+ * writes queue up faster than they finish, only the latest payload is written; the ones it replaced
+ * are reported as superseded. Reads run on the same thread, after any queued write, and only return
+ * a payload whose length and checksum match its trailer, falling back to .bak.
+ */
+public class PersistSnapshot {
+    private static final String TAG = "PersistSnapshot";
+    private static final String DIR_NAME = "bitpay/redux";
+    private static final String FILE_NAME = "persist-root.snap";
+    private static final int MAGIC = 0x50534e31; // "PSN1"
+    private static final int HEADER_SIZE = 4;
+    private static final int TRAILER_SIZE = 16;
+    // Anything larger is treated as a corrupt trailer rather than allocated.
+    private static final long MAX_PAYLOAD_BYTES = 256L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static PersistSnapshot instance;
+
+    private final File dir;
+    private final File file;
+    private final File backupFile;
+    private final File tempFile;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, TAG));
+    private final AtomicReference<PendingWrite> pendingWrite = new AtomicReference<>();
+
+    public static synchronized PersistSnapshot getInstance(Context context) {
+        if (instance == null) {
+            instance = new PersistSnapshot(new File(context.getApplicationContext().getCacheDir(), DIR_NAME));
+        }
+        return instance;
+    }
+
+    PersistSnapshot(File dir) {
+        this.dir = dir;
+        this.file = new File(dir, FILE_NAME);
+        this.backupFile = new File(dir, FILE_NAME + ".bak");
+        this.tempFile = new File(dir, FILE_NAME + ".tmp");
+    }
+
+    public static final class WriteResult {
+        public final boolean superseded;
+        public final long rawBytes;
+        public final long storedBytes;
+        public final double durationMs;
+
+        WriteResult(boolean superseded, long rawBytes, long storedBytes, double durationMs) {
+            this.superseded = superseded;
+            this.rawBytes = rawBytes;
+            this.storedBytes = storedBytes;
+            this.durationMs = durationMs;
+        }
+    }
+
+    public interface WriteCallback {
+        void onWritten(WriteResult result);
+
+        void onFailed(Exception e);
+    }
+
+    private static final class PendingWrite {
+        final String payload;
+        final List<String> excludeKeys;
+        final WriteCallback callback;
+
+        PendingWrite(String payload, List<String> excludeKeys, WriteCallback callback) {
+            this.payload = payload;
+            this.excludeKeys = excludeKeys;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * Writes {@code payload} on the I/O thread, without the top-level JSON keys in
+     * {@code excludeKeys}. If the payload is not a JSON object it is written as is.
+     */
+    public void writeAsync(String payload, List<String> excludeKeys, WriteCallback callback) {
+        PendingWrite replaced = pendingWrite.getAndSet(new PendingWrite(payload, excludeKeys, callback));
+        if (replaced != null) {
+            replaced.callback.onWritten(new WriteResult(true, 0, 0, 0));
+        }
+        io.execute(() -> {
+            PendingWrite next = pendingWrite.getAndSet(null);
+            if (next == null) {
+                // Already written by an earlier task that picked up the latest payload.
+                return;
+            }
+            try {
+                next.callback.onWritten(write(filter(next.payload, next.excludeKeys)));
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Snapshot write failed", e);
+                tempFile.delete();
+                next.callback.onFailed(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the newest intact snapshot on the I/O thread and hands it, or null, to
+     * {@code onRead}.
+     */
+    public void readAsync(Consumer<String> onRead) {
+        io.execute(() -> {
+            String payload = read(file);
+            if (payload == null) {
+                payload = read(backupFile);
+            }
+            onRead.accept(payload);
+        });
+    }
+
+    public boolean exists() {
+        return file.exists() || backupFile.exists();
+    }
+
+    private static String filter(String payload, List<String> excludeKeys) {
+        if (excludeKeys == null || excludeKeys.isEmpty()) {
+            return payload;
+        }
+        try {
+            JSONObject root = new JSONObject(payload);
+            for (String key : excludeKeys) {
+                root.remove(key);
+            }
+            return root.toString();
+        } catch (JSONException e) {
+            // Better to have a backup than none
+            return payload;
+        }
+    }
+
+    private WriteResult write(String payload) throws IOException {
+        long start = SystemClock.elapsedRealtimeNanos();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        long rawBytes;
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+            out.writeInt(MAGIC);
+
+            DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            CountingOutputStream counted = new CountingOutputStream(new CheckedOutputStream(deflated, crc));
+            Writer writer = new OutputStreamWriter(counted, StandardCharsets.UTF_8);
+            writer.write(payload);
+            writer.flush();
+            deflated.finish();
+            rawBytes = counted.count;
+
+            out.writeLong(rawBytes);
+            out.writeInt((int) crc.getValue());
+            out.writeInt(MAGIC);
+            out.flush();
+            stream.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+
+        long storedBytes = tempFile.length();
+        if (file.exists() && !file.renameTo(backupFile)) {
+            Log.w(TAG, "Could not rotate snapshot to .bak");
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Could not move snapshot into place");
+        }
+        return new WriteResult(false, rawBytes, storedBytes, (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0);
+    }
+
+    private static String read(File source) {
+        if (!source.exists()) {
+            return null;
+        }
+        long rawBytes;
+        int expectedCrc;
+        try (RandomAccessFile raf = new RandomAccessFile(source, "r")) {
+            long length = raf.length();
+            if (length < HEADER_SIZE + TRAILER_SIZE || raf.readInt() != MAGIC) {
+                Log.w(TAG, "Snapshot " + source.getName() + " has no valid header");
+                return null;
+            }
+            raf.seek(length - TRAILER_SIZE);
+            rawBytes = raf.readLong();
+            expectedCrc = raf.readInt();
+            if (raf.readInt() != MAGIC || rawBytes < 0 || rawBytes > MAX_PAYLOAD_BYTES) {
+                Log.w(TAG, "Snapshot " + source.getName() + " is truncated");
+                return null;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read snapshot " + source.getName(), e);
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream((int) rawBytes);
+        Inflater inflater = new Inflater();
+        try (FileInputStream stream = new FileInputStream(source)) {
+            if (stream.skip(HEADER_SIZE) != HEADER_SIZE) {
+                return null;
+            }
+            // The inflater stops at the end of the deflate stream, before the trailer
+            InputStream in = new InflaterInputStream(stream, inflater, BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                payload.write(buffer, 0, read);
+                if (payload.size() > rawBytes) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not decompress snapshot " + source.getName(), e);
+            return null;
+        } finally {
+            inflater.end();
+        }
+
+        if (payload.size() != rawBytes || (int) crc.getValue() != expectedCrc) {
+            Log.w(TAG, "Snapshot " + source.getName() + " failed its checksum");
+            return null;
+        }
+        return new String(payload.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
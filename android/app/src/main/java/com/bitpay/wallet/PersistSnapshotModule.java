@@ -0,0 +1,61 @@
+package com.bitpay.wallet;
+
+import com.bitpay.wallet.specs.NativePersistSnapshotSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes the persist:root filesystem snapshot written by {@link PersistSnapshot} to JS.
+ */
+public class PersistSnapshotModule extends NativePersistSnapshotSpec {
+    public PersistSnapshotModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Resolves once the payload is on disk, or right away with superseded set when a newer
+     * payload replaced it before it was written
+     * @param payload
+     * @param excludeKeys top-level keys to leave out of the snapshot
+     * @param promise
+     */
+    @Override
+    public void write(String payload, ReadableArray excludeKeys, Promise promise) {
+        List<String> keys = new ArrayList<>(excludeKeys.size());
+        for (int i = 0; i < excludeKeys.size(); i++) {
+            keys.add(excludeKeys.getString(i));
+        }
+        PersistSnapshot.getInstance(getReactApplicationContext()).writeAsync(payload, keys, new PersistSnapshot.WriteCallback() {
+            @Override
+            public void onWritten(PersistSnapshot.WriteResult result) {
+                WritableMap map = Arguments.createMap();
+                map.putBoolean("superseded", result.superseded);
+                map.putDouble("rawBytes", result.rawBytes);
+                map.putDouble("storedBytes", result.storedBytes);
+                map.putDouble("durationMs", result.durationMs);
+                promise.resolve(map);
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                promise.reject("E_SNAPSHOT_WRITE", e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void read(Promise promise) {
+        PersistSnapshot.getInstance(getReactApplicationContext()).readAsync(promise::resolve);
+    }
+
+    @Override
+    public void exists(Promise promise) {
+        promise.resolve(PersistSnapshot.getInstance(getReactApplicationContext()).exists());
+    }
+}
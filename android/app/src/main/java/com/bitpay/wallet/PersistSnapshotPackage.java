@@ -0,0 +1,40 @@
+package com.bitpay.wallet;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.BaseReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PersistSnapshotPackage extends BaseReactPackage {
+
+    @Nullable
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (PersistSnapshotModule.NAME.equals(name)) {
+            return new PersistSnapshotModule(reactContext);
+        }
+        return null;
+    }
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+            moduleInfos.put(PersistSnapshotModule.NAME, new ReactModuleInfo(
+                    PersistSnapshotModule.NAME,
+                    PersistSnapshotModule.class.getName(),
+                    false, // canOverrideExistingModule
+                    false, // needsEagerInit
+                    false, // isCxxModule
+                    true // isTurboModule
+            ));
+            return moduleInfos;
+        };
+    }
+}
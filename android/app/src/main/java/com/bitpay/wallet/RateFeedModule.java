@@ -0,0 +1,307 @@
+package com.bitpay.wallet;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.NonNull;
+
+import com.bitpay.wallet.specs.NativeRateFeedSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches the BWS fiat rate endpoints on the shared OkHttp client and decodes them while the body
+ * streams in, on the OkHttp dispatcher thread, so the JS thread never parses the raw payload.
+ *
+ * Only the fields the rate store keeps are read; everything else is skipped by the pull parser
+ * without being materialized. Rate series come back as parallel ts/rates columns per coin, already
+ * filtered to finite numbers, sorted by ts and deduplicated. Point values are coerced with
+ * {@link JsNumber}, so the same points survive as with the JS decoder.
+ */
+public class RateFeedModule extends NativeRateFeedSpec {
+    public static final String HTTP_ERROR = "E_HTTP";
+    public static final String DECODE_ERROR = "E_DECODE";
+    // How much of an error body is kept for the rejection message
+    private static final long ERROR_BODY_BYTES = 512;
+
+    private OkHttpClient client;
+
+    public RateFeedModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    private synchronized OkHttpClient client() {
+        if (client == null) {
+            ReactApplicationContext context = getReactApplicationContext();
+            // Same pool, dispatcher and cache as RN networking, and the same URL allow-list.
+            client = new UserAgentClientFactory(context)
+                .getSharedClient()
+                .newBuilder()
+                .addInterceptor(new AllowedUrlPrefixInterceptor(context))
+                .build();
+        }
+        return client;
+    }
+
+    private interface Decoder {
+        WritableMap decode(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Resolves with {coin: [{code, name, rate, ts, fetchedOn}]} from a /v3/fiatrates response
+     * @param url
+     * @param promise
+     */
+    @Override
+    public void fetchRates(String url, Promise promise) {
+        fetch(url, promise, RateFeedModule::decodeRates);
+    }
+
+    /**
+     * Resolves with {coin: {ts: [], rates: []}} from a /v4/fiatrates response. A response that is
+     * a bare array of points is put under {@code arrayKey}, or dropped when it is empty.
+     * @param url
+     * @param arrayKey
+     * @param promise
+     */
+    @Override
+    public void fetchRateSeries(String url, String arrayKey, Promise promise) {
+        fetch(url, promise, reader -> decodeRateSeries(reader, arrayKey));
+    }
+
+    private void fetch(String url, Promise promise, Decoder decoder) {
+        Request request;
+        try {
+            request = new Request.Builder().url(url).get().build();
+        } catch (IllegalArgumentException e) {
+            promise.reject(HTTP_ERROR, "Invalid URL " + url, e);
+            return;
+        }
+
+        client().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                promise.reject(HTTP_ERROR, e.getMessage(), e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        String snippet = body == null ? "" : response.peekBody(ERROR_BODY_BYTES).string();
+                        promise.reject(HTTP_ERROR, "Request failed with status code " + response.code() + (snippet.isEmpty() ? "" : " | response=" + snippet));
+                        return;
+                    }
+                    if (body == null) {
+                        promise.reject(DECODE_ERROR, "Empty response body");
+                        return;
+                    }
+                    WritableMap result;
+                    try (JsonReader reader = new JsonReader(body.charStream())) {
+                        result = decoder.decode(reader);
+                    }
+                    promise.resolve(result);
+                } catch (IOException | RuntimeException e) {
+                    promise.reject(DECODE_ERROR, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private static WritableMap decodeRates(JsonReader reader) throws IOException {
+        WritableMap byCoin = Arguments.createMap();
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return byCoin;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String coin = reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            WritableArray rates = Arguments.createArray();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                rates.pushMap(decodeRate(reader));
+            }
+            reader.endArray();
+            byCoin.putArray(coin, rates);
+        }
+        reader.endObject();
+        return byCoin;
+    }
+
+    private static WritableMap decodeRate(JsonReader reader) throws IOException {
+        WritableMap rate = Arguments.createMap();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            switch (field) {
+                case "code":
+                case "name":
+                    if (reader.peek() == JsonToken.STRING) {
+                        rate.putString(field, reader.nextString());
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "rate":
+                case "ts":
+                case "fetchedOn":
+                    // The JS path hands these on as parsed, so null stays null rather than 0
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        rate.putNull(field);
+                        break;
+                    }
+                    double value = JsNumber.read(reader);
+                    if (Double.isNaN(value)) {
+                        rate.putNull(field);
+                    } else {
+                        rate.putDouble(field, value);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return rate;
+    }
+
+    private static WritableMap decodeRateSeries(JsonReader reader, String arrayKey) throws IOException {
+        WritableMap byCoin = Arguments.createMap();
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_ARRAY) {
+            if (arrayKey == null || arrayKey.isEmpty()) {
+                reader.skipValue();
+            } else {
+                byCoin.putMap(arrayKey, decodePoints(reader).toColumns());
+            }
+            return byCoin;
+        }
+        if (token != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return byCoin;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String coin = reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            byCoin.putMap(coin, decodePoints(reader).toColumns());
+        }
+        reader.endObject();
+        return byCoin;
+    }
+
+    private static Points decodePoints(JsonReader reader) throws IOException {
+        Points points = new Points();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            double ts = Double.NaN;
+            double rate = Double.NaN;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                // Coerced like sanitizeSortDedupePoints does with Number(), so null counts as 0
+                if ("ts".equals(field)) {
+                    ts = JsNumber.read(reader);
+                } else if ("rate".equals(field)) {
+                    rate = JsNumber.read(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            points.add(ts, rate);
+        }
+        reader.endArray();
+        return points;
+    }
+
+    private static final class Points {
+        double[] ts = new double[256];
+        double[] rates = new double[256];
+        int size = 0;
+        boolean sorted = true;
+
+        void add(double pointTs, double rate) {
+            if (Double.isNaN(pointTs) || Double.isInfinite(pointTs) || Double.isNaN(rate) || Double.isInfinite(rate)) {
+                return;
+            }
+            if (size == ts.length) {
+                ts = Arrays.copyOf(ts, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            if (size > 0 && pointTs < ts[size - 1]) {
+                sorted = false;
+            }
+            ts[size] = pointTs;
+            rates[size] = rate;
+            size++;
+        }
+
+        WritableMap toColumns() {
+            // Usually already in order, and then read as is
+            int[] order = sorted ? null : sortedOrder();
+
+            WritableArray tsColumn = Arguments.createArray();
+            WritableArray ratesColumn = Arguments.createArray();
+            double previous = Double.NaN;
+            for (int i = 0; i < size; i++) {
+                int index = order == null ? i : order[i];
+                if (ts[index] == previous) {
+                    continue;
+                }
+                previous = ts[index];
+                tsColumn.pushDouble(ts[index]);
+                ratesColumn.pushDouble(rates[index]);
+            }
+            WritableMap columns = Arguments.createMap();
+            columns.putArray("ts", tsColumn);
+            columns.putArray("rates", ratesColumn);
+            return columns;
+        }
+
+        private int[] sortedOrder() {
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = i;
+            }
+            // Stable, so the first of several points with the same ts is the one kept. Compared
+            // like the JS a.ts - b.ts, which treats -0 and 0 as equal.
+            Arrays.sort(boxed, (a, b) -> ts[a] < ts[b] ? -1 : ts[a] > ts[b] ? 1 : 0);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = boxed[i];
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Fiat rate series (see store/rate/rate.models.ts), one per "FIAT:coin:interval" key, held as a
+ * timestamp column and a rate column instead of one JS object per point.
+ *
+ * The whole store lives in a single file:
+ *
+ *   header:  magic (int), series count (int)
+ *   series:  key (UTF), fetchedOn (double), point count (int),
+ *            first timestamp (long) then each later one as a varint of the zigzag delta,
+ *            first rate's bits (long) then each later one as a varint of its bits XOR the previous
+ *   trailer: CRC32 of everything before it (int)
+ *
+ * Timestamps are sorted and evenly spaced, so their deltas take a few bytes. Neighbouring rates
+ * share their sign, exponent and top mantissa bits, which the XOR zeroes. A point ends up at
+ * around 11 bytes, against about 40 for the JSON it replaces in persist:root.
+ *
+ * The file is loaded on the I/O thread as soon as the store is created, and callers wait for that
+ * load before their first access. Changes are written back on the same thread; writes that queue
+ * up behind one in progress collapse into a single write of the latest state.
+ *
+ * Charts read a time window through {@link #query}, cut down natively to the number of points
+ * they draw, so the full series never has to cross into JS.
+ */
+public class RateSeriesStore {
+    private static final String TAG = "RateSeriesStore";
+    private static final String DIR_NAME = "bitpay/rates";
+    private static final String FILE_NAME = "fiat-rate-series.bin";
+    private static final int MAGIC = 0x52535331; // "RSS1"
+    // Guards against allocating from a corrupt count.
+    private static final int MAX_POINTS = 1_000_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static RateSeriesStore instance;
+
+    public static final class Series {
+        public final double fetchedOn;
+        public final long[] ts;
+        public final double[] rates;
+
+        Series(double fetchedOn, long[] ts, double[] rates) {
+            this.fetchedOn = fetchedOn;
+            this.ts = ts;
+            this.rates = rates;
+        }
+    }
+
+    private final File dir;
+    private final File file;
+    private final File tempFile;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, TAG));
+    private final Map<String, Series> series = new HashMap<>();
+    private final Future<?> loaded;
+    private final AtomicBoolean writeQueued = new AtomicBoolean(false);
+
+    public static synchronized RateSeriesStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new RateSeriesStore(new File(context.getApplicationContext().getCacheDir(), DIR_NAME));
+        }
+        return instance;
+    }
+
+    RateSeriesStore(File dir) {
+        this.dir = dir;
+        this.file = new File(dir, FILE_NAME);
+        this.tempFile = new File(dir, FILE_NAME + ".tmp");
+        this.loaded = io.submit(this::load);
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Loading rate series failed", e.getCause());
+        }
+    }
+
+    public void put(String key, double fetchedOn, long[] ts, double[] rates) {
+        if (ts.length != rates.length) {
+            throw new IllegalArgumentException("ts and rates must have the same length");
+        }
+        awaitLoaded();
+        synchronized (series) {
+            series.put(key, new Series(fetchedOn, ts, rates));
+        }
+        scheduleWrite();
+    }
+
+    public Series get(String key) {
+        awaitLoaded();
+        synchronized (series) {
+            return series.get(key);
+        }
+    }
+
+    /**
+     * Point count of every stored series, by key.
+     */
+    public Map<String, Integer> sizes() {
+        awaitLoaded();
+        Map<String, Integer> sizes = new HashMap<>();
+        synchronized (series) {
+            for (Map.Entry<String, Series> entry : series.entrySet()) {
+                sizes.put(entry.getKey(), entry.getValue().ts.length);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Drops every series whose key is not in {@code keys}.
+     */
+    public void retain(Collection<String> keys) {
+        awaitLoaded();
+        boolean changed;
+        synchronized (series) {
+            changed = series.keySet().retainAll(new HashSet<>(keys));
+        }
+        if (changed) {
+            scheduleWrite();
+        }
+    }
+
+    /**
+     * Waits for the load and for any write already queued. For tests.
+     */
+    void awaitIdle() throws InterruptedException, ExecutionException {
+        io.submit(() -> { }).get();
+    }
+
+    /**
+     * The points of {@code s} with {@code fromTs <= ts <= toTs}, cut down to at most
+     * {@code maxPoints} with largest-triangle-three-buckets when there are more. A
+     * {@code maxPoints} of 0 or less keeps them all. The first and last points of the window are
+     * always kept; the indices match keepIndicesLTTB in utils/portfolio/rate.ts.
+     */
+    public static Series query(Series s, long fromTs, long toTs, int maxPoints) {
+        int start = lowerBound(s.ts, fromTs);
+        int end = upperBound(s.ts, toTs);
+        int len = Math.max(0, end - start);
+        if (maxPoints <= 0 || len <= maxPoints) {
+            return new Series(s.fetchedOn, Arrays.copyOfRange(s.ts, start, start + len), Arrays.copyOfRange(s.rates, start, start + len));
+        }
+
+        int[] keep = maxPoints < 3 ? keepEvenly(len, maxPoints) : keepLttb(s.ts, s.rates, start, len, maxPoints);
+        long[] ts = new long[keep.length];
+        double[] rates = new double[keep.length];
+        for (int i = 0; i < keep.length; i++) {
+            ts[i] = s.ts[start + keep[i]];
+            rates[i] = s.rates[start + keep[i]];
+        }
+        return new Series(s.fetchedOn, ts, rates);
+    }
+
+    /**
+     * The highest finite rate among the points {@link #query} would return before downsampling,
+     * leaving out the last one, which charts replace with the live rate. NaN when there is none.
+     */
+    public static double maxRateBeforeLast(Series s, long fromTs, long toTs) {
+        int start = lowerBound(s.ts, fromTs);
+        int end = upperBound(s.ts, toTs);
+        double max = Double.NaN;
+        for (int i = start; i < end - 1; i++) {
+            double rate = s.rates[i];
+            if (!Double.isInfinite(rate) && !Double.isNaN(rate) && (Double.isNaN(max) || rate > max)) {
+                max = rate;
+            }
+        }
+        return max;
+    }
+
+    private static int lowerBound(long[] ts, long target) {
+        int lo = 0;
+        int hi = ts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(long[] ts, long target) {
+        int lo = 0;
+        int hi = ts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[mid] <= target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int[] keepEvenly(int len, int target) {
+        int[] keep = new int[target];
+        if (target == 1) {
+            keep[0] = (len - 1) / 2;
+            return keep;
+        }
+        for (int k = 0; k < target; k++) {
+            keep[k] = (int) Math.round((double) k * (len - 1) / (target - 1));
+        }
+        return keep;
+    }
+
+    // Indices relative to start; first and last are always kept.
+    private static int[] keepLttb(long[] ts, double[] rates, int start, int len, int target) {
+        int[] keep = new int[target];
+        double bucketSize = (double) (len - 2) / (target - 2);
+        int a = 0;
+        keep[0] = 0;
+        for (int i = 0; i < target - 2; i++) {
+            int bucketStart = (int) Math.floor(i * bucketSize) + 1;
+            int bucketEnd = Math.min((int) Math.floor((i + 1) * bucketSize) + 1, len - 1);
+            int nextStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, len);
+
+            double avgX;
+            double avgY;
+            if (nextEnd > nextStart) {
+                avgX = 0;
+                avgY = 0;
+                for (int j = nextStart; j < nextEnd; j++) {
+                    avgX += ts[start + j];
+                    avgY += rates[start + j];
+                }
+                avgX /= nextEnd - nextStart;
+                avgY /= nextEnd - nextStart;
+            } else {
+                int only = Math.min(len - 1, nextStart);
+                avgX = ts[start + only];
+                avgY = rates[start + only];
+            }
+
+            double ax = ts[start + a];
+            double ay = rates[start + a];
+            double bestArea = -1;
+            int best = bucketStart;
+            for (int j = bucketStart; j < bucketEnd; j++) {
+                double area = Math.abs((ax - avgX) * (rates[start + j] - ay) - (ax - ts[start + j]) * (avgY - ay));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = j;
+                }
+            }
+            keep[i + 1] = best;
+            a = best;
+        }
+        keep[target - 1] = len - 1;
+        return keep;
+    }
+
+    private void scheduleWrite() {
+        if (!writeQueued.compareAndSet(false, true)) {
+            // The queued write has not started yet and will pick up this change.
+            return;
+        }
+        io.execute(() -> {
+            writeQueued.set(false);
+            List<Map.Entry<String, Series>> snapshot;
+            synchronized (series) {
+                snapshot = new ArrayList<>(new HashMap<>(series).entrySet());
+            }
+            try {
+                write(snapshot);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Writing rate series failed", e);
+                tempFile.delete();
+            }
+        });
+    }
+
+    private void write(List<Map.Entry<String, Series>> snapshot) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        CRC32 crc = new CRC32();
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(stream, BUFFER_SIZE);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Series> entry : snapshot) {
+                Series s = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeDouble(s.fetchedOn);
+                out.writeInt(s.ts.length);
+                if (s.ts.length == 0) {
+                    continue;
+                }
+                out.writeLong(s.ts[0]);
+                for (int i = 1; i < s.ts.length; i++) {
+                    long delta = s.ts[i] - s.ts[i - 1];
+                    writeVarLong(out, (delta << 1) ^ (delta >> 63));
+                }
+                long previous = Double.doubleToRawLongBits(s.rates[0]);
+                out.writeLong(previous);
+                for (int i = 1; i < s.rates.length; i++) {
+                    long bits = Double.doubleToRawLongBits(s.rates[i]);
+                    writeVarLong(out, bits ^ previous);
+                    previous = bits;
+                }
+            }
+            out.flush();
+            // The checksum goes outside the checked stream
+            new DataOutputStream(buffered).writeInt((int) crc.getValue());
+            buffered.flush();
+            stream.getFD().sync();
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Could not move rate series into place");
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        Map<String, Series> read = new HashMap<>();
+        CRC32 crc = new CRC32();
+        try (FileInputStream stream = new FileInputStream(file)) {
+            BufferedInputStream buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            if (in.readInt() != MAGIC) {
+                Log.w(TAG, "Rate series file has no valid header");
+                return;
+            }
+            int count = in.readInt();
+            for (int n = 0; n < count; n++) {
+                String key = in.readUTF();
+                double fetchedOn = in.readDouble();
+                int points = in.readInt();
+                if (points < 0 || points > MAX_POINTS) {
+                    throw new IOException("Bad point count " + points);
+                }
+                long[] ts = new long[points];
+                double[] rates = new double[points];
+                if (points > 0) {
+                    ts[0] = in.readLong();
+                    for (int i = 1; i < points; i++) {
+                        long zigzag = readVarLong(in);
+                        ts[i] = ts[i - 1] + ((zigzag >>> 1) ^ -(zigzag & 1));
+                    }
+                    long previous = in.readLong();
+                    rates[0] = Double.longBitsToDouble(previous);
+                    for (int i = 1; i < points; i++) {
+                        previous ^= readVarLong(in);
+                        rates[i] = Double.longBitsToDouble(previous);
+                    }
+                }
+                read.put(key, new Series(fetchedOn, ts, rates));
+            }
+            int expectedCrc = (int) crc.getValue();
+            if (new DataInputStream(buffered).readInt() != expectedCrc) {
+                Log.w(TAG, "Rate series file failed its checksum");
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not read rate series", e);
+            return;
+        }
+        synchronized (series) {
+            series.putAll(read);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,103 @@
+package com.bitpay.wallet;
+
+import androidx.annotation.Nullable;
+
+import com.bitpay.wallet.specs.NativeRateSeriesStoreSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes {@link RateSeriesStore} to JS. The methods are synchronous: they only touch the
+ * in-memory columns, and file writes happen on the store's own thread.
+ */
+public class RateSeriesStoreModule extends NativeRateSeriesStoreSpec {
+    public RateSeriesStoreModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    private RateSeriesStore store() {
+        return RateSeriesStore.getInstance(getReactApplicationContext());
+    }
+
+    @Override
+    public void put(String key, double fetchedOn, ReadableArray ts, ReadableArray rates) {
+        int size = Math.min(ts.size(), rates.size());
+        long[] tsColumn = new long[size];
+        double[] ratesColumn = new double[size];
+        for (int i = 0; i < size; i++) {
+            tsColumn[i] = (long) ts.getDouble(i);
+            ratesColumn[i] = rates.getDouble(i);
+        }
+        store().put(key, fetchedOn, tsColumn, ratesColumn);
+    }
+
+    @Override
+    public WritableMap getMany(ReadableArray keys) {
+        WritableMap result = Arguments.createMap();
+        RateSeriesStore store = store();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.getString(i);
+            RateSeriesStore.Series series = store.get(key);
+            if (series != null) {
+                result.putMap(key, toColumns(series));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public WritableMap getSizes() {
+        WritableMap result = Arguments.createMap();
+        for (Map.Entry<String, Integer> entry : store().sizes().entrySet()) {
+            result.putInt(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public WritableMap getRange(String key, double fromTs, double toTs, double maxPoints) {
+        RateSeriesStore.Series series = store().get(key);
+        if (series == null) {
+            return null;
+        }
+        long from = Double.isInfinite(fromTs) ? Long.MIN_VALUE : (long) fromTs;
+        long to = Double.isInfinite(toTs) ? Long.MAX_VALUE : (long) toTs;
+        WritableMap columns = toColumns(RateSeriesStore.query(series, from, to, (int) maxPoints));
+        double maxRate = RateSeriesStore.maxRateBeforeLast(series, from, to);
+        if (!Double.isNaN(maxRate)) {
+            columns.putDouble("maxRateBeforeLast", maxRate);
+        }
+        return columns;
+    }
+
+    @Override
+    public void retain(ReadableArray keys) {
+        List<String> keep = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            keep.add(keys.getString(i));
+        }
+        store().retain(keep);
+    }
+
+    private static WritableMap toColumns(RateSeriesStore.Series series) {
+        WritableArray ts = Arguments.createArray();
+        WritableArray rates = Arguments.createArray();
+        for (int i = 0; i < series.ts.length; i++) {
+            ts.pushDouble(series.ts[i]);
+            rates.pushDouble(series.rates[i]);
+        }
+        WritableMap map = Arguments.createMap();
+        map.putDouble("fetchedOn", series.fetchedOn);
+        map.putArray("ts", ts);
+        map.putArray("rates", rates);
+        return map;
+    }
+}
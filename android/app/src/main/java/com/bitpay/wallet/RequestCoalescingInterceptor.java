@@ -0,0 +1,174 @@
+package com.bitpay.wallet;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Collapses concurrent identical GET/HEAD requests into one upstream call.
+ *
+ * The first request for a key (method, URL and all request headers) proceeds as usual. Requests
+ * with the same key that arrive while it is in flight wait for it and each receive their own copy
+ * of its response body. Bodies larger than {@link #MAX_SHARED_BODY_BYTES} are not shared; waiters
+ * then make their own call.
+ *
+ * One instance is installed per client, so requests are only coalesced with requests that went
+ * through the same interceptor chain (and therefore the same allow-list). Hedges sent by
+ * {@link HedgingInterceptor} are never coalesced, or they would wait for the attempt they hedge.
+ */
+public class RequestCoalescingInterceptor implements Interceptor {
+    static final long MAX_SHARED_BODY_BYTES = 8 * 1024 * 1024;
+    private static final long WAIT_POLL_MILLIS = 100;
+
+    private static final AtomicLong upstreamRequests = new AtomicLong();
+    private static final AtomicLong coalescedRequests = new AtomicLong();
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /** Number of coalescable requests that went upstream. */
+    public static long getUpstreamCount() {
+        return upstreamRequests.get();
+    }
+
+    /** Number of requests that were served from another request's response. */
+    public static long getCoalescedCount() {
+        return coalescedRequests.get();
+    }
+
+    public static void resetCounters() {
+        upstreamRequests.set(0);
+        coalescedRequests.set(0);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isCoalescable(request) || HedgingInterceptor.isHedge(chain.call())) {
+            return chain.proceed(request);
+        }
+
+        String key = request.method() + " " + request.url() + "\n" + request.headers();
+        InFlight call = new InFlight(chain.call());
+        InFlight existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            Response shared = existing.await(chain.call(), request);
+            if (shared != null) {
+                coalescedRequests.incrementAndGet();
+                return shared;
+            }
+            // The leader was canceled or its body was too large to share.
+            return chain.proceed(request);
+        }
+
+        upstreamRequests.incrementAndGet();
+        try {
+            Response response = chain.proceed(request);
+            return call.complete(response);
+        } catch (IOException e) {
+            call.fail(e);
+            throw e;
+        } catch (RuntimeException e) {
+            call.fail(new IOException(e));
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static boolean isCoalescable(Request request) {
+        String method = request.method();
+        return ("GET".equals(method) || "HEAD".equals(method)) && request.body() == null;
+    }
+
+    private static final class InFlight {
+        private final Call leader;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Response template;
+        private MediaType contentType;
+        private byte[] body;
+        private IOException error;
+
+        InFlight(Call leader) {
+            this.leader = leader;
+        }
+
+        Response complete(Response response) throws IOException {
+            ResponseBody responseBody = response.body();
+            try {
+                if (responseBody == null) {
+                    this.template = response;
+                    return response;
+                }
+
+                BufferedSource source = responseBody.source();
+                if (responseBody.contentLength() > MAX_SHARED_BODY_BYTES || source.request(MAX_SHARED_BODY_BYTES + 1)) {
+                    // Too large to hold in memory for every waiter; hand the stream back untouched.
+                    return response;
+                }
+
+                this.contentType = responseBody.contentType();
+                this.body = source.readByteArray();
+                responseBody.close();
+                this.template = response.newBuilder().body(null).build();
+                return copyFor(response.request());
+            } catch (IOException e) {
+                this.error = e;
+                throw e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void fail(IOException e) {
+            this.error = e;
+            done.countDown();
+        }
+
+        /**
+         * Waits for the leader and returns a copy of its response, or null if the caller should
+         * make its own request.
+         */
+        Response await(Call waiter, Request request) throws IOException {
+            try {
+                while (!done.await(WAIT_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (waiter.isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a coalesced request", e);
+            }
+
+            if (error != null) {
+                if (leader.isCanceled()) {
+                    return null;
+                }
+                throw new IOException(error.getMessage(), error);
+            }
+            if (template == null) {
+                return null;
+            }
+            return copyFor(request);
+        }
+
+        private Response copyFor(Request request) {
+            Response.Builder builder = template.newBuilder().request(request);
+            if (body != null) {
+                builder.body(ResponseBody.create(contentType, body));
+            }
+            return builder.build();
+        }
+    }
+}
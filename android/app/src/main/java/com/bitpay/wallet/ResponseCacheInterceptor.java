@@ -0,0 +1,233 @@
+package com.bitpay.wallet;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+
+/**
+ * Serves BWS fiat rate responses from the shared client's disk cache with a per-route policy.
+ *
+ * OkHttp's cache only understands max-age, so this interceptor adds the other two directives on
+ * top of it:
+ *  - stale-while-revalidate: a stale entry inside the window is returned immediately and the call
+ *    is repeated in the background to refresh the cache.
+ *  - stale-if-error: when the network fails or BWS answers with a 5xx, a stale entry inside the
+ *    window is returned instead of the error.
+ *
+ * {@link #networkInterceptor()} rewrites Cache-Control on matching responses so OkHttp stores
+ * them with the route's max-age regardless of what the server sent, and marks every other
+ * response no-store so the shared client's cache holds nothing but these routes.
+ */
+public class ResponseCacheInterceptor implements Interceptor {
+    private static final String TAG = "ResponseCacheInterceptor";
+
+    static final class RoutePolicy {
+        final String pathPrefix;
+        final long maxAgeSeconds;
+        final long staleWhileRevalidateSeconds;
+        final long staleIfErrorSeconds;
+
+        RoutePolicy(String pathPrefix, long maxAgeSeconds, long staleWhileRevalidateSeconds, long staleIfErrorSeconds) {
+            this.pathPrefix = pathPrefix;
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+            this.staleIfErrorSeconds = staleIfErrorSeconds;
+        }
+    }
+
+    private static final long MINUTE = 60;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    // Error bodies are kept in memory while the cache is checked for a stale entry
+    private static final long MAX_ERROR_BODY_BYTES = 64 * 1024;
+
+    // Matched against the encoded path so the dev market-stats host is covered as well.
+    static final RoutePolicy[] DEFAULT_POLICIES = {
+        // Current rates (startGetRates). Short freshness; the JS layer throttles at 5 minutes.
+        new RoutePolicy("/bws/api/v3/fiatrates", MINUTE, 5 * MINUTE, DAY),
+        // Single historic rate at a fixed timestamp (getHistoricFiatRate).
+        new RoutePolicy("/bws/api/v1/fiatrates/", DAY, 7 * DAY, 30 * DAY),
+        // Rate series (fetchFiatRateSeriesInterval). Served from disk on cold start, refreshed behind.
+        new RoutePolicy("/bws/api/v4/fiatrates/", 5 * MINUTE, DAY, 7 * DAY),
+    };
+
+    // Process-wide so other interceptors can tell revalidations apart from the caller's requests
+    private static final Set<Call> revalidationCalls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final RoutePolicy[] policies;
+    private final Set<String> revalidatingUrls = Collections.synchronizedSet(new HashSet<>());
+
+    public ResponseCacheInterceptor() {
+        this(DEFAULT_POLICIES);
+    }
+
+    ResponseCacheInterceptor(RoutePolicy[] policies) {
+        this.policies = policies;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RoutePolicy policy = policyFor(request);
+
+        if (policy == null || request.cacheControl().noCache() || isRevalidation(chain.call())) {
+            return chain.proceed(request);
+        }
+
+        Response cached = cachedResponse(chain, request, policy, policy.staleWhileRevalidateSeconds);
+        if (cached != null) {
+            if (ageSeconds(cached) > policy.maxAgeSeconds) {
+                revalidate(chain.call(), request.url().toString());
+            }
+            return cached;
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Response stale = cachedResponse(chain, request, policy, policy.staleIfErrorSeconds);
+            if (stale != null) {
+                Log.d(TAG, "Network failed, serving stale response for " + policy.pathPrefix);
+                return stale;
+            }
+            throw e;
+        }
+
+        if (response.code() >= 500) {
+            // The chain only takes another request once the previous response is closed.
+            ResponseBody errorBody = response.peekBody(MAX_ERROR_BODY_BYTES);
+            response.close();
+            Response stale = cachedResponse(chain, request, policy, policy.staleIfErrorSeconds);
+            if (stale != null) {
+                Log.d(TAG, "Server error " + response.code() + ", serving stale response for " + policy.pathPrefix);
+                return stale;
+            }
+            return response.newBuilder().body(errorBody).build();
+        }
+
+        return response;
+    }
+
+    /**
+     * Whether the call is a background revalidation, which has to reach the network.
+     */
+    static boolean isRevalidation(Call call) {
+        return revalidationCalls.contains(call);
+    }
+
+    /**
+     * Network interceptor that makes matching responses cacheable with the route's max-age and
+     * keeps all other responses out of the cache.
+     */
+    public Interceptor networkInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            RoutePolicy policy = policyFor(request);
+
+            if (policy == null) {
+                // The cache sits on the client behind every RN fetch; without this OkHttp would
+                // store any cacheable response, including heuristically fresh ones
+                return response.newBuilder().header("Cache-Control", "no-store").build();
+            }
+            if (!response.isSuccessful()) {
+                return response;
+            }
+
+            return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "public, max-age=" + policy.maxAgeSeconds)
+                .build();
+        };
+    }
+
+    private RoutePolicy policyFor(Request request) {
+        if (!"GET".equals(request.method())) {
+            return null;
+        }
+        String path = request.url().encodedPath();
+        for (RoutePolicy policy : policies) {
+            if (path.startsWith(policy.pathPrefix)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cached response if it is at most {@code staleSeconds} past the route's max-age,
+     * or null.
+     */
+    private Response cachedResponse(Chain chain, Request request, RoutePolicy policy, long staleSeconds) throws IOException {
+        Request cacheOnly = request.newBuilder()
+            .cacheControl(new CacheControl.Builder()
+                .onlyIfCached()
+                .maxStale((int) staleSeconds, TimeUnit.SECONDS)
+                .build())
+            .build();
+
+        Response response = chain.proceed(cacheOnly);
+        if (response.cacheResponse() == null || ageSeconds(response) > policy.maxAgeSeconds + staleSeconds) {
+            // OkHttp answers an unsatisfiable only-if-cached request with a synthetic 504.
+            response.close();
+            return null;
+        }
+        return response;
+    }
+
+    private static long ageSeconds(Response response) {
+        long receivedAt = response.receivedResponseAtMillis();
+        return TimeUnit.MILLISECONDS.toSeconds(Math.max(0, System.currentTimeMillis() - receivedAt));
+    }
+
+    /**
+     * Repeats the call in the background so the cache is refreshed. The clone goes through the
+     * same client, and therefore the same allow-list, as the original call.
+     */
+    private void revalidate(Call call, String url) {
+        if (!revalidatingUrls.add(url)) {
+            return;
+        }
+
+        Call revalidation = call.clone();
+        revalidationCalls.add(revalidation);
+        revalidation.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                revalidatingUrls.remove(url);
+                Log.d(TAG, "Background revalidation failed.", e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                // The cache entry is only written once the body has been read to the end.
+                try (ResponseBody body = response.body()) {
+                    if (body != null) {
+                        body.source().readAll(Okio.blackhole());
+                    }
+                } catch (IOException e) {
+                    Log.d(TAG, "Background revalidation failed.", e);
+                } finally {
+                    revalidatingUrls.remove(url);
+                }
+            }
+        });
+    }
+}
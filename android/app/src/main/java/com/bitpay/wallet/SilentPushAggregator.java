@@ -0,0 +1,144 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Debounces silent push events before they reach JS.
+ *
+ * Raw events are collected for a short window and deduplicated by wallet, token and notification
+ * type (the latest payload wins). When the window closes, one SilentPushNotificationBatch event
+ * carrying an array of the surviving payloads is emitted. A burst that keeps extending the window
+ * is still flushed after {@link #MAX_WAIT_MULTIPLIER} windows, so events are never held
+ * indefinitely. If JS is not ready when the window closes, the batch is written to
+ * {@link SilentPushEventLog} instead and delivered when JS drains it.
+ *
+ * All state is confined to the main looper, which is also where BroadcastReceiver.onReceive runs.
+ */
+public class SilentPushAggregator {
+    private static final String TAG = "SilentPushAggregator";
+    public static final String BATCH_EVENT_NAME = "SilentPushNotificationBatch";
+    static final String COLLAPSED_COUNT_KEY = "collapsedCount";
+    static final long DEFAULT_WINDOW_MS = 1000;
+    private static final int MAX_WAIT_MULTIPLIER = 4;
+
+    private static final SilentPushAggregator INSTANCE = new SilentPushAggregator();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final LinkedHashMap<String, PendingEvent> pending = new LinkedHashMap<>();
+    private Context appContext;
+    private long windowMs = DEFAULT_WINDOW_MS;
+    private long firstPendingAt = 0;
+    private int pendingRawEvents = 0;
+
+    // Lifetime counters, read from the RN module thread.
+    private volatile long rawEventCount = 0;
+    private volatile long batchCount = 0;
+    private volatile long emittedEventCount = 0;
+
+    public static SilentPushAggregator getInstance() {
+        return INSTANCE;
+    }
+
+    public void setWindowMs(long windowMs) {
+        handler.post(() -> this.windowMs = Math.max(0, windowMs));
+    }
+
+    /**
+     * Queues a push payload. Must be called on the main thread.
+     */
+    public void add(Context context, Map<String, String> payload) {
+        appContext = context.getApplicationContext();
+        String key = dedupeKey(payload);
+        PendingEvent event = pending.remove(key);
+        int collapsed = event == null ? 1 : event.collapsed + 1;
+        // Re-insert so the batch keeps the order in which each key last fired.
+        pending.put(key, new PendingEvent(payload, collapsed));
+
+        long now = SystemClock.uptimeMillis();
+        if (pendingRawEvents == 0) {
+            firstPendingAt = now;
+        }
+        pendingRawEvents++;
+        rawEventCount++;
+
+        handler.removeCallbacks(flushRunnable);
+        long deadline = Math.min(now + windowMs, firstPendingAt + windowMs * MAX_WAIT_MULTIPLIER);
+        handler.postAtTime(flushRunnable, deadline);
+    }
+
+    static String dedupeKey(Map<String, String> payload) {
+        return payload.get("walletId") + "|" + payload.get("tokenAddress") + "|" + payload.get("notification_type");
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        if (!SilentPushModule.isJsReady()) {
+            // JS went away while the window was open (reload or teardown); keep the events durable.
+            Log.d(TAG, String.format("JS not ready; persisting %d silent push events", pending.size()));
+            SilentPushEventLog log = SilentPushEventLog.getInstance(appContext);
+            for (PendingEvent event : pending.values()) {
+                log.appendAsync(event.payload, null);
+            }
+            pending.clear();
+            pendingRawEvents = 0;
+            return;
+        }
+
+        WritableArray batch = Arguments.createArray();
+        for (PendingEvent event : pending.values()) {
+            WritableMap map = Arguments.createMap();
+            for (Map.Entry<String, String> entry : event.payload.entrySet()) {
+                map.putString(entry.getKey(), entry.getValue());
+            }
+            map.putInt(COLLAPSED_COUNT_KEY, event.collapsed);
+            batch.pushMap(map);
+        }
+
+        int raw = pendingRawEvents;
+        int emitted = pending.size();
+        pending.clear();
+        pendingRawEvents = 0;
+        batchCount++;
+        emittedEventCount += emitted;
+
+        Log.d(TAG, String.format("Emitting silent push batch: %d raw events collapsed into %d", raw, emitted));
+        SilentPushModule.sendEvent(BATCH_EVENT_NAME, batch);
+    }
+
+    public long getRawEventCount() {
+        return rawEventCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getEmittedEventCount() {
+        return emittedEventCount;
+    }
+
+    private static final class PendingEvent {
+        final Map<String, String> payload;
+        final int collapsed;
+
+        PendingEvent(Map<String, String> payload, int collapsed) {
+            this.payload = payload;
+            this.collapsed = collapsed;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, bounded log of silent pushes received while JS cannot take them.
+ *
+ * The log is a fixed-size ring file in app-private no-backup storage:
+ *
+ *   header: magic (int), head slot (int), record count (int), slot count (int)
+ *   slot:   payload length (int), CRC32 of payload (int), payload (up to SLOT_PAYLOAD_SIZE bytes)
+ *   payload: received-at wall time (long), field count (byte), then per field the index of the key
+ *            in KNOWN_KEYS (byte), value length (short) and UTF-8 value
+ *
+ * Only the fields handleBwsEvent needs are kept. When the ring is full the oldest record is
+ * overwritten. Records whose CRC does not match are skipped on drain. Appends and drains are
+ * serialized on a single background thread, so a drain always sees every append queued before it,
+ * and each append is synced to disk before the caller is notified.
+ */
+public class SilentPushEventLog {
+    private static final String TAG = "SilentPushEventLog";
+    private static final String FILE_NAME = "silent-push-events.log";
+    private static final int MAGIC = 0x53505131; // "SPQ1"
+    private static final int HEADER_SIZE = 16;
+    static final int SLOT_COUNT = 128;
+    private static final int SLOT_SIZE = 512;
+    private static final int SLOT_HEADER_SIZE = 8;
+    private static final int SLOT_PAYLOAD_SIZE = SLOT_SIZE - SLOT_HEADER_SIZE;
+    public static final String RECEIVED_AT_KEY = "receivedAt";
+
+    // Order is part of the record format; only append.
+    static final String[] KNOWN_KEYS = {
+        "walletId",
+        "copayerId",
+        "notification_type",
+        "tokenAddress",
+        "multisigContractAddress",
+        "chain",
+        "coin",
+        "network",
+    };
+
+    private static SilentPushEventLog instance;
+
+    private final File file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, TAG));
+
+    public static synchronized SilentPushEventLog getInstance(Context context) {
+        if (instance == null) {
+            instance = new SilentPushEventLog(new File(context.getApplicationContext().getNoBackupFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    SilentPushEventLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends the payload on the writer thread and runs {@code onWritten} once it is on disk.
+     */
+    public void appendAsync(Map<String, String> payload, Runnable onWritten) {
+        long receivedAt = System.currentTimeMillis();
+        writer.execute(() -> {
+            try {
+                append(payload, receivedAt);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to persist silent push", e);
+            } finally {
+                if (onWritten != null) {
+                    onWritten.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Drains the log on the writer thread, after any append already queued, and hands the
+     * payloads to {@code onDrained} on that thread.
+     */
+    public void drainAsync(Consumer<List<Map<String, String>>> onDrained) {
+        writer.execute(() -> onDrained.accept(drain()));
+    }
+
+    synchronized void append(Map<String, String> payload, long receivedAt) throws IOException {
+        byte[] record = encode(payload, receivedAt);
+        if (record == null) {
+            Log.w(TAG, "Silent push too large to persist; dropped");
+            return;
+        }
+
+        try (RandomAccessFile raf = open()) {
+            int head = raf.readInt();
+            int count = raf.readInt();
+
+            int slot = (head + count) % SLOT_COUNT;
+            if (count == SLOT_COUNT) {
+                // Full: overwrite the oldest record.
+                head = (head + 1) % SLOT_COUNT;
+            } else {
+                count++;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            raf.seek(slotOffset(slot));
+            raf.writeInt(record.length);
+            raf.writeInt((int) crc.getValue());
+            raf.write(record);
+
+            writeHeader(raf, head, count);
+            raf.getFD().sync();
+        }
+    }
+
+    /**
+     * Returns every persisted payload, oldest first and deduplicated like live batches, and empties
+     * the log.
+     */
+    synchronized List<Map<String, String>> drain() {
+        LinkedHashMap<String, Map<String, String>> events = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        try (RandomAccessFile raf = open()) {
+            int head = raf.readInt();
+            int count = raf.readInt();
+
+            for (int i = 0; i < count; i++) {
+                int slot = (head + i) % SLOT_COUNT;
+                raf.seek(slotOffset(slot));
+                int length = raf.readInt();
+                int checksum = raf.readInt();
+                if (length <= 0 || length > SLOT_PAYLOAD_SIZE) {
+                    continue;
+                }
+                byte[] record = new byte[length];
+                raf.readFully(record);
+
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    Log.w(TAG, "Skipping corrupt silent push record");
+                    continue;
+                }
+
+                Map<String, String> payload = decode(record);
+                if (payload != null) {
+                    String key = SilentPushAggregator.dedupeKey(payload);
+                    events.remove(key);
+                    events.put(key, payload);
+                }
+            }
+
+            writeHeader(raf, 0, 0);
+            raf.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to read silent push log", e);
+        }
+
+        return new ArrayList<>(events.values());
+    }
+
+    private RandomAccessFile open() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(0);
+        if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+            // New or unreadable file: lay out an empty ring.
+            raf.setLength(HEADER_SIZE + (long) SLOT_COUNT * SLOT_SIZE);
+            writeHeader(raf, 0, 0);
+            raf.seek(4);
+        }
+        return raf;
+    }
+
+    private static void writeHeader(RandomAccessFile raf, int head, int count) throws IOException {
+        raf.seek(0);
+        raf.writeInt(MAGIC);
+        raf.writeInt(head);
+        raf.writeInt(count);
+        raf.writeInt(SLOT_COUNT);
+    }
+
+    private static long slotOffset(int slot) {
+        return HEADER_SIZE + (long) slot * SLOT_SIZE;
+    }
+
+    static byte[] encode(Map<String, String> payload, long receivedAt) {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_PAYLOAD_SIZE);
+        try {
+            buffer.putLong(receivedAt);
+            int countPosition = buffer.position();
+            buffer.put((byte) 0);
+            byte fields = 0;
+            for (int i = 0; i < KNOWN_KEYS.length; i++) {
+                String value = payload.get(KNOWN_KEYS[i]);
+                if (value == null) {
+                    continue;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer.put((byte) i);
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+                fields++;
+            }
+            buffer.put(countPosition, fields);
+        } catch (java.nio.BufferOverflowException e) {
+            return null;
+        }
+
+        byte[] record = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(record);
+        return record;
+    }
+
+    static Map<String, String> decode(byte[] record) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            Map<String, String> payload = new HashMap<>();
+            payload.put(RECEIVED_AT_KEY, Long.toString(buffer.getLong()));
+            int fields = buffer.get();
+            for (int i = 0; i < fields; i++) {
+                int keyIndex = buffer.get();
+                int length = buffer.getShort() & 0xffff;
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                if (keyIndex >= 0 && keyIndex < KNOWN_KEYS.length) {
+                    payload.put(KNOWN_KEYS[keyIndex], new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+            return payload;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,28 +1,33 @@
 package com.bitpay.wallet;
 
-import android.app.Activity;
-import android.content.Intent;
 import android.util.Log;
 
 import androidx.annotation.Nullable;
 
-import com.facebook.react.bridge.ActivityEventListener;
+import com.bitpay.wallet.specs.NativeSilentPushModuleSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
-import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
-public class SilentPushModule extends ReactContextBaseJavaModule implements ActivityEventListener {
+import java.util.List;
+import java.util.Map;
+
+public class SilentPushModule extends NativeSilentPushModuleSpec {
     private static ReactApplicationContext reactContext;
+    // Set once JS has attached its listeners and drained the event log.
+    private static volatile boolean jsReady = false;
+
     public SilentPushModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
-        reactContext.addActivityEventListener(this);
     }
 
     public static void sendEvent(String eventName,
-                           @Nullable WritableMap params) {
+                           @Nullable Object params) {
         try {
             reactContext
                     .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
@@ -32,14 +37,78 @@ public class SilentPushModule extends ReactContextBaseJavaModule implements Acti
         }
     }
 
+    public static boolean isJsReady() {
+        return jsReady && reactContext != null && reactContext.hasActiveReactInstance();
+    }
+
+    /**
+     * Marks JS as ready for live events and resolves with every silent push persisted while it
+     * was not, oldest first.
+     * @param promise
+     */
     @Override
-    public void onActivityResult(Activity activity, int requestCode, int resultCode, Intent data) {}
+    public void drainPendingEvents(Promise promise) {
+        jsReady = true;
+        SilentPushEventLog.getInstance(getReactApplicationContext()).drainAsync(events -> {
+            WritableArray result = Arguments.createArray();
+            for (Map<String, String> event : events) {
+                WritableMap map = Arguments.createMap();
+                for (Map.Entry<String, String> entry : event.entrySet()) {
+                    if (SilentPushEventLog.RECEIVED_AT_KEY.equals(entry.getKey())) {
+                        map.putDouble(entry.getKey(), Double.parseDouble(entry.getValue()));
+                    } else {
+                        map.putString(entry.getKey(), entry.getValue());
+                    }
+                }
+                result.pushMap(map);
+            }
+            promise.resolve(result);
+        });
+    }
 
     @Override
-    public void onNewIntent(Intent intent){}
+    public void invalidate() {
+        jsReady = false;
+        super.invalidate();
+    }
+
+    /**
+     * Sets how long silent pushes are collected before a batch is emitted
+     * @param windowMs
+     */
+    @Override
+    public void setBatchWindow(double windowMs) {
+        SilentPushAggregator.getInstance().setWindowMs((long) windowMs);
+    }
+
+    /**
+     * Replaces the set of hashed wallet ids silent pushes are checked against
+     * @param walletIdHashes
+     */
+    @Override
+    public void setWalletFilter(ReadableArray walletIdHashes) {
+        String[] hashes = new String[walletIdHashes.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = walletIdHashes.getString(i);
+        }
+        // Persisting the filter syncs to disk
+        NativeModuleExecutor.getInstance().execute("SilentPushModule.setWalletFilter", NativeModuleExecutor.Affinity.BACKGROUND, null, () ->
+            WalletPushFilter.getInstance(getReactApplicationContext()).update(hashes));
+    }
 
     @Override
-    public String getName() {
-        return "SilentPushModule";
+    public void getBatchStats(Promise promise) {
+        // The filter size may load the persisted filter from disk
+        NativeModuleExecutor.getInstance().execute("SilentPushModule.getBatchStats", NativeModuleExecutor.Affinity.BACKGROUND, promise, () -> {
+            SilentPushAggregator aggregator = SilentPushAggregator.getInstance();
+            WritableMap stats = Arguments.createMap();
+            stats.putDouble("rawEvents", aggregator.getRawEventCount());
+            stats.putDouble("batches", aggregator.getBatchCount());
+            stats.putDouble("emittedEvents", aggregator.getEmittedEventCount());
+            WalletPushFilter filter = WalletPushFilter.getInstance(getReactApplicationContext());
+            stats.putDouble("filteredEvents", filter.getDroppedCount());
+            stats.putInt("filterSize", filter.size());
+            promise.resolve(stats);
+        });
     }
 }
@@ -0,0 +1,196 @@
+package com.bitpay.wallet
+
+import android.os.SystemClock
+import android.util.Log
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Small dependency graph for the initializers run from [MainApplication.onCreate].
+ *
+ * Each task declares the tasks it depends on and where it runs:
+ * - [Mode.MAIN] runs on the thread calling [start], in dependency order.
+ * - [Mode.BACKGROUND] runs on a small pool as soon as its dependencies have finished.
+ * - [Mode.LAZY] runs only when something calls [require] for it or depends on it.
+ *
+ * Tasks flagged `beforeFirstFrame` must be complete before the first activity renders;
+ * MainActivity waits for them with [awaitFirstFrameTasks]. Building a graph with an unknown
+ * dependency, a duplicate name, a cycle, or a background task depending on a main-thread task
+ * (directly or through lazy tasks, which run on the thread that needs them) throws, so a bad
+ * declaration fails on the first launch instead of silently reordering initialization or running
+ * main-thread work on the pool. The wall time of every task is recorded and
+ * available from [timings].
+ */
+class StartupTaskGraph private constructor(private val tasks: List<Task>) {
+    enum class Mode { MAIN, BACKGROUND, LAZY }
+
+    class Task internal constructor(
+        val name: String,
+        val mode: Mode,
+        val dependsOn: List<String>,
+        val beforeFirstFrame: Boolean,
+        internal val body: () -> Unit,
+    ) {
+        internal val claimed = AtomicBoolean(false)
+        internal val done = CountDownLatch(1)
+
+        @Volatile
+        internal var error: Throwable? = null
+
+        @Volatile
+        var durationNanos: Long = -1
+            internal set
+    }
+
+    private val byName: Map<String, Task> = tasks.associateBy { it.name }
+
+    /**
+     * Runs the main-thread tasks and schedules the background ones. Lazy tasks are left until
+     * required.
+     */
+    fun start() {
+        val backgroundTasks = tasks.filter { it.mode == Mode.BACKGROUND }
+        if (backgroundTasks.isNotEmpty()) {
+            // Tasks are submitted in dependency order to a FIFO pool, so a waiting task only ever
+            // waits on tasks that are already running, done, or run inline.
+            val pool = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors().coerceIn(1, BACKGROUND_THREADS)
+            ) { runnable -> Thread(runnable, "StartupTask").apply { isDaemon = true } }
+            backgroundTasks.forEach { task -> pool.execute { run(task, rethrow = false) } }
+            pool.shutdown()
+        }
+
+        tasks.filter { it.mode == Mode.MAIN }.forEach { run(it, rethrow = true) }
+    }
+
+    /**
+     * Makes sure [name] has run, running it (and its dependencies) on the calling thread if
+     * nothing has started it yet.
+     */
+    fun require(name: String) {
+        val task = byName[name] ?: throw IllegalArgumentException("Unknown startup task $name")
+        run(task, rethrow = true)
+    }
+
+    /** Waits for every task flagged `beforeFirstFrame`. Rethrows a failure of any of them. */
+    fun awaitFirstFrameTasks() {
+        tasks.filter { it.beforeFirstFrame }.forEach { run(it, rethrow = true) }
+    }
+
+    /** Wall time per finished task, in milliseconds, in declaration order. */
+    fun timings(): Map<String, Double> {
+        val result = LinkedHashMap<String, Double>()
+        tasks.forEach { task ->
+            if (task.durationNanos >= 0) {
+                result[task.name] = task.durationNanos / 1_000_000.0
+            }
+        }
+        return result
+    }
+
+    private fun run(task: Task, rethrow: Boolean) {
+        if (!task.claimed.compareAndSet(false, true)) {
+            // Someone else runs it; wait for them.
+            task.done.await()
+            task.error?.let { if (rethrow) throw IllegalStateException("Startup task ${task.name} failed", it) }
+            return
+        }
+
+        try {
+            task.dependsOn.forEach { dependency -> run(byName.getValue(dependency), rethrow = true) }
+            val start = SystemClock.elapsedRealtimeNanos()
+            task.body()
+            task.durationNanos = SystemClock.elapsedRealtimeNanos() - start
+            Log.d(TAG, "${task.name} (${task.mode}) took ${task.durationNanos / 1_000_000.0}ms on ${Thread.currentThread().name}")
+        } catch (e: Throwable) {
+            task.error = e
+            Log.e(TAG, "Startup task ${task.name} failed", e)
+            if (rethrow) {
+                throw e
+            }
+        } finally {
+            task.done.countDown()
+        }
+    }
+
+    class Builder {
+        private val tasks = ArrayList<Task>()
+
+        fun add(
+            name: String,
+            mode: Mode = Mode.MAIN,
+            dependsOn: List<String> = emptyList(),
+            beforeFirstFrame: Boolean = false,
+            body: () -> Unit,
+        ): Builder {
+            tasks.add(Task(name, mode, dependsOn, beforeFirstFrame, body))
+            return this
+        }
+
+        /**
+         * Validates the graph and returns it with tasks in dependency order (declaration order
+         * among independent tasks).
+         */
+        fun build(): StartupTaskGraph {
+            val byName = LinkedHashMap<String, Task>()
+            tasks.forEach { task ->
+                check(byName.put(task.name, task) == null) { "Duplicate startup task ${task.name}" }
+            }
+            tasks.forEach { task ->
+                task.dependsOn.forEach { dependency ->
+                    checkNotNull(byName[dependency]) { "Startup task ${task.name} depends on unknown task $dependency" }
+                }
+            }
+
+            val ordered = ArrayList<Task>(tasks.size)
+            val visited = HashSet<String>()
+            val path = LinkedHashSet<String>()
+
+            fun visit(task: Task) {
+                if (task.name in visited) {
+                    return
+                }
+                if (!path.add(task.name)) {
+                    val cycle = path.dropWhile { it != task.name } + task.name
+                    throw IllegalStateException("Startup task cycle: ${cycle.joinToString(" -> ")}")
+                }
+                task.dependsOn.forEach { visit(byName.getValue(it)) }
+                path.remove(task.name)
+                visited.add(task.name)
+                ordered.add(task)
+            }
+
+            tasks.forEach { visit(it) }
+
+            // A background task would run a main-thread dependency that has not started yet on
+            // the pool. The graph is acyclic by now, so the walk terminates.
+            fun mainDependency(task: Task): List<String>? {
+                task.dependsOn.forEach { name ->
+                    val dependency = byName.getValue(name)
+                    when (dependency.mode) {
+                        Mode.MAIN -> return listOf(name)
+                        Mode.LAZY -> mainDependency(dependency)?.let { return listOf(name) + it }
+                        Mode.BACKGROUND -> Unit
+                    }
+                }
+                return null
+            }
+
+            tasks.filter { it.mode == Mode.BACKGROUND }.forEach { task ->
+                mainDependency(task)?.let { chain ->
+                    throw IllegalStateException(
+                        "Background startup task ${task.name} depends on main-thread task: " +
+                            (listOf(task.name) + chain).joinToString(" -> ")
+                    )
+                }
+            }
+            return StartupTaskGraph(ordered)
+        }
+    }
+
+    companion object {
+        private const val TAG = "StartupTaskGraph"
+        private const val BACKGROUND_THREADS = 2
+    }
+}
@@ -0,0 +1,221 @@
+package com.bitpay.wallet;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records when each phase of an app launch happens.
+ *
+ * Markers are {@link SystemClock#elapsedRealtimeNanos()} timestamps in a fixed, preallocated
+ * array; each is written once per launch, from any thread, without locking. A cold launch is
+ * measured from process start. When MainActivity is recreated in a process that already finished a
+ * launch, a warm launch starts from that moment instead.
+ *
+ * Once JS reports the app as loaded, the launch is appended to a small binary file that keeps the
+ * last {@link #MAX_PERSISTED_LAUNCHES} launches:
+ *
+ *   header: magic (int), launch count (int)
+ *   launch: wall-clock start in ms (long), launch type (byte), then per marker the offset from the
+ *           launch origin in microseconds (int, -1 when the marker was not reached)
+ */
+public final class StartupTimeline {
+    private static final String TAG = "StartupTimeline";
+
+    public static final int LAUNCH_ACTIVITY_CREATE = 0;
+    public static final int APP_CREATE_START = 1;
+    public static final int APP_CREATE_END = 2;
+    public static final int BUNDLE_VERIFY_START = 3;
+    public static final int BUNDLE_VERIFY_END = 4;
+    public static final int REACT_HOST_CREATED = 5;
+    public static final int BOOT_SPLASH_INIT = 6;
+    public static final int FIRST_FRAME = 7;
+    public static final int JS_APP_LOADED = 8;
+
+    // Order matches the constants above and is part of the file format; only append.
+    static final String[] MARKER_NAMES = {
+        "launchActivityCreate",
+        "appCreateStart",
+        "appCreateEnd",
+        "bundleVerifyStart",
+        "bundleVerifyEnd",
+        "reactHostCreated",
+        "bootSplashInit",
+        "firstFrame",
+        "jsAppLoaded",
+    };
+    static final int MARKER_COUNT = MARKER_NAMES.length;
+
+    public static final byte LAUNCH_COLD = 0;
+    public static final byte LAUNCH_WARM = 1;
+
+    private static final String FILE_NAME = "startup-timeline.bin";
+    private static final int MAGIC = 0x53544c31; // "STL1"
+    static final int MAX_PERSISTED_LAUNCHES = 20;
+    private static final int UNSET = 0;
+
+    private static final AtomicLongArray markers = new AtomicLongArray(MARKER_COUNT);
+    private static volatile long originNanos = Process.getStartElapsedRealtime() * 1_000_000L;
+    private static volatile long originWallClockMs =
+        System.currentTimeMillis() - (SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime());
+    private static volatile byte launchType = LAUNCH_COLD;
+
+    private StartupTimeline() {}
+
+    /**
+     * Records {@code marker} for the current launch. Only the first call per launch counts.
+     */
+    public static void mark(int marker) {
+        markers.compareAndSet(marker, UNSET, SystemClock.elapsedRealtimeNanos());
+    }
+
+    /**
+     * Called as a launch activity is created; starts a warm launch if this process already
+     * finished one.
+     */
+    public static synchronized void onLaunchActivityCreated() {
+        if (markers.get(FIRST_FRAME) != UNSET) {
+            for (int i = 0; i < MARKER_COUNT; i++) {
+                markers.set(i, UNSET);
+            }
+            originNanos = SystemClock.elapsedRealtimeNanos();
+            originWallClockMs = System.currentTimeMillis();
+            launchType = LAUNCH_WARM;
+        }
+    }
+
+    /**
+     * Marks JS as loaded and, the first time in this launch, persists the launch in the background.
+     */
+    public static void markJsAppLoaded(Context context) {
+        if (!markers.compareAndSet(JS_APP_LOADED, UNSET, SystemClock.elapsedRealtimeNanos())) {
+            return;
+        }
+        Launch launch = current();
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> persist(appContext, launch), TAG).start();
+    }
+
+    public static Launch current() {
+        int[] offsets = new int[MARKER_COUNT];
+        long origin = originNanos;
+        for (int i = 0; i < MARKER_COUNT; i++) {
+            long value = markers.get(i);
+            offsets[i] = value == UNSET ? -1 : (int) Math.min(Integer.MAX_VALUE, Math.max(0, (value - origin) / 1000));
+        }
+        return new Launch(originWallClockMs, launchType, offsets);
+    }
+
+    public static synchronized List<Launch> history(Context context) {
+        return read(file(context));
+    }
+
+    /**
+     * Coarse device bucket so launch distributions can be compared across similar devices.
+     */
+    public static String deviceClass(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        long totalMb = memoryInfo.totalMem / (1024 * 1024);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        if (activityManager.isLowRamDevice() || totalMb < 3 * 1024 || cores <= 4) {
+            return "low";
+        }
+        if (totalMb < 6 * 1024) {
+            return "mid";
+        }
+        return "high";
+    }
+
+    private static File file(Context context) {
+        return new File(context.getNoBackupFilesDir(), FILE_NAME);
+    }
+
+    private static synchronized void persist(Context context, Launch launch) {
+        File file = file(context);
+        List<Launch> launches = read(file);
+        launches.add(launch);
+        int from = Math.max(0, launches.size() - MAX_PERSISTED_LAUNCHES);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(launches.size() - from);
+            for (int i = from; i < launches.size(); i++) {
+                Launch entry = launches.get(i);
+                out.writeLong(entry.wallClockMs);
+                out.writeByte(entry.type);
+                for (int offset : entry.offsetsMicros) {
+                    out.writeInt(offset);
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not encode startup timeline", e);
+            return;
+        }
+
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes.toByteArray());
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write startup timeline", e);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    private static List<Launch> read(File file) {
+        List<Launch> launches = new ArrayList<>();
+        if (!file.exists()) {
+            return launches;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return launches;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long wallClockMs = in.readLong();
+                byte type = in.readByte();
+                int[] offsets = new int[MARKER_COUNT];
+                for (int m = 0; m < MARKER_COUNT; m++) {
+                    offsets[m] = in.readInt();
+                }
+                launches.add(new Launch(wallClockMs, type, offsets));
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read startup timeline", e);
+        }
+        return launches;
+    }
+
+    public static final class Launch {
+        public final long wallClockMs;
+        public final byte type;
+        public final int[] offsetsMicros;
+
+        Launch(long wallClockMs, byte type, int[] offsetsMicros) {
+            this.wallClockMs = wallClockMs;
+            this.type = type;
+            this.offsetsMicros = offsetsMicros;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+
+import com.bitpay.wallet.specs.NativeStartupTimelineSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Map;
+
+/**
+ * Exposes the launch timeline recorded by {@link StartupTimeline} to JS.
+ */
+public class StartupTimelineModule extends NativeStartupTimelineSpec {
+    public StartupTimelineModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Resolves with the device class, the current launch (including startup task timings) and
+     * the persisted launch history, oldest first. Marker offsets are in milliseconds from the
+     * launch origin.
+     * @param promise
+     */
+    @Override
+    public void getTimeline(Promise promise) {
+        // Reads the persisted history from disk
+        NativeModuleExecutor.getInstance().execute("StartupTimeline.getTimeline", NativeModuleExecutor.Affinity.BACKGROUND, promise, () -> {
+            Context context = getReactApplicationContext();
+
+            WritableMap current = toMap(StartupTimeline.current());
+            Context application = context.getApplicationContext();
+            if (application instanceof MainApplication) {
+                WritableMap tasks = Arguments.createMap();
+                for (Map.Entry<String, Double> entry : ((MainApplication) application).getStartupTasks().timings().entrySet()) {
+                    tasks.putDouble(entry.getKey(), entry.getValue());
+                }
+                current.putMap("tasks", tasks);
+            }
+
+            WritableArray history = Arguments.createArray();
+            for (StartupTimeline.Launch launch : StartupTimeline.history(context)) {
+                history.pushMap(toMap(launch));
+            }
+
+            WritableMap result = Arguments.createMap();
+            result.putString("deviceClass", StartupTimeline.deviceClass(context));
+            result.putMap("current", current);
+            result.putArray("history", history);
+            promise.resolve(result);
+        });
+    }
+
+    private static WritableMap toMap(StartupTimeline.Launch launch) {
+        WritableMap map = Arguments.createMap();
+        map.putString("type", launch.type == StartupTimeline.LAUNCH_WARM ? "warm" : "cold");
+        map.putDouble("startedAt", launch.wallClockMs);
+        WritableMap markers = Arguments.createMap();
+        for (int i = 0; i < StartupTimeline.MARKER_COUNT; i++) {
+            if (launch.offsetsMicros[i] >= 0) {
+                markers.putDouble(StartupTimeline.MARKER_NAMES[i], launch.offsetsMicros[i] / 1000.0);
+            }
+        }
+        map.putMap("markers", markers);
+        return map;
+    }
+}
@@ -0,0 +1,172 @@
+package com.bitpay.wallet;
+
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.util.Log;
+
+import com.bitpay.wallet.specs.NativeStoreCryptoSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AES-256-GCM for the sensitive fields of the persisted store (see store/transforms/encrypt.ts).
+ *
+ * Values are handled a batch per call so a whole store is encrypted or decrypted in one trip
+ * across JSI, with one Cipher for the batch. The methods are synchronous because redux-persist
+ * transforms are. An entry that fails is returned as an empty string and the rest of the batch
+ * still goes through.
+ *
+ * The key is either derived from a secret (HMAC-SHA256 of a fixed label, keyed with the secret)
+ * or an AES key generated inside the Android Keystore under the given alias, which never leaves
+ * it. Payloads are "encrypted:gcm1:" followed by base64 of the 12-byte IV and the ciphertext with
+ * its 16-byte tag; legacy crypto-js "encrypted:" payloads are left to JS.
+ */
+public class StoreCryptoModule extends NativeStoreCryptoSpec {
+    private static final String TAG = "StoreCrypto";
+    static final String PAYLOAD_PREFIX = "encrypted:gcm1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String KEYSTORE = "AndroidKeyStore";
+    private static final byte[] KEY_LABEL = "bitpay-store-gcm-v1".getBytes(StandardCharsets.UTF_8);
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    // Deriving the key is cheap but runs on every persist; keep the last one.
+    private byte[] derivedFrom;
+    private SecretKey derivedKey;
+
+    public StoreCryptoModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public WritableArray encryptBatch(ReadableArray values, ReadableMap key) {
+        WritableArray result = Arguments.createArray();
+        Cipher cipher;
+        SecretKey secretKey;
+        try {
+            secretKey = resolveKey(key);
+            cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            Log.e(TAG, "encryptBatch: no usable key", e);
+            return failedBatch(values.size());
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            try {
+                // The provider picks a fresh random IV on every init
+                cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+                byte[] iv = cipher.getIV();
+                byte[] sealed = cipher.doFinal(values.getString(i).getBytes(StandardCharsets.UTF_8));
+                byte[] payload = new byte[iv.length + sealed.length];
+                System.arraycopy(iv, 0, payload, 0, iv.length);
+                System.arraycopy(sealed, 0, payload, iv.length, sealed.length);
+                result.pushString(PAYLOAD_PREFIX + Base64.encodeToString(payload, Base64.NO_WRAP));
+            } catch (GeneralSecurityException | RuntimeException e) {
+                Log.w(TAG, "encryptBatch: entry " + i + " failed", e);
+                result.pushString("");
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public WritableArray decryptBatch(ReadableArray values, ReadableMap key) {
+        WritableArray result = Arguments.createArray();
+        Cipher cipher;
+        SecretKey secretKey;
+        try {
+            secretKey = resolveKey(key);
+            cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            Log.e(TAG, "decryptBatch: no usable key", e);
+            return failedBatch(values.size());
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.getString(i);
+            if (value == null || !value.startsWith(PAYLOAD_PREFIX)) {
+                result.pushString("");
+                continue;
+            }
+            try {
+                byte[] payload = Base64.decode(value.substring(PAYLOAD_PREFIX.length()), Base64.NO_WRAP);
+                if (payload.length <= IV_LENGTH) {
+                    result.pushString("");
+                    continue;
+                }
+                cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_BITS, payload, 0, IV_LENGTH));
+                byte[] plain = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+                result.pushString(new String(plain, StandardCharsets.UTF_8));
+            } catch (GeneralSecurityException | RuntimeException e) {
+                Log.w(TAG, "decryptBatch: entry " + i + " failed", e);
+                result.pushString("");
+            }
+        }
+        return result;
+    }
+
+    private static WritableArray failedBatch(int size) {
+        WritableArray result = Arguments.createArray();
+        for (int i = 0; i < size; i++) {
+            result.pushString("");
+        }
+        return result;
+    }
+
+    private synchronized SecretKey resolveKey(ReadableMap key) throws GeneralSecurityException {
+        if (key.hasKey("keystoreAlias") && !key.isNull("keystoreAlias")) {
+            return keystoreKey(key.getString("keystoreAlias"));
+        }
+        String secret = key.hasKey("secret") ? key.getString("secret") : null;
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("A secret or keystoreAlias is required");
+        }
+
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (derivedKey == null || !MessageDigest.isEqual(secretBytes, derivedFrom)) {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secretBytes, "HmacSHA256"));
+            derivedKey = new SecretKeySpec(mac.doFinal(KEY_LABEL), KeyProperties.KEY_ALGORITHM_AES);
+            derivedFrom = secretBytes;
+        }
+        return derivedKey;
+    }
+
+    private static SecretKey keystoreKey(String alias) throws GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE);
+        try {
+            keyStore.load(null);
+        } catch (IOException e) {
+            throw new GeneralSecurityException(e);
+        }
+        KeyStore.Entry entry = keyStore.getEntry(alias, null);
+        if (entry instanceof KeyStore.SecretKeyEntry) {
+            return ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+        }
+
+        KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, KEYSTORE);
+        generator.init(new KeyGenParameterSpec.Builder(alias, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+            .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+            .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+            .setKeySize(256)
+            .build());
+        return generator.generateKey();
+    }
+}
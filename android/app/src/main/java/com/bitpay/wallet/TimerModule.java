@@ -1,30 +1,47 @@
 package com.bitpay.wallet;
+import android.os.SystemClock;
+
+import com.bitpay.wallet.specs.NativeTimerSpec;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
-import com.facebook.react.bridge.ReactMethod;
-import com.facebook.react.bridge.Promise;
 
-public class TimerModule extends ReactContextBaseJavaModule {
+public class TimerModule extends NativeTimerSpec {
     public TimerModule(ReactApplicationContext reactContext) {
         super(reactContext);
     }
 
+    private static double monotonicMs() {
+        // Time since boot, including deep sleep; cannot be changed by the user
+        return SystemClock.elapsedRealtimeNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Return a monotonic time in milliseconds (sub-millisecond precision) that cannot be influenced by the user
+     */
     @Override
-    public String getName() {
-        return "Timer";
+    public double getMonotonicTime() {
+        return monotonicMs();
     }
 
     /**
-     * Return a relative unit of time in seconds that cannot be influenced by the user
-     * @param promise
+     * Return the milliseconds left until a lock that ends at untilSeconds (monotonic seconds), or 0 once it has ended
+     * @param untilSeconds
      */
-    @ReactMethod
-    public void getRelativeTime(Promise promise) {
-        // System time in milliseconds
-        long time = android.os.SystemClock.elapsedRealtime();
+    @Override
+    public double getRemainingLockTime(double untilSeconds) {
+        return Math.max(0, untilSeconds * 1000 - monotonicMs());
+    }
 
-        // React Native bridge complains if we try to pass back a long directly
-        promise.resolve(Long.toString(time / 1000));
+    /**
+     * Return when a lockout for the given attempt count ends, in monotonic seconds, or 0 if the attempts don't lock
+     * @param attempts
+     * @param attemptLimit
+     * @param lockoutSeconds
+     */
+    @Override
+    public double getLockoutUntil(double attempts, double attemptLimit, double lockoutSeconds) {
+        if (attempts < attemptLimit) {
+            return 0;
+        }
+        return monotonicMs() / 1000 + lockoutSeconds;
     }
-}
\ No newline at end of file
+}
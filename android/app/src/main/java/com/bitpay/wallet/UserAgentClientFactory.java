@@ -1,21 +1,135 @@
 package com.bitpay.wallet;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.os.Bundle;
+import android.util.Log;
 
 import com.facebook.react.modules.network.OkHttpClientFactory;
 import com.facebook.react.modules.network.ReactCookieJarContainer;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
+/**
+ * Builds the OkHttp clients used by React Native networking.
+ *
+ * Every client handed out shares one core client, so they all use the same connection pool and
+ * dispatcher. HTTP/2 connections to BWS/BitPay hosts are multiplexed across all of them and the
+ * per-host request ceiling holds no matter how many clients React Native creates.
+ *
+ * The core also owns a size-bounded disk cache used by {@link ResponseCacheInterceptor} for the
+ * BWS fiat rate endpoints only (its network interceptor marks every other response no-store),
+ * negotiates Brotli/gzip responses through
+ * {@link CompressionInterceptor} and hedges slow idempotent reads through
+ * {@link HedgingInterceptor}.
+ *
+ * Pool, dispatcher, cache and hedge limits default to the values below and can be overridden with
+ * integer manifest meta-data entries: HttpMaxIdleConnections, HttpKeepAliveSeconds,
+ * HttpMaxRequests, HttpMaxRequestsPerHost, HttpCacheMaxSizeMb and HttpHedgeBudgetPercent.
+ */
 public class UserAgentClientFactory implements OkHttpClientFactory {
+  private static final String TAG = "UserAgentClientFactory";
+
+  static final int DEFAULT_MAX_IDLE_CONNECTIONS = 8;
+  static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+  static final int DEFAULT_MAX_REQUESTS = 64;
+  static final int DEFAULT_MAX_REQUESTS_PER_HOST = 12;
+  static final int DEFAULT_CACHE_MAX_SIZE_MB = 20;
+  static final int DEFAULT_HEDGE_BUDGET_PERCENT = 5;
+  static final String CACHE_DIRECTORY = "http-cache";
+
+  private static OkHttpClient sharedClient = null;
+
   UserAgentInterceptor userAgentInterceptor;
+  private final Context context;
+
   public UserAgentClientFactory(Context context) {
+    this.context = context.getApplicationContext();
     this.userAgentInterceptor = new UserAgentInterceptor(context);
   }
+
   public OkHttpClient createNewNetworkModuleClient() {
+    // NetworkingModule swaps the jar inside its container, so each client keeps its own container.
+    // Coalescing is per client too, so a request is never answered with a response that went
+    // through a different client's interceptors.
+    return getSharedClient()
+      .newBuilder()
+      .cookieJar(new ReactCookieJarContainer())
+      .addInterceptor(new RequestCoalescingInterceptor())
+      .build();
+  }
+
+  OkHttpClient getSharedClient() {
+    synchronized (UserAgentClientFactory.class) {
+      if (sharedClient == null) {
+        sharedClient = buildSharedClient();
+      }
+      return sharedClient;
+    }
+  }
+
+  private OkHttpClient buildSharedClient() {
+    Bundle metaData = readMetaData(this.context);
+
+    ConnectionPool connectionPool = new ConnectionPool(
+      getInt(metaData, "HttpMaxIdleConnections", DEFAULT_MAX_IDLE_CONNECTIONS),
+      getInt(metaData, "HttpKeepAliveSeconds", DEFAULT_KEEP_ALIVE_SECONDS),
+      TimeUnit.SECONDS);
+
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(getInt(metaData, "HttpMaxRequests", DEFAULT_MAX_REQUESTS));
+    dispatcher.setMaxRequestsPerHost(getInt(metaData, "HttpMaxRequestsPerHost", DEFAULT_MAX_REQUESTS_PER_HOST));
+
+    Cache cache = new Cache(
+      new File(this.context.getCacheDir(), CACHE_DIRECTORY),
+      getInt(metaData, "HttpCacheMaxSizeMb", DEFAULT_CACHE_MAX_SIZE_MB) * 1024L * 1024L);
+    ResponseCacheInterceptor responseCacheInterceptor = new ResponseCacheInterceptor();
+    HedgingInterceptor hedgingInterceptor = new HedgingInterceptor(
+      NetworkLatencyHistograms.getInstance(),
+      AllowedUrlPrefixInterceptor.getMatcher(this.context),
+      getInt(metaData, "HttpHedgeBudgetPercent", DEFAULT_HEDGE_BUDGET_PERCENT));
+
     return new OkHttpClient.Builder()
+      .cache(cache)
+      .connectionPool(connectionPool)
+      .dispatcher(dispatcher)
+      .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+      .eventListenerFactory(new NetworkTimingEventListener.Factory(NetworkLatencyHistograms.getInstance()))
       .cookieJar(new ReactCookieJarContainer())
+      // First, so its attempts run through every other interceptor of whichever client made the call
+      .addInterceptor(hedgingInterceptor)
       .addInterceptor(this.userAgentInterceptor)
+      // Ahead of the cache so cached bodies, stored as they came over the wire, are decoded too
+      .addInterceptor(new CompressionInterceptor(NetworkLatencyHistograms.getInstance()))
+      .addInterceptor(responseCacheInterceptor)
+      .addNetworkInterceptor(responseCacheInterceptor.networkInterceptor())
       .build();
   }
-}
\ No newline at end of file
+
+  private static Bundle readMetaData(Context context) {
+    try {
+      ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
+      return ai.metaData;
+    } catch (PackageManager.NameNotFoundException ex) {
+      Log.d(TAG, "An error occurred while reading network client settings.", ex);
+      return null;
+    }
+  }
+
+  private static int getInt(Bundle metaData, String key, int defaultValue) {
+    if (metaData == null) {
+      return defaultValue;
+    }
+    int value = metaData.getInt(key, defaultValue);
+    return value > 0 ? value : defaultValue;
+  }
+}
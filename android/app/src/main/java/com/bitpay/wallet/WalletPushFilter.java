@@ -0,0 +1,182 @@
+package com.bitpay.wallet;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Membership filter of the hashed wallet ids this device tracks, used to drop silent pushes for
+ * other wallets before they reach JS.
+ *
+ * JS pushes the SHA-256 hex of every wallet id a push can carry (see WalletPushFilter.ts). Only the
+ * first 64 bits of each hash are kept, in a sorted long[] searched with binary search: a few bytes
+ * per wallet, no allocation per lookup, and a false-positive rate of about n / 2^64. False
+ * positives only mean JS does the lookup it did before; there are no false negatives.
+ *
+ * The set is persisted in no-backup storage so pushes can be filtered on a cold start before JS
+ * runs. Until JS has provided a set at least once, every push is let through. The first lookup
+ * may read that file, so callers on the main thread use {@link #mightContainAsync}.
+ */
+public class WalletPushFilter {
+    private static final String TAG = "WalletPushFilter";
+    private static final String FILE_NAME = "wallet-push-filter.bin";
+    private static final int MAGIC = 0x57504631; // "WPF1"
+
+    private static WalletPushFilter instance;
+
+    private final File file;
+    private volatile long[] prefixes;
+    private volatile boolean loaded = false;
+    private volatile long droppedCount = 0;
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, TAG));
+
+    public static synchronized WalletPushFilter getInstance(Context context) {
+        if (instance == null) {
+            instance = new WalletPushFilter(new File(context.getApplicationContext().getNoBackupFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    WalletPushFilter(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replaces the set with {@code walletIdHashes} and persists it. Entries that are not SHA-256
+     * hex strings are ignored.
+     */
+    public synchronized void update(String[] walletIdHashes) {
+        long[] next = new long[walletIdHashes.length];
+        int size = 0;
+        for (String hash : walletIdHashes) {
+            Long prefix = parsePrefix(hash);
+            if (prefix != null) {
+                next[size++] = prefix;
+            }
+        }
+        Arrays.sort(next, 0, size);
+
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || next[i] != next[unique - 1]) {
+                next[unique++] = next[i];
+            }
+        }
+
+        prefixes = Arrays.copyOf(next, unique);
+        loaded = true;
+        persist(prefixes);
+    }
+
+    /**
+     * Returns false only when the set is known and {@code walletIdHash} is definitely not in it.
+     */
+    public boolean mightContain(String walletIdHash) {
+        long[] current = load();
+        if (current == null) {
+            return true;
+        }
+        Long prefix = parsePrefix(walletIdHash);
+        if (prefix == null) {
+            // Not a hash we recognise; leave the decision to JS.
+            return true;
+        }
+        if (Arrays.binarySearch(current, prefix) >= 0) {
+            return true;
+        }
+        droppedCount++;
+        return false;
+    }
+
+    /**
+     * Runs {@link #mightContain} on the filter's own thread and hands the answer to
+     * {@code onResult} there.
+     */
+    public void mightContainAsync(String walletIdHash, Consumer<Boolean> onResult) {
+        reader.execute(() -> onResult.accept(mightContain(walletIdHash)));
+    }
+
+    public int size() {
+        long[] current = load();
+        return current == null ? -1 : current.length;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private long[] load() {
+        if (loaded) {
+            return prefixes;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                prefixes = read();
+                loaded = true;
+            }
+            return prefixes;
+        }
+    }
+
+    private long[] read() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int count = in.readInt();
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = in.readLong();
+            }
+            return values;
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read wallet push filter", e);
+            return null;
+        }
+    }
+
+    private void persist(long[] values) {
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(MAGIC);
+            out.writeInt(values.length);
+            for (long value : values) {
+                out.writeLong(value);
+            }
+            out.flush();
+            stream.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write wallet push filter", e);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    static Long parsePrefix(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return null;
+        }
+        try {
+            return Long.parseUnsignedLong(hash.substring(0, 16), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
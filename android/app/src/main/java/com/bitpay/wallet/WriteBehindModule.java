@@ -0,0 +1,53 @@
+package com.bitpay.wallet;
+
+import android.util.Log;
+
+import com.bitpay.wallet.specs.NativeWriteBehindSpec;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+ * Tells the JS write-behind storage (store/storage/write-behind.ts) to flush its pending writes
+ * when the app may be about to lose its process: MainActivity pausing or the system trimming
+ * memory.
+ */
+public class WriteBehindModule extends NativeWriteBehindSpec {
+    private static final String TAG = "WriteBehind";
+    public static final String FLUSH_EVENT = "WriteBehindFlush";
+    public static final String REASON_PAUSE = "pause";
+    public static final String REASON_TRIM_MEMORY = "trimMemory";
+
+    // Set once JS has attached; null while no JS is listening.
+    private static volatile ReactApplicationContext attachedContext;
+
+    public WriteBehindModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public void attach() {
+        attachedContext = getReactApplicationContext();
+    }
+
+    @Override
+    public void invalidate() {
+        if (attachedContext == getReactApplicationContext()) {
+            attachedContext = null;
+        }
+        super.invalidate();
+    }
+
+    public static void requestFlush(String reason) {
+        ReactApplicationContext context = attachedContext;
+        if (context == null || !context.hasActiveReactInstance()) {
+            return;
+        }
+        try {
+            context
+                    .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                    .emit(FLUSH_EVENT, reason);
+        } catch (Exception e) {
+            Log.e(TAG, "Could not request a flush", e);
+        }
+    }
+}
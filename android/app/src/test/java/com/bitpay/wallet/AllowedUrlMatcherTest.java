@@ -0,0 +1,150 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Checks that {@link AllowedUrlMatcher#matches} agrees with the linear {@code startsWith} scan it
+ * replaced, over generated allow-lists and URLs. Runs on Robolectric for the verdict cache.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AllowedUrlMatcherTest {
+    private static final long SEED = 0x5eed_a11L;
+    private static final int ROUNDS = 300;
+    private static final int PREFIXES_PER_ROUND = 6;
+    private static final int URLS_PER_ROUND = 200;
+
+    private static final String[] SCHEMES = {"http", "https"};
+    private static final String[] HOSTS = {
+        "bitpay.com",
+        "api.bitpay.com",
+        "bitpay.co",
+        "bitpay.com.evil.io",
+        "127.0.0.1",
+        "127.0.0.10",
+        "[::1]",
+        "[2001:db8::1]",
+        "[2001:db8::10]",
+    };
+    private static final String[] PORTS = {"", ":80", ":443", ":8080", ":808", ":65535"};
+    private static final String[] USER_INFO = {"", "", "", "user@", "user:secret@", ":secret@"};
+    private static final String[] PATHS = {
+        "/", "/api", "/api/", "/api/v2", "/api/v2/rates", "/apiv2", "/a%20b", "/a b", "/%7Euser",
+    };
+    private static final String[] QUERIES = {"", "", "?", "?a=1", "?a=1&b=2", "?a", "?q=%20"};
+    private static final String[] FRAGMENTS = {"", "", "#", "#top", "#top/more", "#a?b"};
+
+    @Test
+    public void agreesWithLinearScanOnGeneratedInputs() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < URLS_PER_ROUND; i++) {
+                urls.add(randomUrl(random).toString());
+            }
+
+            String[] prefixes = new String[PREFIXES_PER_ROUND];
+            for (int i = 0; i < prefixes.length; i++) {
+                prefixes[i] = randomPrefix(random, urls);
+            }
+            AllowedUrlMatcher matcher = AllowedUrlMatcher.compile(prefixes);
+
+            // Every URL twice, so the second pass answers from the verdict cache
+            for (int pass = 0; pass < 2; pass++) {
+                for (String url : urls) {
+                    assertAgrees(matcher, prefixes, HttpUrl.get(url));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void prefixEndingInsideTheAuthority() {
+        AllowedUrlMatcher matcher = AllowedUrlMatcher.compile(new String[] {"https://bitpay.co", "http://[2001:db8::"});
+
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com/api")));
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.co:8443/")));
+        assertTrue(matcher.matches(HttpUrl.get("http://[2001:db8::1]:8080/x")));
+        assertFalse(matcher.matches(HttpUrl.get("http://bitpay.com/")));
+        assertFalse(matcher.matches(HttpUrl.get("https://user@bitpay.com/")));
+    }
+
+    @Test
+    public void portsMustMatchAsSerialized() {
+        AllowedUrlMatcher matcher = AllowedUrlMatcher.compile(new String[] {
+            "https://bitpay.com:443/api", "https://bitpay.com:8080/api", "http://127.0.0.1:80/",
+        });
+
+        // Default ports are never serialized, so prefixes naming them never match
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com/api")));
+        assertFalse(matcher.matches(HttpUrl.get("http://127.0.0.1/")));
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com:8080/api/v2")));
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com:808/api")));
+    }
+
+    @Test
+    public void queryAndFragmentBoundaries() {
+        AllowedUrlMatcher matcher = AllowedUrlMatcher.compile(new String[] {
+            "https://bitpay.com/api?", "https://bitpay.com/rates#", "https://bitpay.com/q?a=1",
+        });
+
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com/api?")));
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com/api?x=1")));
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com/api")));
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com/api#top")));
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com/rates#top")));
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com/rates?x#top")));
+        assertTrue(matcher.matches(HttpUrl.get("https://bitpay.com/q?a=10")));
+        assertFalse(matcher.matches(HttpUrl.get("https://bitpay.com/q?b=1&a=1")));
+    }
+
+    private static void assertAgrees(AllowedUrlMatcher matcher, String[] prefixes, HttpUrl url) {
+        assertEquals(
+            "prefixes " + String.join(" | ", prefixes) + " on " + url,
+            matcher.matchesLegacy(url.toString()),
+            matcher.matches(url));
+    }
+
+    private static HttpUrl randomUrl(Random random) {
+        String url = pick(random, SCHEMES) + "://" + pick(random, USER_INFO) + pick(random, HOSTS)
+            + pick(random, PORTS) + pick(random, PATHS) + pick(random, QUERIES) + pick(random, FRAGMENTS);
+        return HttpUrl.get(url);
+    }
+
+    /**
+     * Mostly cuts of URLs that are also tested, so prefixes end at every kind of boundary: inside
+     * the scheme, the user info, the host, the port, the path, the query and the fragment. The rest
+     * are cuts of unrelated URLs and of raw, unnormalized ones that HttpUrl never produces.
+     */
+    private static String randomPrefix(Random random, List<String> urls) {
+        String source;
+        switch (random.nextInt(4)) {
+            case 0:
+                source = randomUrl(random).toString();
+                break;
+            case 1:
+                source = pick(random, SCHEMES) + "://" + pick(random, HOSTS) + pick(random, PORTS)
+                    + pick(random, PATHS) + pick(random, QUERIES);
+                break;
+            default:
+                source = urls.get(random.nextInt(urls.size()));
+                break;
+        }
+        return source.substring(0, random.nextInt(source.length() + 1));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
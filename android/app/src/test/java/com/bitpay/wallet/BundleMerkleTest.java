@@ -0,0 +1,178 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks {@link BundleMerkle} against a manifest computed the way the generate{Variant}BundleHash
+ * task in app/build.gradle computes it.
+ */
+public class BundleMerkleTest {
+    // BUNDLE_CHUNK_SIZE in app/build.gradle
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    // Three chunks, the last one partial, so the tree has an odd node to promote
+    private static final int BUNDLE_SIZE = 2 * CHUNK_SIZE + 12345;
+
+    private final byte[] bundle = randomBytes(BUNDLE_SIZE);
+    private final Manifest manifest = gradleManifest(bundle);
+
+    @Test
+    public void intactBundleVerifies() throws Exception {
+        assertEquals(3, manifest.chunkHashes.length);
+        assertTrue(verify(bundle, manifest, null));
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            assertTrue(verify(bundle, manifest, pool));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void singleByteFlipsAreRejected() throws Exception {
+        int[] offsets = {0, CHUNK_SIZE - 1, CHUNK_SIZE, BUNDLE_SIZE - 1};
+        for (int offset : offsets) {
+            byte[] tampered = bundle.clone();
+            tampered[offset] ^= 0x01;
+            assertFalse("flip at " + offset, verify(tampered, manifest, null));
+        }
+    }
+
+    @Test
+    public void truncatedBundlesAreRejected() throws Exception {
+        assertFalse(verify(Arrays.copyOf(bundle, BUNDLE_SIZE - 1), manifest, null));
+        assertFalse(verify(Arrays.copyOf(bundle, 2 * CHUNK_SIZE), manifest, null));
+        assertFalse(verify(new byte[0], manifest, null));
+    }
+
+    @Test
+    public void truncationIsRejectedAgainstItsOwnSize() throws Exception {
+        // A manifest that agrees on the size still catches the missing bytes through the hashes
+        byte[] truncated = Arrays.copyOf(bundle, 2 * CHUNK_SIZE);
+        Manifest lying = new Manifest(manifest.root, Arrays.copyOf(manifest.chunkHashes, 2), truncated.length);
+        assertFalse(verify(truncated, lying, null));
+    }
+
+    @Test
+    public void appendedBytesAreRejected() throws Exception {
+        assertFalse(verify(Arrays.copyOf(bundle, BUNDLE_SIZE + 1), manifest, null));
+        assertFalse(verify(Arrays.copyOf(bundle, BUNDLE_SIZE + CHUNK_SIZE), manifest, null));
+    }
+
+    @Test
+    public void rootMustMatchTheChunkHashes() throws Exception {
+        // A bundle whose chunk hashes were swapped into the manifest without the root being rebuilt
+        byte[] tampered = bundle.clone();
+        tampered[CHUNK_SIZE] ^= 0x01;
+        Manifest patched = new Manifest(manifest.root, gradleManifest(tampered).chunkHashes, BUNDLE_SIZE);
+        assertFalse(verify(tampered, patched, null));
+    }
+
+    @Test
+    public void verifiesFromThePositionAndLeavesItAlone() throws Exception {
+        byte[] padded = new byte[BUNDLE_SIZE + 100];
+        System.arraycopy(bundle, 0, padded, 40, BUNDLE_SIZE);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 40, BUNDLE_SIZE);
+
+        assertTrue(BundleMerkle.verify(buffer, CHUNK_SIZE, BUNDLE_SIZE, manifest.chunkHashes, manifest.root));
+        assertEquals(40, buffer.position());
+        assertEquals(40 + BUNDLE_SIZE, buffer.limit());
+    }
+
+    @Test
+    public void singleChunkRootIsItsLeaf() throws Exception {
+        byte[] small = randomBytes(100);
+        Manifest single = gradleManifest(small);
+        assertEquals(single.chunkHashes[0], single.root);
+        assertTrue(verify(small, single, null));
+    }
+
+    private static boolean verify(byte[] bytes, Manifest manifest, ExecutorService pool) {
+        return BundleMerkle.verify(
+            ByteBuffer.wrap(bytes), CHUNK_SIZE, manifest.size, manifest.chunkHashes, manifest.root, pool);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Mirrors the doLast block of generate{Variant}BundleHash. */
+    private static Manifest gradleManifest(byte[] bundle) {
+        try {
+            List<byte[]> leaves = new ArrayList<>();
+            InputStream stream = new ByteArrayInputStream(bundle);
+            byte[] buffer = new byte[CHUNK_SIZE];
+            while (true) {
+                int read = stream.readNBytes(buffer, 0, CHUNK_SIZE);
+                if (read <= 0) break;
+                leaves.add(sha256(0x00, Arrays.copyOf(buffer, read)));
+                if (read < CHUNK_SIZE) break;
+            }
+
+            List<byte[]> level = leaves;
+            while (level.size() > 1) {
+                List<byte[]> next = new ArrayList<>();
+                for (int i = 0; i < level.size(); i += 2) {
+                    next.add(i + 1 < level.size() ? sha256(0x01, level.get(i), level.get(i + 1)) : level.get(i));
+                }
+                level = next;
+            }
+
+            String[] chunkHashes = new String[leaves.size()];
+            for (int i = 0; i < chunkHashes.length; i++) {
+                chunkHashes[i] = hex(leaves.get(i));
+            }
+            return new Manifest(hex(level.get(0)), chunkHashes, bundle.length);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] sha256(int prefix, byte[]... parts) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update((byte) prefix);
+        for (byte[] part : parts) {
+            digest.update(part);
+        }
+        return digest.digest();
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static final class Manifest {
+        final String root;
+        final String[] chunkHashes;
+        final long size;
+
+        Manifest(String root, String[] chunkHashes, long size) {
+            this.root = root;
+            this.chunkHashes = chunkHashes;
+            this.size = size;
+        }
+    }
+}
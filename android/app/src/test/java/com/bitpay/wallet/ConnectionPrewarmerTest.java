@@ -0,0 +1,140 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConnectionPrewarmerTest {
+    private static final String[] ALLOWED = {
+        "https://bws.bitpay.com/bws/api",
+        "http://insecure.example.com/",
+        // Ends inside the authority, so it names no single host
+        "https://bitpay.",
+        "https://bitpay.com/api/v2/",
+        "https://bws.bitpay.com/bws/api/v3/",
+        "https://api.coingecko.com/api/v3/",
+        "https://staging.bitpay.com/",
+    };
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        String host = InetAddress.getByName("localhost").getCanonicalHostName();
+        HeldCertificate certificate = new HeldCertificate.Builder().addSubjectAlternativeName(host).build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+            .heldCertificate(certificate)
+            .build();
+        HandshakeCertificates clientCertificates = new HandshakeCertificates.Builder()
+            .addTrustedCertificate(certificate.certificate())
+            .build();
+
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        server.start();
+
+        client = new OkHttpClient.Builder()
+            .sslSocketFactory(clientCertificates.sslSocketFactory(), clientCertificates.trustManager())
+            .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void defaultsToTheFirstHttpsHostsInAllowListOrder() {
+        assertEquals(
+            Arrays.asList("https://bws.bitpay.com/", "https://bitpay.com/", "https://api.coingecko.com/"),
+            strings(ConnectionPrewarmer.prewarmUrls(ALLOWED, null)));
+        assertEquals(3, ConnectionPrewarmer.DEFAULT_MAX_HOSTS);
+    }
+
+    @Test
+    public void prewarmHostsPickHostsInTheirOwnOrder() {
+        String[] hosts = {"staging.bitpay.com", "bws.bitpay.com"};
+
+        assertEquals(
+            Arrays.asList("https://staging.bitpay.com/", "https://bws.bitpay.com/"),
+            strings(ConnectionPrewarmer.prewarmUrls(ALLOWED, hosts)));
+    }
+
+    @Test
+    public void prewarmHostsOutsideTheAllowListAreIgnored() {
+        String[] hosts = {"evil.example.com", "insecure.example.com", "bitpay.", "bitpay.com"};
+
+        assertEquals(
+            Collections.singletonList("https://bitpay.com/"),
+            strings(ConnectionPrewarmer.prewarmUrls(ALLOWED, hosts)));
+    }
+
+    @Test
+    public void onlyHttpsPrefixesWithAFullAuthorityCount() {
+        String[] allowed = {"http://bitpay.com/", "https://bitpay.", "wss://bitpay.com/", "https://"};
+
+        assertTrue(ConnectionPrewarmer.prewarmUrls(allowed, null).isEmpty());
+    }
+
+    @Test
+    public void prewarmLeavesAConnectionForTheNextRequest() throws Exception {
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody("rates"));
+        HttpUrl origin = server.url("/");
+
+        ConnectionPrewarmer.prewarm(client, Collections.singletonList(origin));
+
+        RecordedRequest warmup = server.takeRequest();
+        assertEquals("HEAD", warmup.getMethod());
+        assertEquals("/", warmup.getPath());
+        awaitPooledConnections(1);
+
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/bws/api/v3/fiatrates")).build()).execute()) {
+            assertEquals("rates", response.body().string());
+            assertEquals(Protocol.HTTP_2, response.protocol());
+        }
+
+        // Second request on the connection the warm-up opened
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    private void awaitPooledConnections(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.connectionPool().connectionCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, client.connectionPool().connectionCount());
+    }
+
+    private static List<String> strings(List<HttpUrl> urls) {
+        return urls.stream().map(HttpUrl::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,149 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class HedgingInterceptorTest {
+    // Primed p95 time to first byte, and so the hedge delay
+    private static final long TTFB_MILLIS = 300;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private MockWebServer server;
+    private NetworkLatencyHistograms histograms;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        histograms = new NetworkLatencyHistograms();
+        HedgingInterceptor.resetCounters();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void secondAttemptWinsWhenFirstStalls() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                if (requests.incrementAndGet() == 1) {
+                    return new MockResponse().setBody("slow").setHeadersDelay(2, TimeUnit.SECONDS);
+                }
+                return new MockResponse().setBody("fast");
+            }
+        });
+        primeRoute("/status");
+        OkHttpClient client = client(new ResponseCacheInterceptor(new ResponseCacheInterceptor.RoutePolicy[0]));
+
+        long start = System.nanoTime();
+        assertEquals("fast", get(client, server.url("/status")));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+        assertEquals(1, HedgingInterceptor.getHedgedCount());
+        assertEquals(1, HedgingInterceptor.getHedgeWinCount());
+    }
+
+    @Test
+    public void fastResponseIsNotHedged() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        primeRoute("/status");
+        OkHttpClient client = client(new ResponseCacheInterceptor(new ResponseCacheInterceptor.RoutePolicy[0]));
+
+        assertEquals("ok", get(client, server.url("/status")));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, HedgingInterceptor.getHedgedCount());
+    }
+
+    @Test
+    public void staleWhileRevalidateStillRefreshesWhenHedging() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse().setBody("v" + requests.incrementAndGet());
+            }
+        });
+        primeRoute("/rates");
+        // Stale after a second, served stale for a minute
+        OkHttpClient client = client(new ResponseCacheInterceptor(new ResponseCacheInterceptor.RoutePolicy[] {
+            new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 60, 60),
+        }));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(1100);
+
+        // Served stale right away, refreshed in the background
+        assertEquals("v1", get(client, url));
+        assertNotNull(server.takeRequest(1, TimeUnit.SECONDS));
+        assertNotNull("revalidation never reached the network", server.takeRequest(5, TimeUnit.SECONDS));
+
+        String refreshed = "v1";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ("v1".equals(refreshed) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            refreshed = get(client, url);
+        }
+        assertNotEquals("v1", refreshed);
+    }
+
+    private OkHttpClient client(ResponseCacheInterceptor cacheInterceptor) throws IOException {
+        // Every eligible request earns a whole hedge, so the budget never gets in the way here
+        HedgingInterceptor hedgingInterceptor = new HedgingInterceptor(
+            histograms,
+            AllowedUrlMatcher.compile(new String[] {server.url("/").toString()}),
+            100);
+        return new OkHttpClient.Builder()
+            .cache(new Cache(temp.newFolder(), 1024 * 1024))
+            .addInterceptor(hedgingInterceptor)
+            .addInterceptor(cacheInterceptor)
+            .addNetworkInterceptor(cacheInterceptor.networkInterceptor())
+            .build();
+    }
+
+    private void primeRoute(String path) {
+        int slot = histograms.slotFor(server.url(path));
+        for (int i = 0; i < HedgingInterceptor.MIN_SAMPLES; i++) {
+            histograms.record(slot, NetworkLatencyHistograms.PHASE_TTFB, TimeUnit.MILLISECONDS.toNanos(TTFB_MILLIS));
+        }
+    }
+
+    private static String get(OkHttpClient client, HttpUrl url) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.util.JsonReader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Expected values are what {@code Number(value)} returns in JS for the same input.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class JsNumberTest {
+    @Test
+    public void stringsFollowStringToNumber() {
+        assertNumber(0, "");
+        assertNumber(0, "  ");
+        assertNumber(42, " 42 ");
+        assertNumber(42, "\t\n42\r\n");
+        assertNumber(42, "\u00A042\u2028");
+        assertNumber(1, "\uFEFF1");
+        assertNumber(1.5, "+1.5");
+        assertNumber(-1.5, "-1.5");
+        assertNumber(1, "1.");
+        assertNumber(0.5, ".5");
+        assertNumber(1000, "1e3");
+        assertNumber(0.001, "1E-3");
+        assertNumber(-50, "-.5e+2");
+        assertNumber(7, "007");
+        assertNumber(1700000000000d, "1700000000000");
+        assertNumber(65.12345678901235, "65.12345678901234567");
+        assertNumber(26, "0x1A");
+        assertNumber(26, "0X1a");
+        assertNumber(15, "0o17");
+        assertNumber(5, "0b101");
+    }
+
+    @Test
+    public void malformedStringsAreNaN() {
+        String[] values = {"-0x1", "1d", "1f", "0x1p3", "NaN", "1_000", "1,5", "12abc", "e5", ".", "+", "1e"};
+        for (String value : values) {
+            assertTrue(value, Double.isNaN(JsNumber.fromString(value)));
+        }
+    }
+
+    @Test
+    public void jsonValuesAreCoercedLikeNumber() throws IOException {
+        assertEquals(0, read("null"), 0);
+        assertEquals(1, read("true"), 0);
+        assertEquals(0, read("false"), 0);
+        assertEquals(12.5, read("12.5"), 0);
+        assertEquals(-3, read("\"-3\""), 0);
+        assertEquals(0, read("[]"), 0);
+        assertEquals(5, read("[5]"), 0);
+        assertEquals(8, read("[\"8\"]"), 0);
+        assertEquals(0, read("[null]"), 0);
+        assertEquals(0, read("[[]]"), 0);
+        assertTrue(Double.isNaN(read("[1,2]")));
+        assertTrue(Double.isNaN(read("[true]")));
+        assertTrue(Double.isNaN(read("{}")));
+        assertTrue(Double.isNaN(read("{\"ts\":1}")));
+        assertTrue(Double.isInfinite(read("1e400")));
+    }
+
+    @Test
+    public void readsExactlyOneValue() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader("[[1,[2,3]],{\"a\":[]},null,\"x\",7]"));
+        reader.beginArray();
+        assertTrue(Double.isNaN(JsNumber.read(reader)));
+        assertTrue(Double.isNaN(JsNumber.read(reader)));
+        assertEquals(0, JsNumber.read(reader), 0);
+        assertTrue(Double.isNaN(JsNumber.read(reader)));
+        assertEquals(7, JsNumber.read(reader), 0);
+        assertFalse(reader.hasNext());
+        reader.endArray();
+    }
+
+    private static void assertNumber(double expected, String value) {
+        assertEquals(value, expected, JsNumber.fromString(value), 0);
+    }
+
+    private static double read(String json) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader("[" + json + "]"));
+        reader.beginArray();
+        double value = JsNumber.read(reader);
+        reader.endArray();
+        return value;
+    }
+}
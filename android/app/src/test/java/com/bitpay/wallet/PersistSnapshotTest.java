@@ -0,0 +1,185 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class PersistSnapshotTest {
+    private static final String PAYLOAD = "{\"WALLET\":\"{\\\"keys\\\":{}}\",\"RATE\":\"{\\\"rates\\\":{}}\",\"APP\":\"{}\"}";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() {
+        dir = new File(temp.getRoot(), "bitpay/redux");
+        file = new File(dir, "persist-root.snap");
+    }
+
+    @Test
+    public void payloadSurvivesAReload() throws Exception {
+        PersistSnapshot.WriteResult result = write(new PersistSnapshot(dir), PAYLOAD, null);
+
+        assertFalse(result.superseded);
+        assertEquals(PAYLOAD.length(), result.rawBytes);
+        assertEquals(file.length(), result.storedBytes);
+        assertEquals(PAYLOAD, read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void excludedKeysAreLeftOut() throws Exception {
+        write(new PersistSnapshot(dir), PAYLOAD, Collections.singletonList("RATE"));
+
+        assertEquals("{\"WALLET\":\"{\\\"keys\\\":{}}\",\"APP\":\"{}\"}", read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void nonJsonPayloadIsWrittenAsIs() throws Exception {
+        write(new PersistSnapshot(dir), "not json", Collections.singletonList("RATE"));
+
+        assertEquals("not json", read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void truncatedSnapshotReadsAsNull() throws Exception {
+        write(new PersistSnapshot(dir), PAYLOAD, null);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        for (int cut : new int[] {bytes.length - 1, bytes.length - 16, bytes.length / 2, 3}) {
+            Files.write(file.toPath(), Arrays.copyOf(bytes, cut));
+            assertNull("cut at " + cut, read(new PersistSnapshot(dir)));
+        }
+    }
+
+    @Test
+    public void flippedBodyByteReadsAsNull() throws Exception {
+        write(new PersistSnapshot(dir), PAYLOAD, null);
+        // Middle of the deflate stream, between the header and the trailer
+        flip(file, 4 + (file.length() - 20) / 2);
+
+        assertNull(read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void checksumMismatchReadsAsNull() throws Exception {
+        write(new PersistSnapshot(dir), PAYLOAD, null);
+        // Last byte of the CRC in the trailer
+        flip(file, file.length() - 5);
+
+        assertNull(read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void badTrailerMagicReadsAsNull() throws Exception {
+        write(new PersistSnapshot(dir), PAYLOAD, null);
+        flip(file, file.length() - 1);
+
+        assertNull(read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void corruptSnapshotFallsBackToBackup() throws Exception {
+        PersistSnapshot snapshot = new PersistSnapshot(dir);
+        write(snapshot, "first", null);
+        write(snapshot, "second", null);
+        assertEquals("second", read(new PersistSnapshot(dir)));
+
+        flip(file, file.length() - 5);
+
+        assertEquals("first", read(new PersistSnapshot(dir)));
+    }
+
+    @Test
+    public void backToBackWritesAreCoalesced() throws Exception {
+        PersistSnapshot snapshot = new PersistSnapshot(dir);
+        // Hold the I/O thread so the writes queue up behind it
+        CountDownLatch release = new CountDownLatch(1);
+        snapshot.readAsync(ignored -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<PersistSnapshot.WriteResult> first = writeAsync(snapshot, "first");
+        CompletableFuture<PersistSnapshot.WriteResult> second = writeAsync(snapshot, "second");
+        CompletableFuture<PersistSnapshot.WriteResult> third = writeAsync(snapshot, "third");
+
+        // Replaced writes are reported right away, before the thread is free
+        assertTrue(first.isDone() && first.get().superseded);
+        assertTrue(second.isDone() && second.get().superseded);
+        assertFalse(third.isDone());
+
+        release.countDown();
+        PersistSnapshot.WriteResult written = third.get(5, TimeUnit.SECONDS);
+        assertFalse(written.superseded);
+        assertEquals("third".length(), written.rawBytes);
+        assertEquals("third", read(snapshot));
+        // Only one write reached the disk, so there is nothing to rotate to .bak
+        assertFalse(new File(dir, "persist-root.snap.bak").exists());
+    }
+
+    private static PersistSnapshot.WriteResult write(PersistSnapshot snapshot, String payload, List<String> excludeKeys) throws Exception {
+        CompletableFuture<PersistSnapshot.WriteResult> result = new CompletableFuture<>();
+        snapshot.writeAsync(payload, excludeKeys, callback(result));
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<PersistSnapshot.WriteResult> writeAsync(PersistSnapshot snapshot, String payload) {
+        CompletableFuture<PersistSnapshot.WriteResult> result = new CompletableFuture<>();
+        snapshot.writeAsync(payload, null, callback(result));
+        return result;
+    }
+
+    private static PersistSnapshot.WriteCallback callback(CompletableFuture<PersistSnapshot.WriteResult> result) {
+        return new PersistSnapshot.WriteCallback() {
+            @Override
+            public void onWritten(PersistSnapshot.WriteResult written) {
+                result.complete(written);
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                result.completeExceptionally(e);
+            }
+        };
+    }
+
+    private static String read(PersistSnapshot snapshot) throws Exception {
+        CompletableFuture<String> payload = new CompletableFuture<>();
+        snapshot.readAsync(payload::complete);
+        return payload.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void flip(File file, long offset) throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 0x01);
+        }
+    }
+}
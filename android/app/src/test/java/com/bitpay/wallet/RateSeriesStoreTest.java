@@ -0,0 +1,238 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class RateSeriesStoreTest {
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void seriesSurviveAReload() throws Exception {
+        File dir = temp.newFolder();
+        RateSeriesStore store = new RateSeriesStore(dir);
+        long[] ts = hourly(2000);
+        double[] rates = walk(2000);
+        // Irregular spacing and non-finite rates take the long varint paths
+        long[] oddTs = {START, START + 1, START - 5, Long.MAX_VALUE / 2};
+        double[] oddRates = {-0.0, Double.NaN, Double.MAX_VALUE, Double.NEGATIVE_INFINITY};
+        store.put("USD:btc:1D", 1.5, ts, rates);
+        store.put("EUR:eth:ALL", 2.5, oddTs, oddRates);
+        store.put("GBP:ltc:1W", 3.5, new long[0], new double[0]);
+        store.awaitIdle();
+
+        RateSeriesStore reloaded = new RateSeriesStore(dir);
+        assertSeries(reloaded.get("USD:btc:1D"), 1.5, ts, rates);
+        assertSeries(reloaded.get("EUR:eth:ALL"), 2.5, oddTs, oddRates);
+        assertSeries(reloaded.get("GBP:ltc:1W"), 3.5, new long[0], new double[0]);
+        assertEquals(Integer.valueOf(2000), reloaded.sizes().get("USD:btc:1D"));
+        assertEquals(3, reloaded.sizes().size());
+    }
+
+    @Test
+    public void retainDropsOtherKeysFromTheFile() throws Exception {
+        File dir = temp.newFolder();
+        RateSeriesStore store = new RateSeriesStore(dir);
+        store.put("USD:btc:1D", 1, hourly(10), walk(10));
+        store.put("USD:eth:1D", 1, hourly(10), walk(10));
+        store.retain(Collections.singletonList("USD:eth:1D"));
+        store.awaitIdle();
+
+        RateSeriesStore reloaded = new RateSeriesStore(dir);
+        assertNull(reloaded.get("USD:btc:1D"));
+        assertNotNull(reloaded.get("USD:eth:1D"));
+    }
+
+    @Test
+    public void truncatedFileLoadsNothing() throws Exception {
+        File file = writtenStore();
+        long length = file.length();
+        for (long cut : new long[] {length - 1, length - 4, length / 2, 5, 0}) {
+            File dir = temp.newFolder();
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            Files.write(new File(dir, file.getName()).toPath(), Arrays.copyOf(bytes, (int) cut));
+            assertTrue("cut at " + cut, new RateSeriesStore(dir).sizes().isEmpty());
+        }
+    }
+
+    @Test
+    public void checksumMismatchLoadsNothing() throws Exception {
+        File file = writtenStore();
+        // A flipped byte near the end of the rate column
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long offset = file.length() - 10;
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 0x01);
+        }
+        assertTrue(new RateSeriesStore(file.getParentFile()).sizes().isEmpty());
+    }
+
+    @Test
+    public void badChecksumTrailerLoadsNothing() throws Exception {
+        File file = writtenStore();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(file.length() - 4);
+            int crc = raf.readInt();
+            raf.seek(file.length() - 4);
+            raf.writeInt(~crc);
+        }
+        assertTrue(new RateSeriesStore(file.getParentFile()).sizes().isEmpty());
+    }
+
+    @Test
+    public void foreignFileLoadsNothing() throws Exception {
+        File file = writtenStore();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(0);
+            raf.writeInt(0x12345678);
+        }
+        assertTrue(new RateSeriesStore(file.getParentFile()).sizes().isEmpty());
+    }
+
+    @Test
+    public void corruptFileIsReplacedOnTheNextWrite() throws Exception {
+        File file = writtenStore();
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+
+        RateSeriesStore store = new RateSeriesStore(file.getParentFile());
+        store.put("USD:btc:1D", 7, hourly(3), walk(3));
+        store.awaitIdle();
+
+        assertSeries(new RateSeriesStore(file.getParentFile()).get("USD:btc:1D"), 7, hourly(3), walk(3));
+    }
+
+    @Test
+    public void queryCutsTheWindowInclusively() {
+        RateSeriesStore.Series series = new RateSeriesStore.Series(1, hourly(100), walk(100));
+
+        RateSeriesStore.Series window = RateSeriesStore.query(series, START + 10 * HOUR, START + 20 * HOUR, 0);
+        assertArrayEquals(Arrays.copyOfRange(series.ts, 10, 21), window.ts);
+        assertArrayEquals(Arrays.copyOfRange(series.rates, 10, 21), window.rates, 0);
+
+        RateSeriesStore.Series between = RateSeriesStore.query(series, START + 10 * HOUR + 1, START + 11 * HOUR - 1, 0);
+        assertEquals(0, between.ts.length);
+
+        RateSeriesStore.Series all = RateSeriesStore.query(series, Long.MIN_VALUE, Long.MAX_VALUE, 500);
+        assertArrayEquals(series.ts, all.ts);
+    }
+
+    @Test
+    public void queryDownsamplesWithLttb() {
+        int len = 1000;
+        double[] rates = new double[len];
+        Arrays.fill(rates, 100);
+        rates[437] = 500;
+        rates[812] = 1;
+        RateSeriesStore.Series series = new RateSeriesStore.Series(1, hourly(len), rates);
+
+        RateSeriesStore.Series window = RateSeriesStore.query(series, Long.MIN_VALUE, Long.MAX_VALUE, 89);
+
+        assertEquals(89, window.ts.length);
+        assertEquals(series.ts[0], window.ts[0]);
+        assertEquals(series.ts[len - 1], window.ts[88]);
+        for (int i = 1; i < window.ts.length; i++) {
+            assertTrue(window.ts[i] > window.ts[i - 1]);
+        }
+        // The spikes carry the largest triangles of their buckets
+        assertTrue(contains(window.rates, 500));
+        assertTrue(contains(window.rates, 1));
+    }
+
+    @Test
+    public void lttbMatchesTheJsImplementation() {
+        // keepIndicesLTTB in utils/portfolio/rate.ts over the same 30 points keeps these indices
+        long[] ts = hourly(30);
+        double[] rates = new double[30];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = 100 + ((i * 37) % 11) * 1.5 + i;
+        }
+        RateSeriesStore.Series window = RateSeriesStore.query(new RateSeriesStore.Series(1, ts, rates), Long.MIN_VALUE, Long.MAX_VALUE, 8);
+
+        int[] expected = {0, 2, 6, 10, 17, 19, 25, 29};
+        long[] expectedTs = new long[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            expectedTs[i] = ts[expected[i]];
+        }
+        assertArrayEquals(expectedTs, window.ts);
+    }
+
+    @Test
+    public void maxRateLeavesOutTheLastPointOfTheWindow() {
+        double[] rates = {3, 9, Double.NaN, 4, 12};
+        RateSeriesStore.Series series = new RateSeriesStore.Series(1, hourly(5), rates);
+
+        assertEquals(9, RateSeriesStore.maxRateBeforeLast(series, Long.MIN_VALUE, Long.MAX_VALUE), 0);
+        assertEquals(4, RateSeriesStore.maxRateBeforeLast(series, START + 2 * HOUR, Long.MAX_VALUE), 0);
+        assertTrue(Double.isNaN(RateSeriesStore.maxRateBeforeLast(series, START + 4 * HOUR, Long.MAX_VALUE)));
+    }
+
+    private File writtenStore() throws Exception {
+        File dir = temp.newFolder();
+        RateSeriesStore store = new RateSeriesStore(dir);
+        store.put("USD:btc:1D", 1, hourly(200), walk(200));
+        store.put("USD:eth:1W", 2, hourly(50), walk(50));
+        store.awaitIdle();
+        File file = new File(dir, "fiat-rate-series.bin");
+        assertTrue(file.isFile());
+        assertEquals(2, new RateSeriesStore(dir).sizes().size());
+        return file;
+    }
+
+    private static long[] hourly(int count) {
+        long[] ts = new long[count];
+        for (int i = 0; i < count; i++) {
+            ts[i] = START + i * HOUR;
+        }
+        return ts;
+    }
+
+    private static double[] walk(int count) {
+        double[] rates = new double[count];
+        double rate = 43_210.12;
+        for (int i = 0; i < count; i++) {
+            rate += ((i * 7919) % 200 - 100) * 0.37;
+            rates[i] = rate;
+        }
+        return rates;
+    }
+
+    private static boolean contains(double[] values, double value) {
+        for (double v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertSeries(RateSeriesStore.Series actual, double fetchedOn, long[] ts, double[] rates) {
+        assertNotNull(actual);
+        assertEquals(fetchedOn, actual.fetchedOn, 0);
+        assertArrayEquals(ts, actual.ts);
+        assertEquals(rates.length, actual.rates.length);
+        for (int i = 0; i < rates.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(rates[i]), Double.doubleToRawLongBits(actual.rates[i]));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.bitpay.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResponseCacheInterceptorTest {
+    // Ages are counted in whole seconds, so an entry with a max-age of 0 is stale after this
+    private static final long STALE_AFTER_MILLIS = 1100;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private MockWebServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void freshEntryIsServedFromCache() throws Exception {
+        numberResponses();
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 60, 60, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        try (Response response = execute(client, new Request.Builder().url(url).build())) {
+            assertEquals("v1", response.body().string());
+            assertNotNull(response.cacheResponse());
+            assertNull(response.networkResponse());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void staleEntryIsServedAndRevalidatedInTheBackground() throws Exception {
+        numberResponses();
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 60, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(STALE_AFTER_MILLIS);
+
+        assertEquals("v1", get(client, url));
+        assertNotNull(server.takeRequest(1, TimeUnit.SECONDS));
+        assertNotNull("revalidation never reached the network", server.takeRequest(5, TimeUnit.SECONDS));
+
+        String refreshed = "v1";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ("v1".equals(refreshed) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            refreshed = get(client, url);
+        }
+        assertNotEquals("v1", refreshed);
+    }
+
+    @Test
+    public void staleEntryOutsideTheWindowGoesToTheNetwork() throws Exception {
+        numberResponses();
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 0, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(STALE_AFTER_MILLIS);
+
+        assertEquals("v2", get(client, url));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void staleEntryIsServedOnServerError() throws Exception {
+        server.enqueue(new MockResponse().setBody("v1"));
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("down"));
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 0, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(STALE_AFTER_MILLIS);
+
+        try (Response response = execute(client, new Request.Builder().url(url).build())) {
+            assertEquals(200, response.code());
+            assertEquals("v1", response.body().string());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void staleEntryIsServedOnNetworkFailure() throws Exception {
+        server.enqueue(new MockResponse().setBody("v1"));
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 0, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(STALE_AFTER_MILLIS);
+        server.shutdown();
+
+        assertEquals("v1", get(client, url));
+    }
+
+    @Test
+    public void serverErrorPassesThroughWithoutStaleIfError() throws Exception {
+        server.enqueue(new MockResponse().setBody("v1"));
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("down"));
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 0, 0, 0));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Thread.sleep(STALE_AFTER_MILLIS);
+
+        try (Response response = execute(client, new Request.Builder().url(url).build())) {
+            assertEquals(503, response.code());
+            assertEquals("down", response.body().string());
+        }
+    }
+
+    @Test
+    public void emptyCacheFallsThroughTheOnlyIfCached504() throws Exception {
+        server.enqueue(new MockResponse().setBody("v1"));
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 60, 60, 60));
+
+        try (Response response = execute(client, new Request.Builder().url(server.url("/rates")).build())) {
+            // OkHttp answers the cache-only probe with a synthetic 504; the caller never sees it
+            assertEquals(200, response.code());
+            assertEquals("v1", response.body().string());
+            assertNotNull(response.networkResponse());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void noCacheRequestBypassesTheCache() throws Exception {
+        numberResponses();
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 60, 60, 60));
+        HttpUrl url = server.url("/rates");
+
+        assertEquals("v1", get(client, url));
+        Request noCache = new Request.Builder().url(url).cacheControl(CacheControl.FORCE_NETWORK).build();
+        try (Response response = execute(client, noCache)) {
+            assertEquals("v2", response.body().string());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void otherRoutesAreLeftAlone() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse().setHeader("Cache-Control", "no-store").setBody("v" + requests.incrementAndGet());
+            }
+        });
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 60, 60, 60));
+        HttpUrl url = server.url("/status");
+
+        assertEquals("v1", get(client, url));
+        assertEquals("v2", get(client, url));
+    }
+
+    @Test
+    public void cacheableResponsesOnOtherRoutesAreNotStored() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse()
+                    .setHeader("Cache-Control", "public, max-age=3600")
+                    .setHeader("Last-Modified", "Mon, 01 Jan 2024 00:00:00 GMT")
+                    .setBody("v" + requests.incrementAndGet());
+            }
+        });
+        OkHttpClient client = client(new ResponseCacheInterceptor.RoutePolicy("/rates", 60, 60, 60));
+        HttpUrl url = server.url("/status");
+
+        assertEquals("v1", get(client, url));
+        try (Response response = execute(client, new Request.Builder().url(url).build())) {
+            assertEquals("v2", response.body().string());
+            assertNull(response.cacheResponse());
+        }
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.cache().writeSuccessCount());
+    }
+
+    private void numberResponses() {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse().setBody("v" + requests.incrementAndGet());
+            }
+        });
+    }
+
+    private OkHttpClient client(ResponseCacheInterceptor.RoutePolicy policy) throws IOException {
+        ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(new ResponseCacheInterceptor.RoutePolicy[] {policy});
+        return new OkHttpClient.Builder()
+            .cache(new Cache(temp.newFolder(), 1024 * 1024))
+            .addInterceptor(interceptor)
+            .addNetworkInterceptor(interceptor.networkInterceptor())
+            .build();
+    }
+
+    private static Response execute(OkHttpClient client, Request request) throws IOException {
+        return client.newCall(request).execute();
+    }
+
+    private static String get(OkHttpClient client, HttpUrl url) throws IOException {
+        try (Response response = execute(client, new Request.Builder().url(url).build())) {
+            return response.body().string();
+        }
+    }
+}
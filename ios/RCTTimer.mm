@@ -1,39 +1,44 @@
 #import "RCTTimer.h"
-#include <sys/sysctl.h>
+#include <time.h>
 
 @implementation RCTTimer
 
 /**
- * Return a relative time in seconds that can't be tampered with by the user
+ * Return a monotonic time in milliseconds (sub-millisecond precision) that can't be tampered with by the user
  */
-RCT_EXPORT_METHOD(getRelativeTime: (RCTPromiseResolveBlock)resolve rejecter:(RCTPromiseRejectBlock)reject)
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getMonotonicTime)
 {
-    resolve([NSString stringWithFormat:@"%ld", [self uptime]]);
+    return @([self monotonicMs]);
 }
 
 /**
- * Get the system up time in seconds
- *
- * Method originally from here:
- * http://stackoverflow.com/questions/12488481/getting-ios-system-uptime-that-doesnt-pause-when-asleep
+ * Return the milliseconds left until a lock that ends at untilSeconds (monotonic seconds), or 0 once it has ended
  */
-- (time_t)uptime
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getRemainingLockTime:(double)untilSeconds)
 {
-    struct timeval boottime;
-    int mib[2] = {CTL_KERN, KERN_BOOTTIME};
-    size_t size = sizeof(boottime);
-    time_t now;
-    time_t uptime = -1;
-
-    (void) time(&now);
+    return @(MAX(0, untilSeconds * 1000 - [self monotonicMs]));
+}
 
-    if (sysctl(mib, 2, &boottime, &size, NULL, 0) != -1 && boottime.tv_sec != 0) {
-        uptime = now - (boottime.tv_sec);
+/**
+ * Return when a lockout for the given attempt count ends, in monotonic seconds, or 0 if the attempts don't lock
+ */
+RCT_EXPORT_BLOCKING_SYNCHRONOUS_METHOD(getLockoutUntil:(double)attempts attemptLimit:(double)attemptLimit lockoutSeconds:(double)lockoutSeconds)
+{
+    if (attempts < attemptLimit) {
+        return @(0);
     }
+    return @([self monotonicMs] / 1000 + lockoutSeconds);
+}
 
-    return uptime;
+/**
+ * Time since boot in milliseconds. CLOCK_MONOTONIC keeps counting while the device sleeps
+ * and, unlike the wall clock, can't be changed by the user.
+ */
+- (double)monotonicMs
+{
+    return clock_gettime_nsec_np(CLOCK_MONOTONIC) / 1e6;
 }
 
 RCT_EXPORT_MODULE();
 
-@end
\ No newline at end of file
+@end
@@ -158,13 +158,22 @@ import {isNarrowHeight} from './components/styled/Containers';
 import {useOngoingProcess} from './contexts';
 import {Keys} from './store/wallet/wallet.reducer';
 import {logManager} from './managers/LogManager';
+import NetworkMetrics from './lib/network-metrics/NetworkMetrics';
+import {
+  flushWriteBehind,
+  reportWriteBehindStats,
+} from './store/storage/write-behind';
+import StartupTimeline from './lib/startup-timeline/StartupTimeline';
+import MonotonicClock from './lib/monotonic-clock/MonotonicClock';
+import SilentPushModule from './specs/NativeSilentPushModule';
+import InAppMessageModule from './specs/NativeInAppMessageModule';
 import * as Sentry from '@sentry/react-native';
 import {navigationRef} from './navigation/NavigationService';
 
 const BWC = BwcProvider.getInstance();
 const Logger = BWC.getLogger();
 
-const {Timer, SilentPushEvent, InAppMessageModule} = NativeModules;
+const {SilentPushEvent} = NativeModules;
 
 // ROOT NAVIGATION CONFIG
 export type RootStackParamList = {
@@ -251,6 +260,8 @@ export type SilentPushEventObj = {
   chain?: string;
   coin?: string;
   network?: string;
+  collapsedCount?: number; // Android only: raw pushes merged into this event
+  receivedAt?: number; // Android only: set on events persisted before JS was ready
 };
 
 export {navigationRef};
@@ -510,16 +521,15 @@ export default () => {
           dispatch(AppActions.showBlur(false));
         } else if (status === 'active' && !failedAppInit) {
           if (lockAuthorizedUntil) {
-            const timeSinceBoot = await Timer.getRelativeTime();
-            const totalSecs =
-              Number(lockAuthorizedUntil) - Number(timeSinceBoot);
-            if (totalSecs < 0) {
+            const remainingMs = MonotonicClock.getRemainingLockTime(
+              Number(lockAuthorizedUntil),
+            );
+            if (remainingMs <= 0) {
               dispatch(AppActions.lockAuthorizedUntil(undefined));
               showLockOption();
             } else {
-              const timeSinceBoot = await Timer.getRelativeTime();
               const authorizedUntil =
-                Number(timeSinceBoot) + LOCK_AUTHORIZED_TIME;
+                MonotonicClock.nowSeconds() + LOCK_AUTHORIZED_TIME;
               dispatch(AppActions.lockAuthorizedUntil(authorizedUntil));
               dispatch(AppActions.showBlur(false));
             }
@@ -562,6 +572,23 @@ export default () => {
     failedAppInit,
   ]);
 
+  // Native network latency and store write metrics, reported each time the
+  // app is backgrounded
+  useEffect(() => {
+    const subscriptionAppStateChange = AppState.addEventListener(
+      'change',
+      (status: AppStateStatus) => {
+        if (status === 'background') {
+          // iOS has no native flush trigger, so flush here for both platforms
+          flushWriteBehind('background');
+          reportWriteBehindStats();
+          NetworkMetrics.report();
+        }
+      },
+    );
+    return () => subscriptionAppStateChange.remove();
+  }, []);
+
   // Silent Push Notifications
   useEffect(() => {
     function onMessageReceived(response: SilentPushEventObj) {
@@ -572,14 +599,49 @@ export default () => {
       dispatch(handleBwsEvent(response));
     }
 
+    // Android debounces pushes natively and delivers them deduplicated, in batches
+    function onBatchReceived(batch: SilentPushEventObj[]) {
+      logManager.debug(
+        `[Root] Silent Push Notification batch (${batch?.length ?? 0})`,
+      );
+      (batch || []).forEach(onMessageReceived);
+    }
+
     const eventEmitter = new NativeEventEmitter(SilentPushEvent);
     eventEmitter.addListener('SilentPushNotification', onMessageReceived);
-    return () =>
+    eventEmitter.addListener('SilentPushNotificationBatch', onBatchReceived);
+
+    // Android persists pushes received before JS was listening; drain them in one call now
+    if (SilentPushModule) {
+      SilentPushModule.drainPendingEvents()
+        .then(events => {
+          const pending = events as SilentPushEventObj[];
+          if (pending?.length) {
+            logManager.debug(
+              `[Root] Draining ${pending.length} persisted Silent Push Notifications`,
+            );
+            onBatchReceived(pending);
+          }
+        })
+        .catch((err: unknown) => {
+          const errMsg =
+            err instanceof Error ? err.message : JSON.stringify(err);
+          logManager.error(`[Root] Silent Push drain failed: ${errMsg}`);
+        });
+    }
+    return () => {
       DeviceEventEmitter.removeAllListeners('SilentPushNotification');
+      DeviceEventEmitter.removeAllListeners('SilentPushNotificationBatch');
+    };
   }, [dispatch]);
 
   // IAM handler
   useEffect(() => {
+    function notifyAppLoaded() {
+      InAppMessageModule?.notifyReactNativeAppLoaded();
+      StartupTimeline.report();
+    }
+
     function onAppStateChange(status: AppStateStatus) {
       // App should be ready to show IAM (after PIN or Biometric)
       if (status === 'active') {
@@ -589,7 +651,7 @@ export default () => {
               DeviceEmitterEvents.APP_LOCK_MODAL_DISMISSED,
               async () => {
                 _subscriptionToPinModalDismissed.remove();
-                InAppMessageModule.notifyReactNativeAppLoaded();
+                notifyAppLoaded();
               },
             );
         } else if (!onboardingCompleted) {
@@ -598,14 +660,14 @@ export default () => {
               DeviceEmitterEvents.APP_ONBOARDING_COMPLETED,
               async () => {
                 _subscriptionToOnboardingCompleted.remove();
-                InAppMessageModule.notifyReactNativeAppLoaded();
+                notifyAppLoaded();
               },
             );
         } else {
-          InAppMessageModule.notifyReactNativeAppLoaded();
+          notifyAppLoaded();
         }
       } else {
-        InAppMessageModule.notifyReactNativeAppPaused();
+        InAppMessageModule?.notifyReactNativeAppPaused();
       }
     }
 
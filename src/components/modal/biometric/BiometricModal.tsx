@@ -15,12 +15,13 @@ import ReactNativeBiometrics, {BiometryTypes} from 'react-native-biometrics';
 import styled from 'styled-components/native';
 import {BaseText} from '../../styled/Text';
 import BitpaySvg from '../../../../assets/img/wallet/transactions/bitpay.svg';
-import {Animated, NativeModules, DeviceEventEmitter, View} from 'react-native';
+import {Animated, DeviceEventEmitter, View} from 'react-native';
 import {TouchableOpacity} from '@components/base/TouchableOpacity';
 import {LOCK_AUTHORIZED_TIME} from '../../../constants/Lock';
 import {useTranslation} from 'react-i18next';
 import {DeviceEmitterEvents} from '../../../constants/device-emitter-events';
 import {useLogger} from '../../../utils/hooks';
+import MonotonicClock from '../../../lib/monotonic-clock/MonotonicClock';
 
 const BiometricContainer = styled.View`
   flex: 1;
@@ -135,8 +136,8 @@ const BiometricModal: React.FC = React.memo(() => {
       });
       if (success) {
         logger.debug('successful biometrics provided');
-        const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-        const authorizedUntil = Number(timeSinceBoot) + LOCK_AUTHORIZED_TIME;
+        const authorizedUntil =
+          MonotonicClock.nowSeconds() + LOCK_AUTHORIZED_TIME;
         dispatch(AppActions.lockAuthorizedUntil(authorizedUntil));
         dispatch(AppActions.dismissBiometricModal());
         dispatch(AppActions.showBlur(false));
@@ -3,7 +3,7 @@ import isEqual from 'lodash.isequal';
 import React, {useState, useEffect, useCallback, useRef, useMemo} from 'react';
 import {shallowEqual} from 'react-redux';
 import {useTranslation} from 'react-i18next';
-import {Animated, DeviceEventEmitter, View, NativeModules} from 'react-native';
+import {Animated, DeviceEventEmitter, View} from 'react-native';
 import {TouchableOpacity} from '@components/base/TouchableOpacity';
 import {gestureHandlerRootHOC} from 'react-native-gesture-handler';
 import styled from 'styled-components/native';
@@ -22,6 +22,10 @@ import {H5, H7} from '../../styled/Text';
 import SheetModal from '../base/sheet/SheetModal';
 import PinDots from './PinDots';
 import {verifyAndMigratePin, createPin, PIN_CONFIG} from '../../../utils/pin';
+import MonotonicClock from '../../../lib/monotonic-clock/MonotonicClock';
+
+// Lockout countdown refresh; short enough that each second shows on time
+const COUNTDOWN_TICK_MS = 250;
 
 export interface PinModalConfig {
   type: 'set' | 'check';
@@ -143,8 +147,8 @@ const Pin = gestureHandlerRootHOC(
           }
 
           dispatch(AppActions.showBlur(false));
-          const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-          const authorizedUntil = Number(timeSinceBoot) + LOCK_AUTHORIZED_TIME;
+          const authorizedUntil =
+            MonotonicClock.nowSeconds() + LOCK_AUTHORIZED_TIME;
           dispatch(AppActions.lockAuthorizedUntil(authorizedUntil));
           dispatch(AppActions.dismissPinModal()); // Correct PIN dismiss modal
           reset();
@@ -186,9 +190,8 @@ const Pin = gestureHandlerRootHOC(
             dispatch(AppActions.currentPin(hashedPin));
             dispatch(AppActions.currentSalt(salt));
             dispatch(AppActions.showBlur(false));
-            const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
             const authorizedUntil =
-              Number(timeSinceBoot) + LOCK_AUTHORIZED_TIME;
+              MonotonicClock.nowSeconds() + LOCK_AUTHORIZED_TIME;
             dispatch(AppActions.lockAuthorizedUntil(authorizedUntil));
 
             if (context === 'onboarding') {
@@ -277,18 +280,21 @@ const Pin = gestureHandlerRootHOC(
     }, [pinStatus]);
 
     const setCountDown = useCallback(
-      (bannedUntil: number, timeSinceBoot: number, count: number = 0) => {
-        const intervalId = setInterval(() => {
-          count = count + 1;
-          const totalSecs = bannedUntil - timeSinceBoot - count;
-
-          if (totalSecs < 0) {
+      (bannedUntil: number) => {
+        // Recomputed from the clock on every tick, so the countdown never
+        // drifts and updates as soon as a second boundary passes
+        let intervalId: ReturnType<typeof setInterval> | undefined;
+        const tick = () => {
+          const remainingMs = MonotonicClock.getRemainingLockTime(bannedUntil);
+
+          if (remainingMs <= 0) {
             dispatch(AppActions.pinBannedUntil(undefined));
             clearInterval(intervalId);
             reset();
             return;
           }
 
+          const totalSecs = Math.ceil(remainingMs / 1000);
           const m = Math.floor(totalSecs / 60);
           const s = totalSecs % 60;
           setMessage(
@@ -296,62 +302,57 @@ const Pin = gestureHandlerRootHOC(
               time: ('0' + m).slice(-2) + ':' + ('0' + s).slice(-2),
             }),
           );
-        }, 1000);
+        };
+        intervalId = setInterval(tick, COUNTDOWN_TICK_MS);
+        tick();
         return intervalId;
       },
       [dispatch, reset, t],
     );
 
     useEffect(() => {
-      const checkAttempts = async () => {
-        try {
-          if (attempts === PIN_CONFIG.ATTEMPT_LIMIT) {
-            setAttempts(0);
-            const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-            const bannedUntil =
-              Number(timeSinceBoot) + PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME;
-            dispatch(AppActions.pinBannedUntil(bannedUntil));
-            const timer = setCountDown(bannedUntil, Number(timeSinceBoot));
-            return () => {
-              clearInterval(timer);
-            };
-          }
-        } catch (err) {
-          const errStr =
-            err instanceof Error ? err.message : JSON.stringify(err);
-          logger.error(`checkAttempts error: ${errStr}`);
+      try {
+        const bannedUntil = MonotonicClock.getLockoutUntil(
+          attempts,
+          PIN_CONFIG.ATTEMPT_LIMIT,
+          PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME,
+        );
+        if (bannedUntil) {
+          setAttempts(0);
+          dispatch(AppActions.pinBannedUntil(bannedUntil));
         }
-      };
-      checkAttempts();
+      } catch (err) {
+        const errStr = err instanceof Error ? err.message : JSON.stringify(err);
+        logger.error(`checkAttempts error: ${errStr}`);
+      }
     }, [dispatch, attempts]);
 
     useEffect(() => {
-      const checkIfBanned = async () => {
-        try {
-          const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-          if (pinBannedUntil && Number(timeSinceBoot) < pinBannedUntil) {
-            const totalSecsToRelease = pinBannedUntil - Number(timeSinceBoot);
-            // workaround for inconsistencies between the stored timeSinceBoot with the timeSinceBoot that results after the system been hibernated or suspended
-            if (totalSecsToRelease > PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME) {
-              const bannedUntil =
-                Number(timeSinceBoot) + PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME;
-              dispatch(AppActions.pinBannedUntil(bannedUntil));
-              return;
-            }
-            const timer = setCountDown(pinBannedUntil, Number(timeSinceBoot));
-            return () => {
-              clearInterval(timer);
-            };
-          } else if (pinBannedUntil) {
-            dispatch(AppActions.pinBannedUntil(undefined));
+      try {
+        if (!pinBannedUntil) {
+          return;
+        }
+        const remainingMs =
+          MonotonicClock.getRemainingLockTime(pinBannedUntil);
+        if (remainingMs > 0) {
+          // workaround for inconsistencies between the stored timeSinceBoot with the timeSinceBoot that results after the system been hibernated or suspended
+          if (remainingMs > PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME * 1000) {
+            const bannedUntil =
+              MonotonicClock.nowSeconds() + PIN_CONFIG.ATTEMPT_LOCK_OUT_TIME;
+            dispatch(AppActions.pinBannedUntil(bannedUntil));
+            return;
           }
-        } catch (err) {
-          const errStr =
-            err instanceof Error ? err.message : JSON.stringify(err);
-          logger.error(`checkIfBanned error: ${errStr}`);
+          const timer = setCountDown(pinBannedUntil);
+          return () => {
+            clearInterval(timer);
+          };
+        } else {
+          dispatch(AppActions.pinBannedUntil(undefined));
         }
-      };
-      checkIfBanned();
+      } catch (err) {
+        const errStr = err instanceof Error ? err.message : JSON.stringify(err);
+        logger.error(`checkIfBanned error: ${errStr}`);
+      }
     }, [dispatch, pinBannedUntil, setCountDown, logger]);
 
     const handleBackPress = useCallback(() => {
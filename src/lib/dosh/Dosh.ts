@@ -1,7 +1,8 @@
 import {DOSH_APP_ID} from '@env';
-import ReactNative, {DeviceEventEmitter, Platform} from 'react-native';
+import {DeviceEventEmitter, Platform} from 'react-native';
 import {DeviceEmitterEvents} from '../../constants/device-emitter-events';
 import DoshUiOptions from './DoshUiOptions';
+import NativeDosh from '../../specs/NativeDosh';
 
 /**
  * NativeModule bridge to access the iOS or Android SDK methods.
@@ -46,7 +47,7 @@ interface Dosh extends Omit<DoshModule, 'initializeDosh'> {
   ) => ReturnType<DoshModule['initializeDosh']>;
 }
 
-const DoshModule = ReactNative.NativeModules.Dosh as DoshModule;
+const DoshModule = NativeDosh as DoshModule;
 
 const Dosh: Dosh = (() => {
   let wasInit = false;
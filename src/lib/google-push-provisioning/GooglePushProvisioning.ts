@@ -1,5 +1,5 @@
-import ReactNative from 'react-native';
 import {NativeEventEmitter} from 'react-native';
+import NativeGooglePushProvisioning from '../../specs/NativeGooglePushProvisioning';
 
 const NO_OP = () => null;
 
@@ -7,12 +7,14 @@ interface GooglePushProvisioningModule {
   startPushProvision: any;
 }
 
-const module = ReactNative.NativeModules?.GooglePushProvisioning || {
+const module = NativeGooglePushProvisioning || {
   addListener: NO_OP,
   removeListeners: NO_OP,
 };
 const GooglePushProvisioning = module as GooglePushProvisioningModule;
-const eventEmitter = new NativeEventEmitter(module);
+const eventEmitter = new NativeEventEmitter(
+  NativeGooglePushProvisioning ?? undefined,
+);
 
 const startPushProvision = (
   opc: string,
@@ -0,0 +1,53 @@
+import NativeTimer from '../../specs/NativeTimer';
+
+/**
+ * NativeModule bridge to the native monotonic clock (Timer). All methods are
+ * synchronous. Times are measured since boot and can't be changed by the user;
+ * lock deadlines are stored in seconds on this clock.
+ *
+ * Without the native module (e.g. under jest) the clock falls back to
+ * Date.now(). performance.now() would restart at every launch, while lock
+ * deadlines are persisted across launches.
+ */
+const isAvailable = (): boolean => !!NativeTimer;
+
+/** Milliseconds since boot, with sub-millisecond precision. */
+const nowMs = (): number =>
+  NativeTimer ? NativeTimer.getMonotonicTime() : Date.now();
+
+/** Seconds since boot; the unit lock deadlines are stored in. */
+const nowSeconds = (): number => nowMs() / 1000;
+
+/** Milliseconds until the lock ending at untilSeconds is over, 0 once it is. */
+const getRemainingLockTime = (untilSeconds: number): number =>
+  NativeTimer
+    ? NativeTimer.getRemainingLockTime(untilSeconds)
+    : Math.max(0, untilSeconds * 1000 - nowMs());
+
+/**
+ * When a lockout for the given number of failed attempts ends, in seconds, or
+ * undefined when the attempts are below the limit.
+ */
+const getLockoutUntil = (
+  attempts: number,
+  attemptLimit: number,
+  lockoutSeconds: number,
+): number | undefined => {
+  if (!NativeTimer) {
+    return attempts < attemptLimit ? undefined : nowSeconds() + lockoutSeconds;
+  }
+  const until = NativeTimer.getLockoutUntil(
+    attempts,
+    attemptLimit,
+    lockoutSeconds,
+  );
+  return until > 0 ? until : undefined;
+};
+
+export default {
+  isAvailable,
+  nowMs,
+  nowSeconds,
+  getRemainingLockTime,
+  getLockoutUntil,
+};
@@ -0,0 +1,163 @@
+import * as Sentry from '@sentry/react-native';
+import {logManager} from '../../managers/LogManager';
+import NativeNetworkMetrics from '../../specs/NativeNetworkMetrics';
+
+export type NetworkPhase =
+  | 'dns'
+  | 'connect'
+  | 'tls'
+  | 'request'
+  | 'ttfb'
+  | 'body'
+  | 'total';
+
+export interface NetworkPhaseStats {
+  count: number;
+  mean: number;
+  p50: number;
+  p95: number;
+  p99: number;
+}
+
+export type ContentEncoding = 'identity' | 'gzip' | 'br';
+
+/**
+ * Response bodies received with one content encoding. Bodies served from the
+ * HTTP cache are not counted.
+ */
+export interface NetworkTransferStats {
+  responses: number;
+  wireBytes: number;
+  decodedBytes: number;
+  decodeMs: number;
+}
+
+export type NetworkRouteStats = {
+  host: string;
+  route: string;
+  failures: number;
+  transfer?: Partial<Record<ContentEncoding, NetworkTransferStats>>;
+} & Partial<Record<NetworkPhase, NetworkPhaseStats>>;
+
+/**
+ * Time between a native module call being queued and starting to run on its
+ * declared thread.
+ */
+export type NativeModuleQueueStats = {
+  method: string;
+  thread: 'ui' | 'background' | 'inline';
+  max: number;
+} & NetworkPhaseStats;
+
+export interface NetworkMetricsSnapshot {
+  routes: NetworkRouteStats[];
+  counters: {
+    upstreamRequests: number;
+    coalescedRequests: number;
+    hedgedRequests: number;
+    hedgeWins: number;
+  };
+  nativeModules?: NativeModuleQueueStats[];
+}
+
+/**
+ * Native HTTP stack latency histograms, transfer sizes and native module queue
+ * latency (Android only; getSnapshot resolves undefined elsewhere). All
+ * durations are in milliseconds.
+ */
+const getSnapshot = async (): Promise<NetworkMetricsSnapshot | undefined> =>
+  (await NativeNetworkMetrics?.getSnapshot()) as
+    | NetworkMetricsSnapshot
+    | undefined;
+
+const reset = () => {
+  NativeNetworkMetrics?.reset();
+};
+
+const formatPhase = (phase: NetworkPhase, stats?: NetworkPhaseStats) =>
+  stats
+    ? `${phase} p50=${stats.p50.toFixed(1)} p95=${stats.p95.toFixed(
+        1,
+      )} p99=${stats.p99.toFixed(1)}`
+    : undefined;
+
+const formatTransfer = (
+  encoding: string,
+  stats?: NetworkTransferStats,
+): string | undefined =>
+  stats
+    ? `${encoding} ${stats.responses}x wire=${stats.wireBytes} decoded=${
+        stats.decodedBytes
+      } decodeMs=${stats.decodeMs.toFixed(1)}`
+    : undefined;
+
+/**
+ * Reports the latency collected since the last report to the logs and to Sentry, then resets
+ * the native histograms.
+ */
+const report = async () => {
+  try {
+    const snapshot = await getSnapshot();
+    if (
+      !snapshot ||
+      (!snapshot.routes?.length && !snapshot.nativeModules?.length)
+    ) {
+      return;
+    }
+
+    if (snapshot.nativeModules?.length) {
+      const queues: Record<string, NativeModuleQueueStats> = {};
+      snapshot.nativeModules.forEach(stats => {
+        queues[stats.method] = stats;
+        logManager.debug(
+          `[NetworkMetrics] ${stats.method} (${stats.thread}, ${
+            stats.count
+          } calls): queue p95=${stats.p95.toFixed(1)} max=${stats.max.toFixed(
+            1,
+          )}`,
+        );
+      });
+      Sentry.setContext('native_module_queue', queues);
+    }
+
+    const context: Record<string, NetworkRouteStats> = {};
+    snapshot.routes.forEach(route => {
+      const name = `${route.host}${route.route}`;
+      context[name] = route;
+      const phases = (['dns', 'tls', 'ttfb', 'total'] as NetworkPhase[])
+        .map(phase => formatPhase(phase, route[phase]))
+        .filter(Boolean)
+        .join(', ');
+      logManager.debug(
+        `[NetworkMetrics] ${name} (${route.total?.count ?? 0} calls, ${
+          route.failures
+        } failed): ${phases}`,
+      );
+      const transfer = Object.entries(route.transfer || {})
+        .map(([encoding, stats]) => formatTransfer(encoding, stats))
+        .filter(Boolean)
+        .join(', ');
+      if (transfer) {
+        logManager.debug(`[NetworkMetrics] ${name} transfer: ${transfer}`);
+      }
+    });
+    logManager.debug(
+      `[NetworkMetrics] upstream=${snapshot.counters.upstreamRequests} coalesced=${snapshot.counters.coalescedRequests} hedged=${snapshot.counters.hedgedRequests} hedgeWins=${snapshot.counters.hedgeWins}`,
+    );
+
+    Sentry.setContext('network_latency', {
+      ...context,
+      counters: snapshot.counters,
+    });
+    reset();
+  } catch (err) {
+    const errMsg = err instanceof Error ? err.message : JSON.stringify(err);
+    logManager.error(`[NetworkMetrics] report failed: ${errMsg}`);
+  }
+};
+
+export default {
+  getSnapshot,
+  reset,
+  report,
+};
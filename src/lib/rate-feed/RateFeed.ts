@@ -0,0 +1,43 @@
+import NativeRateFeed from '../../specs/NativeRateFeed';
+import type {FiatRatePoint, Rates} from '../../store/rate/rate.models';
+
+/**
+ * Native fetch-and-decode for the BWS fiat rate endpoints (Android only;
+ * isAvailable is false elsewhere). The body is parsed off the JS thread and
+ * only the fields the rate store keeps cross over to JS.
+ */
+type RateSeriesColumns = {ts: number[]; rates: number[]};
+
+const isAvailable = (): boolean => !!NativeRateFeed;
+
+const fetchRates = async (url: string): Promise<Rates> =>
+  (await NativeRateFeed!.fetchRates(url)) as Rates;
+
+/**
+ * Points by coin, sorted by ts with duplicates and non-finite values removed.
+ * A bare array response is keyed by arrayKey, or dropped without one.
+ */
+const fetchRateSeries = async (
+  url: string,
+  arrayKey?: string,
+): Promise<Record<string, FiatRatePoint[]>> => {
+  const columnsByCoin = (await NativeRateFeed!.fetchRateSeries(
+    url,
+    arrayKey || '',
+  )) as Record<string, RateSeriesColumns>;
+  const out: Record<string, FiatRatePoint[]> = {};
+  for (const [coin, {ts, rates}] of Object.entries(columnsByCoin)) {
+    const points = new Array<FiatRatePoint>(ts.length);
+    for (let i = 0; i < ts.length; i++) {
+      points[i] = {ts: ts[i], rate: rates[i]};
+    }
+    out[coin] = points;
+  }
+  return out;
+};
+
+export default {
+  isAvailable,
+  fetchRates,
+  fetchRateSeries,
+};
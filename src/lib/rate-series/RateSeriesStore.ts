@@ -0,0 +1,140 @@
+import NativeRateSeriesStore, {
+  RateSeriesColumns,
+  RateSeriesRange,
+} from '../../specs/NativeRateSeriesStore';
+import type {
+  FiatRatePoint,
+  FiatRateSeries,
+} from '../../store/rate/rate.models';
+
+/**
+ * Fiat rate series kept natively as packed columns, outside persist:root
+ * (Android only; isAvailable is false elsewhere). All methods are synchronous.
+ */
+const isAvailable = (): boolean => !!NativeRateSeriesStore;
+
+// Series objects whose points match what the native store holds for their key,
+// either handed to it by the persist transform or restored from it
+const storedSeries = new WeakMap<FiatRateSeries, string>();
+// Point counts of restored series whose points have not been read yet
+const pendingSizes = new WeakMap<FiatRateSeries, number>();
+
+const put = (key: string, fetchedOn: number, points: FiatRatePoint[]) => {
+  const ts = new Array<number>(points.length);
+  const rates = new Array<number>(points.length);
+  for (let i = 0; i < points.length; i++) {
+    ts[i] = points[i].ts;
+    rates[i] = points[i].rate;
+  }
+  NativeRateSeriesStore?.put(key, fetchedOn, ts, rates);
+};
+
+/** Stored series by key; keys without one are left out. */
+const getMany = (keys: string[]): {[key: string]: RateSeriesColumns} => {
+  if (!NativeRateSeriesStore || !keys.length) {
+    return {};
+  }
+  return NativeRateSeriesStore.getMany(keys) as {
+    [key: string]: RateSeriesColumns;
+  };
+};
+
+/** Point count of every stored series, by key. */
+const getSizes = (): {[key: string]: number} => {
+  if (!NativeRateSeriesStore) {
+    return {};
+  }
+  return NativeRateSeriesStore.getSizes() as {[key: string]: number};
+};
+
+/**
+ * Points of the stored series with fromTs <= ts <= toTs, cut down natively
+ * with LTTB to at most maxPoints. Undefined when the key is not stored.
+ */
+const getRange = (
+  key: string,
+  fromTs: number,
+  toTs: number,
+  maxPoints: number,
+): RateSeriesRange | undefined => {
+  if (!NativeRateSeriesStore) {
+    return undefined;
+  }
+  const range = NativeRateSeriesStore.getRange(key, fromTs, toTs, maxPoints);
+  return (range as RateSeriesRange | null) ?? undefined;
+};
+
+/** Drops every stored series whose key is not in keys. */
+const retain = (keys: string[]) => NativeRateSeriesStore?.retain(keys);
+
+// Read straight from the bridged arrays; no intermediate copy
+const toPoints = (columns: RateSeriesColumns): FiatRatePoint[] => {
+  const length = Math.min(columns.ts.length, columns.rates.length);
+  const points = new Array<FiatRatePoint>(length);
+  for (let i = 0; i < length; i++) {
+    points[i] = {ts: columns.ts[i], rate: columns.rates[i]};
+  }
+  return points;
+};
+
+const markStored = (key: string, series: FiatRateSeries) => {
+  storedSeries.set(series, key);
+};
+
+/** Key of the stored copy of series, if the native store has its points. */
+const getStoredKey = (series: FiatRateSeries | undefined) =>
+  series ? storedSeries.get(series) : undefined;
+
+/**
+ * A series backed by the stored one. Its points are only built, once, when
+ * something reads them, so rehydrate allocates nothing per point and series
+ * that are only charted through getRange are never copied into JS.
+ */
+const restore = (
+  key: string,
+  fetchedOn: number,
+  size: number,
+): FiatRateSeries => {
+  let points: FiatRatePoint[] | undefined;
+  const series = {fetchedOn} as FiatRateSeries;
+  Object.defineProperty(series, 'points', {
+    enumerable: true,
+    get: () => {
+      if (!points) {
+        const columns = getMany([key])[key];
+        points = columns ? toPoints(columns) : [];
+        pendingSizes.delete(series);
+      }
+      return points;
+    },
+  });
+  pendingSizes.set(series, size);
+  markStored(key, series);
+  return series;
+};
+
+/** Number of points of series, without building them if they are pending. */
+const getSize = (series: FiatRateSeries | undefined): number => {
+  if (!series) {
+    return 0;
+  }
+  const pending = pendingSizes.get(series);
+  if (pending !== undefined) {
+    return pending;
+  }
+  return Array.isArray(series.points) ? series.points.length : 0;
+};
+
+export default {
+  isAvailable,
+  put,
+  getMany,
+  getSizes,
+  getRange,
+  retain,
+  toPoints,
+  markStored,
+  getStoredKey,
+  restore,
+  getSize,
+};
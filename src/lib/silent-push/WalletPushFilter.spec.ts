@@ -0,0 +1,102 @@
+import crypto from 'crypto';
+import {getPushWalletIdHashes} from './WalletPushFilter';
+import {Key} from '../../store/wallet/wallet.models';
+
+const sha256 = (value: string) =>
+  crypto.createHash('sha256').update(value).digest('hex');
+
+const makeKeys = (walletIdsByKey: Record<string, string[]>) =>
+  Object.fromEntries(
+    Object.entries(walletIdsByKey).map(([keyId, walletIds]) => [
+      keyId,
+      {
+        id: keyId,
+        wallets: walletIds.map(walletId => ({credentials: {walletId}})),
+      } as unknown as Key,
+    ]),
+  );
+
+describe('getPushWalletIdHashes', () => {
+  it('returns an empty set when there are no keys', () => {
+    expect(getPushWalletIdHashes({})).toEqual([]);
+  });
+
+  it('includes the full and token-stripped hash of each wallet id', () => {
+    const parentId = 'wallet-1';
+    const tokenWalletId = `${parentId}-0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48`;
+    const hashes = getPushWalletIdHashes(
+      makeKeys({key1: [parentId, tokenWalletId]}),
+    );
+    expect(hashes).toContain(sha256(parentId));
+    expect(hashes).toContain(sha256(tokenWalletId));
+  });
+
+  it('is sorted and free of duplicates', () => {
+    const hashes = getPushWalletIdHashes(
+      makeKeys({key1: ['a-1', 'a-2'], key2: ['a-1']}),
+    );
+    expect(new Set(hashes).size).toBe(hashes.length);
+    expect([...hashes].sort()).toEqual(hashes);
+  });
+
+  it('drops the hashes of a deleted key on rebuild', () => {
+    const before = getPushWalletIdHashes(
+      makeKeys({key1: ['wallet-a'], key2: ['wallet-b']}),
+    );
+    const after = getPushWalletIdHashes(makeKeys({key1: ['wallet-a']}));
+    expect(before).toContain(sha256('wallet-b'));
+    expect(after).not.toContain(sha256('wallet-b'));
+    expect(after).toContain(sha256('wallet-a'));
+  });
+
+  it('skips wallets without credentials', () => {
+    const keys = {
+      key1: {
+        id: 'key1',
+        wallets: [{credentials: {}}, {}],
+      } as unknown as Key,
+    };
+    expect(getPushWalletIdHashes(keys)).toEqual([]);
+  });
+});
+
+describe('native filter false-positive rate', () => {
+  // WalletPushFilter.java keeps the first 64 bits of every hash
+  const prefix = (hash: string) => hash.slice(0, 16);
+
+  // BWS wallet ids are UUIDs, so each also contributes its hyphen-stripped hash
+  const walletId = (seed: string) => {
+    const hex = sha256(seed);
+    return [
+      hex.slice(0, 8),
+      hex.slice(8, 12),
+      hex.slice(12, 16),
+      hex.slice(16, 20),
+      hex.slice(20, 32),
+    ].join('-');
+  };
+
+  it('stays within n / 2^64 on unrelated wallet ids', () => {
+    const members = 5000;
+    const probes = 100000;
+    const hashes = getPushWalletIdHashes(
+      makeKeys({
+        key1: Array.from({length: members}, (_, i) => walletId(`member-${i}`)),
+      }),
+    );
+    const filter = new Set(hashes.map(prefix));
+    // Every member hash keeps a distinct prefix, two per UUID
+    expect(filter.size).toBe(hashes.length);
+    expect(hashes.length).toBeGreaterThan(members);
+
+    let falsePositives = 0;
+    for (let i = 0; i < probes; i++) {
+      if (filter.has(prefix(sha256(walletId(`unrelated-${i}`))))) {
+        falsePositives++;
+      }
+    }
+
+    const bound = filter.size / 2 ** 64;
+    expect(falsePositives / probes).toBeLessThanOrEqual(bound);
+  });
+});
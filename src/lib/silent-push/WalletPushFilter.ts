@@ -0,0 +1,70 @@
+import crypto from 'crypto';
+import {Key} from '../../store/wallet/wallet.models';
+import {logManager} from '../../managers/LogManager';
+import SilentPushModule from '../../specs/NativeSilentPushModule';
+
+const sha256 = (value: string) =>
+  crypto.createHash('sha256').update(value).digest('hex');
+
+const getWalletIds = (keys: {[key in string]: Key}): string[] => {
+  const walletIds: string[] = [];
+  Object.values(keys || {}).forEach(key => {
+    (key?.wallets || []).forEach(wallet => {
+      const walletId = wallet?.credentials?.walletId;
+      if (walletId) {
+        walletIds.push(walletId);
+      }
+    });
+  });
+  return walletIds.sort();
+};
+
+const hashWalletIds = (walletIds: string[]): string[] => {
+  const hashes = new Set<string>();
+  walletIds.forEach(walletId => {
+    hashes.add(sha256(walletId));
+    const lastHyphenPosition = walletId.lastIndexOf('-');
+    if (lastHyphenPosition > 0) {
+      hashes.add(sha256(walletId.substring(0, lastHyphenPosition)));
+    }
+  });
+  return Array.from(hashes).sort();
+};
+
+/**
+ * Every hashed wallet id a BWS push for one of these keys can carry.
+ * Mirrors findWalletByIdHashed: token and multisig pushes hash the wallet id
+ * without its trailing "-<address>" segment, all others hash the full id.
+ */
+export const getPushWalletIdHashes = (keys: {
+  [key in string]: Key;
+}): string[] => hashWalletIds(getWalletIds(keys));
+
+let lastSignature: string | undefined;
+
+/**
+ * Replaces the native filter Android uses to drop silent pushes for wallets
+ * this device no longer tracks. Called after every wallet action, so it
+ * returns before hashing anything when the set of wallet ids is unchanged.
+ */
+const update = (keys: {[key in string]: Key}) => {
+  if (!SilentPushModule?.setWalletFilter) {
+    return;
+  }
+  try {
+    const walletIds = getWalletIds(keys);
+    const signature = walletIds.join(',');
+    if (signature === lastSignature) {
+      return;
+    }
+    lastSignature = signature;
+    SilentPushModule.setWalletFilter(hashWalletIds(walletIds));
+  } catch (err) {
+    const errMsg = err instanceof Error ? err.message : JSON.stringify(err);
+    logManager.error(`[WalletPushFilter] update failed: ${errMsg}`);
+  }
+};
+
+export default {
+  update,
+};
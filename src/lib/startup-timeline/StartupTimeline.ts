@@ -0,0 +1,93 @@
+import * as Sentry from '@sentry/react-native';
+import {APP_ANALYTICS_ENABLED} from '../../constants/config';
+import {MixpanelWrapper} from '../Mixpanel';
+import {logManager} from '../../managers/LogManager';
+import NativeStartupTimeline from '../../specs/NativeStartupTimeline';
+
+export type StartupMarker =
+  | 'launchActivityCreate'
+  | 'appCreateStart'
+  | 'appCreateEnd'
+  | 'bundleVerifyStart'
+  | 'bundleVerifyEnd'
+  | 'reactHostCreated'
+  | 'bootSplashInit'
+  | 'firstFrame'
+  | 'jsAppLoaded';
+
+export interface StartupLaunch {
+  type: 'cold' | 'warm';
+  startedAt: number;
+  markers: Partial<Record<StartupMarker, number>>;
+  tasks?: Record<string, number>;
+}
+
+export interface StartupTimelineSnapshot {
+  deviceClass: 'low' | 'mid' | 'high';
+  current: StartupLaunch;
+  history: StartupLaunch[];
+}
+
+let lastReportedLaunch: number | undefined;
+
+/**
+ * The native launch timeline (Android only; resolves undefined elsewhere).
+ * Marker offsets and task durations are in milliseconds from the launch origin:
+ * process start for cold launches, activity creation for warm ones.
+ */
+const getTimeline = async (): Promise<StartupTimelineSnapshot | undefined> =>
+  (await NativeStartupTimeline?.getTimeline()) as
+    | StartupTimelineSnapshot
+    | undefined;
+
+/**
+ * Reports the current launch to the logs, Sentry and Mixpanel, once per launch.
+ * Call after InAppMessageModule.notifyReactNativeAppLoaded so the launch is complete.
+ */
+const report = async () => {
+  try {
+    const timeline = await getTimeline();
+    const launch = timeline?.current;
+    if (
+      !timeline ||
+      !launch?.markers.jsAppLoaded ||
+      launch.startedAt === lastReportedLaunch
+    ) {
+      return;
+    }
+    lastReportedLaunch = launch.startedAt;
+
+    const {markers} = launch;
+    const properties = {
+      launchType: launch.type,
+      deviceClass: timeline.deviceClass,
+      ...markers,
+      ...Object.fromEntries(
+        Object.entries(launch.tasks || {}).map(([name, ms]) => [
+          `task_${name}`,
+          ms,
+        ]),
+      ),
+    };
+
+    logManager.debug(
+      `[StartupTimeline] ${launch.type} launch (${
+        timeline.deviceClass
+      }): firstFrame=${markers.firstFrame?.toFixed(
+        0,
+      )}ms jsAppLoaded=${markers.jsAppLoaded.toFixed(0)}ms`,
+    );
+    Sentry.setContext('startup_timeline', properties);
+    if (APP_ANALYTICS_ENABLED) {
+      MixpanelWrapper.track('BitPay App - Startup Timeline', properties);
+    }
+  } catch (err) {
+    const errMsg = err instanceof Error ? err.message : JSON.stringify(err);
+    logManager.error(`[StartupTimeline] report failed: ${errMsg}`);
+  }
+};
+
+export default {
+  getTimeline,
+  report,
+};
@@ -21,6 +21,7 @@ import {
 } from '../../../../../store/app/app.actions';
 import {sleep} from '../../../../../utils/helper-methods';
 import RNRestart from 'react-native-restart';
+import {flushWriteBehind} from '../../../../../store/storage/write-behind';
 import {Analytics} from '../../../../../store/analytics/analytics.effects';
 import {SettingsDetailsParamList} from '../../SettingsDetails';
 import {logManager} from '../../../../../managers/LogManager';
@@ -59,6 +60,8 @@ const ThemeSettings: React.FC<Props> = ({navigation}) => {
               action: async () => {
                 dispatch(networkChanged(changeNetwork));
                 await sleep(200);
+                // A JS reload skips onPause, so nothing else would flush it
+                flushWriteBehind('immediate');
                 RNRestart.restart();
               },
             },
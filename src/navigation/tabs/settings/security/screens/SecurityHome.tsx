@@ -6,7 +6,7 @@ import {
 } from '@components/styled/Containers';
 import Button from '@components/button/Button';
 import SheetModal from '@components/modal/base/sheet/SheetModal';
-import {Platform, NativeModules} from 'react-native';
+import {Platform} from 'react-native';
 import React, {useState} from 'react';
 import {useDispatch, useSelector} from 'react-redux';
 import {useThemeType} from '../../../../../utils/hooks/useThemeType';
@@ -45,6 +45,7 @@ import {
 } from '../../../settings/security/SecurityGroup';
 import {BitpayIdScreens} from '../../../../bitpay-id/BitpayIdGroup';
 import {useNavigation} from '@react-navigation/native';
+import MonotonicClock from '../../../../../lib/monotonic-clock/MonotonicClock';
 
 export type SecurityHomeProps = NativeStackScreenProps<
   SecurityGroupParamList,
@@ -137,8 +138,8 @@ const SecurityHome: React.FC<SecurityHomeProps> = ({navigation}) => {
       }
       if (available) {
         logger.debug(`[Biometrics] ${biometryType} is supported`);
-        const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-        const authorizedUntil = Number(timeSinceBoot) + LOCK_AUTHORIZED_TIME;
+        const authorizedUntil =
+          MonotonicClock.nowSeconds() + LOCK_AUTHORIZED_TIME;
         dispatch(AppActions.lockAuthorizedUntil(authorizedUntil));
         dispatch(AppActions.biometricLockActive(true));
       } else {
@@ -4,15 +4,11 @@ import {
   DateRanges,
   FiatRateInterval,
   FiatRatePoint,
+  FiatRateSeries,
   FIAT_RATE_SERIES_TARGET_POINTS,
 } from '../../../store/rate/rate.models';
 import {calculatePercentageDifference} from '../../../utils/helper-methods';
-import {downsampleSeries} from '../../../utils/portfolio/rate';
-import {
-  ensureSortedByTsAsc,
-  getMaxRate,
-  lowerBoundByTs,
-} from '../../../utils/portfolio/timeSeries';
+import {getFiatRateSeriesWindow} from '../../../utils/portfolio/rate';
 
 export interface ChartDisplayDataType {
   date: Date;
@@ -46,20 +42,14 @@ export const HISTORIC_TIMEFRAME_WINDOW_MS: Record<'3M' | '1Y' | '5Y', number> =
     '1Y': DateRanges.Year * MS_PER_DAY,
     '5Y': DateRanges.FiveYears * MS_PER_DAY,
   };
-const SPOT_RATE_MATCH_EPSILON = 1e-12;
 
+// rates are already downsampled for the chart
 const getFormattedData = (
-  historicFiatRates: Array<{ts: number; rate: number}>,
+  rates: Array<{ts: number; rate: number}>,
 ): ChartDataType => {
-  const ratesSorted = ensureSortedByTsAsc(historicFiatRates);
-  if (!ratesSorted.length) {
+  if (!rates.length) {
     return defaultDisplayData;
   }
-  const targetLen = FIAT_RATE_SERIES_TARGET_POINTS;
-  const rates = downsampleSeries(ratesSorted, targetLen, {
-    strategy: 'lttb',
-    mode: 'per_coin',
-  });
   const scaledData = rates.map(value => ({
     date: new Date(value.ts),
     value: value.rate,
@@ -114,95 +104,56 @@ const getFormattedData = (
 };
 
 type Args = {
-  selectedSeriesPoints: FiatRatePoint[] | undefined;
+  selectedSeries: FiatRateSeries | undefined;
   selectedTimeframe: FiatRateInterval;
   seriesDataInterval: CachedFiatRateInterval;
   currentFiatRate: number | undefined;
 };
 
 type Result = {
-  pointsForChartRaw: FiatRatePoint[] | undefined;
+  chartPoints: FiatRatePoint[] | undefined;
   displayData: ChartDataType | undefined;
   selectedTimeframeHighValue: number | undefined;
 };
 
 const useExchangeRateChartData = ({
-  selectedSeriesPoints,
+  selectedSeries,
   selectedTimeframe,
   seriesDataInterval,
   currentFiatRate,
 }: Args): Result => {
-  const pointsForChartRaw = useMemo<FiatRatePoint[] | undefined>(() => {
-    if (!selectedSeriesPoints) {
-      return undefined;
-    }
-
-    const pointsToDisplay: FiatRatePoint[] = (() => {
+  const chartWindow = useMemo(() => {
+    const fromTs = (() => {
       if (
         seriesDataInterval === 'ALL' &&
-        selectedTimeframe !== 'ALL' &&
         (selectedTimeframe === '3M' ||
           selectedTimeframe === '1Y' ||
           selectedTimeframe === '5Y')
       ) {
-        const now = Date.now();
-        const windowMs =
-          selectedTimeframe === '3M'
-            ? HISTORIC_TIMEFRAME_WINDOW_MS['3M']
-            : selectedTimeframe === '1Y'
-            ? HISTORIC_TIMEFRAME_WINDOW_MS['1Y']
-            : HISTORIC_TIMEFRAME_WINDOW_MS['5Y'];
-        const cutoffTs = now - windowMs;
-        const pointsSortedByTs = ensureSortedByTsAsc(selectedSeriesPoints);
-        const startIdx = lowerBoundByTs(pointsSortedByTs, cutoffTs);
-        return pointsSortedByTs.slice(startIdx);
+        return Date.now() - HISTORIC_TIMEFRAME_WINDOW_MS[selectedTimeframe];
       }
-      return selectedSeriesPoints;
+      return undefined;
     })();
 
-    if (
-      !pointsToDisplay.length ||
-      !currentFiatRate ||
-      !Number.isFinite(currentFiatRate)
-    ) {
-      return pointsToDisplay;
-    }
-
-    const lastIdx = pointsToDisplay.length - 1;
-    const last = pointsToDisplay[lastIdx];
-    if (
-      !last ||
-      Math.abs(last.rate - currentFiatRate) <= SPOT_RATE_MATCH_EPSILON
-    ) {
-      return pointsToDisplay;
-    }
-
-    // Never mutate cached series points in Redux; only override in-memory for rendering.
-    const copy = [...pointsToDisplay];
-    copy[lastIdx] = {...last, rate: currentFiatRate};
-    return copy;
-  }, [
-    currentFiatRate,
-    selectedSeriesPoints,
-    selectedTimeframe,
-    seriesDataInterval,
-  ]);
+    return getFiatRateSeriesWindow({
+      series: selectedSeries,
+      targetLen: FIAT_RATE_SERIES_TARGET_POINTS,
+      fromTs,
+      lastRate: currentFiatRate || undefined,
+    });
+  }, [currentFiatRate, selectedSeries, selectedTimeframe, seriesDataInterval]);
 
   const displayData = useMemo(() => {
-    if (typeof pointsForChartRaw === 'undefined') {
+    if (typeof chartWindow === 'undefined') {
       return undefined;
     }
-    return getFormattedData(pointsForChartRaw);
-  }, [pointsForChartRaw]);
-
-  const selectedTimeframeHighValue = useMemo(() => {
-    return getMaxRate(pointsForChartRaw);
-  }, [pointsForChartRaw]);
+    return getFormattedData(chartWindow.points);
+  }, [chartWindow]);
 
   return {
-    pointsForChartRaw,
+    chartPoints: chartWindow?.points,
     displayData,
-    selectedTimeframeHighValue,
+    selectedTimeframeHighValue: chartWindow?.maxRate,
   };
 };
 
@@ -88,13 +88,9 @@ import {
 import {
   getFiatRateChangeForTimeframe,
   getFiatRateSeriesIntervalForTimeframe,
+  getFiatRateSeriesMaxRate,
 } from '../../../utils/portfolio/rate';
-import {
-  ensureSortedByTsAsc,
-  getMaxRate,
-  getMaxRateFromIndex,
-  lowerBoundByTs,
-} from '../../../utils/portfolio/timeSeries';
+import RateSeriesStore from '../../../lib/rate-series/RateSeriesStore';
 import {normalizeFiatRateSeriesCoin} from '../../../utils/portfolio/core/pnl/rates';
 import {useAppDispatch, useAppSelector} from '../../../utils/hooks';
 import {
@@ -117,7 +113,6 @@ import {getAndDispatchUpdatedWalletBalances} from '../../../store/wallet/effects
 import {
   CachedFiatRateInterval,
   FiatRateInterval,
-  FiatRatePoint,
   FIAT_RATE_SERIES_CACHED_INTERVALS,
   getFiatRateSeriesCacheKey,
 } from '../../../store/rate/rate.models';
@@ -126,7 +121,6 @@ import {HISTORIC_RATES_CACHE_DURATION} from '../../../constants/wallet';
 import useExchangeRateChartData, {
   type ChartDataType,
   defaultDisplayData,
-  HISTORIC_TIMEFRAME_WINDOW_MS,
 } from '../hooks/useExchangeRateChartData';
 
 const AxisLabel = ({
@@ -877,7 +871,7 @@ const ExchangeRate = () => {
     }
 
     const hasFreshPoints = Boolean(
-      selectedSeries?.points?.length &&
+      RateSeriesStore.getSize(selectedSeries) &&
         selectedSeries?.fetchedOn &&
         !isCacheKeyStale(
           selectedSeries.fetchedOn,
@@ -945,11 +939,11 @@ const ExchangeRate = () => {
   ]);
 
   const {
-    pointsForChartRaw,
+    chartPoints,
     displayData: derivedDisplayData,
     selectedTimeframeHighValue,
   } = useExchangeRateChartData({
-    selectedSeriesPoints: selectedSeries?.points,
+    selectedSeries,
     selectedTimeframe,
     seriesDataInterval,
     currentFiatRate,
@@ -957,7 +951,7 @@ const ExchangeRate = () => {
 
   useEffect(() => {
     if (
-      typeof pointsForChartRaw !== 'undefined' &&
+      typeof chartPoints !== 'undefined' &&
       typeof derivedDisplayData !== 'undefined'
     ) {
       setPrevDisplayData(displayDataRef.current);
@@ -968,7 +962,7 @@ const ExchangeRate = () => {
 
     const hasUsableData = !!displayDataRef.current.data.length;
     setIsChartLoading(!hasUsableData);
-  }, [derivedDisplayData, pointsForChartRaw]);
+  }, [derivedDisplayData, chartPoints]);
 
   const walletsForAsset = useMemo(() => {
     const visibleWallets = getVisibleWalletsFromKeys(keys, homeCarouselConfig);
@@ -1047,7 +1041,7 @@ const ExchangeRate = () => {
         ? isCacheKeyStale(cached.fetchedOn, HISTORIC_RATES_CACHE_DURATION)
         : true;
 
-      if (!cached?.points?.length || isStale) {
+      if (!RateSeriesStore.getSize(cached) || isStale) {
         await dispatch(
           fetchFiatRateSeriesInterval({
             fiatCode: selectedFiatCodeUpper,
@@ -1217,65 +1211,28 @@ const ExchangeRate = () => {
   const allSeriesForAllIntervalsHigh =
     fiatRateSeriesCache[allIntervalsHighCacheKeys.all];
 
-  const oneDayPointsForAllIntervalsHigh = useMemo(
-    () => oneDaySeriesForAllIntervalsHigh?.points,
-    [oneDaySeriesForAllIntervalsHigh?.points],
-  );
-  const oneWeekPointsForAllIntervalsHigh = useMemo(
-    () => oneWeekSeriesForAllIntervalsHigh?.points,
-    [oneWeekSeriesForAllIntervalsHigh?.points],
-  );
-  const oneMonthPointsForAllIntervalsHigh = useMemo(
-    () => oneMonthSeriesForAllIntervalsHigh?.points,
-    [oneMonthSeriesForAllIntervalsHigh?.points],
-  );
-  const allPointsForAllIntervalsHigh = useMemo(
-    () => allSeriesForAllIntervalsHigh?.points,
-    [allSeriesForAllIntervalsHigh?.points],
-  );
-
+  // Every derived 3M/1Y/5Y window is a slice of the ALL series, so the
+  // highest rate across the cached intervals is the highest of their maxima.
   const allIntervalsHighValue = useMemo(() => {
     const maxCandidates: number[] = [];
-    const cachedIntervalPointSets: Array<FiatRatePoint[] | undefined> = [
-      oneDayPointsForAllIntervalsHigh,
-      oneWeekPointsForAllIntervalsHigh,
-      oneMonthPointsForAllIntervalsHigh,
-      allPointsForAllIntervalsHigh,
-    ];
-    for (const points of cachedIntervalPointSets) {
-      const high = getMaxRate(points);
+    for (const series of [
+      oneDaySeriesForAllIntervalsHigh,
+      oneWeekSeriesForAllIntervalsHigh,
+      oneMonthSeriesForAllIntervalsHigh,
+      allSeriesForAllIntervalsHigh,
+    ]) {
+      const high = getFiatRateSeriesMaxRate(series);
       if (high != null) {
         maxCandidates.push(high);
       }
     }
 
-    if (allPointsForAllIntervalsHigh?.length) {
-      const now = Date.now();
-      const allPointsSortedByTs = ensureSortedByTsAsc<FiatRatePoint>(
-        allPointsForAllIntervalsHigh,
-      );
-      const derivedWindows: Array<{windowMs: number}> = [
-        {windowMs: HISTORIC_TIMEFRAME_WINDOW_MS['3M']},
-        {windowMs: HISTORIC_TIMEFRAME_WINDOW_MS['1Y']},
-        {windowMs: HISTORIC_TIMEFRAME_WINDOW_MS['5Y']},
-      ];
-
-      for (const {windowMs} of derivedWindows) {
-        const cutoffTs = now - windowMs;
-        const startIdx = lowerBoundByTs(allPointsSortedByTs, cutoffTs);
-        const high = getMaxRateFromIndex(allPointsSortedByTs, startIdx);
-        if (high != null) {
-          maxCandidates.push(high);
-        }
-      }
-    }
-
     return maxCandidates.length ? Math.max(...maxCandidates) : undefined;
   }, [
-    allPointsForAllIntervalsHigh,
-    oneDayPointsForAllIntervalsHigh,
-    oneMonthPointsForAllIntervalsHigh,
-    oneWeekPointsForAllIntervalsHigh,
+    allSeriesForAllIntervalsHigh,
+    oneDaySeriesForAllIntervalsHigh,
+    oneMonthSeriesForAllIntervalsHigh,
+    oneWeekSeriesForAllIntervalsHigh,
   ]);
 
   const formattedAllIntervalsHighPrice = useMemo(() => {
@@ -0,0 +1,21 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export interface Spec extends TurboModule {
+  initializeDosh(
+    id: string,
+    uiOptions: {
+      feedTitle: string;
+      logoStyle: string;
+      brandDetailsHeaderStyle: string;
+      enterAnimationId?: number;
+      exitAnimatedId?: number;
+    },
+  ): Promise<boolean>;
+  setDoshToken(token: string): Promise<boolean>;
+  present(): Promise<boolean>;
+  clearUser(): Promise<boolean>;
+  presentIntegrationChecklist(): Promise<boolean>;
+}
+
+export default TurboModuleRegistry.get<Spec>('Dosh');
@@ -0,0 +1,19 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only.
+ */
+export interface Spec extends TurboModule {
+  startPushProvision(
+    opc: string,
+    name: string,
+    lastFourDigits: string,
+  ): Promise<string>;
+
+  // NativeEventEmitter
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('GooglePushProvisioning');
@@ -0,0 +1,9 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export interface Spec extends TurboModule {
+  notifyReactNativeAppLoaded(): void;
+  notifyReactNativeAppPaused(): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('InAppMessageModule');
@@ -0,0 +1,13 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only. Durations are in milliseconds.
+ */
+export interface Spec extends TurboModule {
+  // {routes, counters, nativeModules}, see NetworkMetricsSnapshot
+  getSnapshot(): Promise<Object>;
+  reset(): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('NetworkMetrics');
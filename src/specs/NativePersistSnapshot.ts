@@ -0,0 +1,22 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only.
+ */
+export interface Spec extends TurboModule {
+  write(
+    payload: string,
+    excludeKeys: Array<string>,
+  ): Promise<{
+    superseded: boolean;
+    rawBytes: number;
+    storedBytes: number;
+    durationMs: number;
+  }>;
+  // Resolves null when there is no intact snapshot
+  read(): Promise<string | null>;
+  exists(): Promise<boolean>;
+}
+
+export default TurboModuleRegistry.get<Spec>('PersistSnapshot');
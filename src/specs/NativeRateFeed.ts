@@ -0,0 +1,17 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only. Requests go through the shared native OkHttp client and are
+ * decoded off the JS thread. Rejects with E_HTTP for network errors and non-2xx
+ * responses, E_DECODE for malformed bodies.
+ */
+export interface Spec extends TurboModule {
+  // {coin: [{code, name, rate, ts, fetchedOn}]}
+  fetchRates(url: string): Promise<Object>;
+  // {coin: {ts: number[], rates: number[]}}, sorted by ts and deduplicated. A
+  // bare array response is keyed by arrayKey, or dropped when it is ''.
+  fetchRateSeries(url: string, arrayKey: string): Promise<Object>;
+}
+
+export default TurboModuleRegistry.get<Spec>('RateFeed');
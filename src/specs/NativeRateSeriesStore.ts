@@ -0,0 +1,44 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+// Parallel columns, sorted by ts ascending
+export type RateSeriesColumns = {
+  fetchedOn: number;
+  ts: Array<number>;
+  rates: Array<number>;
+};
+
+// A window of a series, downsampled natively. maxRateBeforeLast is the highest
+// finite rate in the window before downsampling, leaving out its last point;
+// absent when there is none.
+export type RateSeriesRange = RateSeriesColumns & {
+  maxRateBeforeLast?: number;
+};
+
+/**
+ * Android only. Stores fiat rate series outside persist:root, keyed by
+ * getFiatRateSeriesCacheKey.
+ */
+export interface Spec extends TurboModule {
+  put(
+    key: string,
+    fetchedOn: number,
+    ts: Array<number>,
+    rates: Array<number>,
+  ): void;
+  // RateSeriesColumns by key; keys without a stored series are left out
+  getMany(keys: Array<string>): Object;
+  // Point count by key, for every stored series
+  getSizes(): Object;
+  // RateSeriesRange of the points with fromTs <= ts <= toTs, cut down with
+  // LTTB to at most maxPoints (0 keeps them all); null for an unknown key
+  getRange(
+    key: string,
+    fromTs: number,
+    toTs: number,
+    maxPoints: number,
+  ): Object | null;
+  retain(keys: Array<string>): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('RateSeriesStore');
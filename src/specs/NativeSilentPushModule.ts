@@ -0,0 +1,20 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only; iOS delivers silent pushes through SilentPushEvent.
+ */
+export interface Spec extends TurboModule {
+  setBatchWindow(windowMs: number): void;
+  getBatchStats(): Promise<{
+    rawEvents: number;
+    batches: number;
+    emittedEvents: number;
+    filteredEvents: number;
+    filterSize: number;
+  }>;
+  drainPendingEvents(): Promise<Array<Object>>;
+  setWalletFilter(walletIdHashes: Array<string>): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('SilentPushModule');
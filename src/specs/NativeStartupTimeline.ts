@@ -0,0 +1,13 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only. Marker offsets and task durations are in milliseconds from the
+ * launch origin.
+ */
+export interface Spec extends TurboModule {
+  // {deviceClass, current, history}, see StartupTimelineSnapshot
+  getTimeline(): Promise<Object>;
+}
+
+export default TurboModuleRegistry.get<Spec>('StartupTimeline');
@@ -0,0 +1,19 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only. Either secret (an AES key is derived from it) or
+ * keystoreAlias (an AES key held in the Android Keystore) must be set.
+ */
+export type StoreCryptoKey = {
+  secret?: string;
+  keystoreAlias?: string;
+};
+
+export interface Spec extends TurboModule {
+  // Synchronous: redux-persist transforms can't await. Failed entries are ''.
+  encryptBatch(values: Array<string>, key: StoreCryptoKey): Array<string>;
+  decryptBatch(values: Array<string>, key: StoreCryptoKey): Array<string>;
+}
+
+export default TurboModuleRegistry.get<Spec>('StoreCrypto');
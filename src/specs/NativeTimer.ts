@@ -0,0 +1,17 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Monotonic clock measured since boot. All methods are synchronous.
+ */
+export interface Spec extends TurboModule {
+  getMonotonicTime(): number;
+  getRemainingLockTime(untilSeconds: number): number;
+  getLockoutUntil(
+    attempts: number,
+    attemptLimit: number,
+    lockoutSeconds: number,
+  ): number;
+}
+
+export default TurboModuleRegistry.get<Spec>('Timer');
@@ -0,0 +1,12 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+/**
+ * Android only. Once attached, the module emits WriteBehindFlush (with the
+ * reason as payload) when MainActivity pauses or the system trims memory.
+ */
+export interface Spec extends TurboModule {
+  attach(): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('WriteBehind');
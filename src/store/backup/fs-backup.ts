@@ -3,6 +3,8 @@ import {LogActions} from '../../store/log';
 import * as initLogs from '../../store/log/initLogs';
 import {getErrorString} from '../../utils/helper-methods';
 import * as Sentry from '@sentry/react-native';
+import NativePersistSnapshot from '../../specs/NativePersistSnapshot';
+import {logManager} from '../../managers/LogManager';
 
 // Use cache directories (CachesDirectoryPath) so backups are NOT included in iCloud/Android Auto Backup
 const BASE_CACHE_DIR = RNFS.CachesDirectoryPath;
@@ -11,7 +13,11 @@ const FINAL_FILE = BASE_DIR + '/persist-root.json';
 const BACKUP_FILE = BASE_DIR + '/persist-root.json.bak';
 const TEMP_FILE = BASE_DIR + '/persist-root.json.tmp';
 
+// Reducers that are cheap to refetch and are left out of the backup
+const EXCLUDED_KEYS = ['MARKET_STATS', 'PORTFOLIO', 'RATE', 'SHOP_CATALOG'];
+
 let cachedBackupExists: boolean = false;
+let legacyBackupRemoved: boolean = false;
 
 async function ensureDir(): Promise<void> {
   try {
@@ -34,7 +40,9 @@ export async function backupFileExists(): Promise<boolean> {
     return true;
   }
   try {
-    const exists = await RNFS.exists(FINAL_FILE);
+    const exists =
+      (await NativePersistSnapshot?.exists()) ||
+      (await RNFS.exists(FINAL_FILE));
     cachedBackupExists = exists;
     return exists;
   } catch (_) {
@@ -42,15 +50,57 @@ export async function backupFileExists(): Promise<boolean> {
   }
 }
 
+// Once a native snapshot is written, the uncompressed JSON backups are stale
+async function removeLegacyBackup(): Promise<void> {
+  if (legacyBackupRemoved) {
+    return;
+  }
+  legacyBackupRemoved = true;
+  for (const file of [FINAL_FILE, BACKUP_FILE, TEMP_FILE]) {
+    try {
+      if (await RNFS.exists(file)) {
+        await RNFS.unlink(file);
+      }
+    } catch (_) {}
+  }
+}
+
+/**
+ * Android: hands the payload to the native snapshot writer, which drops the
+ * excluded reducers, compresses, checksums and atomically replaces the
+ * snapshot off the JS thread.
+ */
+async function backupPersistRootNative(rawJson: string): Promise<void> {
+  try {
+    const result = await NativePersistSnapshot!.write(rawJson, EXCLUDED_KEYS);
+    cachedBackupExists = true;
+    if (!result.superseded) {
+      logManager.debug(
+        `Backup snapshot written - raw:${result.rawBytes} stored:${
+          result.storedBytes
+        } durationMs:${result.durationMs.toFixed(1)}`,
+      );
+      await removeLegacyBackup();
+    }
+  } catch (err) {
+    initLogs.add(
+      LogActions.persistLog(
+        LogActions.error(`Backup write failed - ${getErrorString(err)}`),
+      ),
+    );
+    Sentry.captureException(err, {level: 'error'});
+  }
+}
+
 export async function backupPersistRoot(rawJson: string): Promise<void> {
+  if (NativePersistSnapshot) {
+    return backupPersistRootNative(rawJson);
+  }
   try {
     let filtered = rawJson;
     try {
       const parsed = JSON.parse(rawJson);
-      delete parsed.MARKET_STATS;
-      delete parsed.PORTFOLIO;
-      delete parsed.RATE;
-      delete parsed.SHOP_CATALOG;
+      EXCLUDED_KEYS.forEach(key => delete parsed[key]);
       filtered = JSON.stringify(parsed);
     } catch (_) {
       // If parse fails, keep raw json — better to have a backup than none
@@ -105,6 +155,26 @@ export async function backupPersistRoot(rawJson: string): Promise<void> {
 }
 
 export async function readBackupPersistRoot(): Promise<string | null> {
+  if (NativePersistSnapshot) {
+    try {
+      // Only resolves a snapshot whose checksum matches; torn or corrupt
+      // snapshots fall back to .bak natively, then to the legacy JSON files
+      const data = await NativePersistSnapshot.read();
+      if (data) {
+        return data;
+      }
+    } catch (err) {
+      initLogs.add(
+        LogActions.persistLog(
+          LogActions.error(
+            `Backup read snapshot failed - ${getErrorString(err)}`,
+          ),
+        ),
+      );
+      Sentry.captureException(err, {level: 'error'});
+    }
+  }
+
   try {
     const finalExists = await RNFS.exists(FINAL_FILE);
     if (finalExists) {
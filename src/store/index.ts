@@ -22,6 +22,12 @@ import {
   backupPersistRoot,
   readBackupPersistRoot,
 } from './backup/fs-backup';
+import {
+  configureWriteBehind,
+  discardPendingWrite,
+  getPendingWrite,
+  setWriteBehind,
+} from './storage/write-behind';
 import {
   bindWalletKeys,
   transformContacts,
@@ -29,6 +35,7 @@ import {
   transformPortfolioSnapshotSeries,
   encryptSpecificFields,
 } from './transforms/transforms';
+import {transformFiatRateSeriesCache} from './transforms/fiat-rate-series';
 import {appReducer, appReduxPersistBlackList} from './app/app.reducer';
 import {
   bitPayIdReducer,
@@ -98,6 +105,7 @@ import {getErrorString} from '../utils/helper-methods';
 import {AppDispatch} from '../utils/hooks';
 import {logManager} from '../managers/LogManager';
 import * as Sentry from '@sentry/react-native';
+import WalletPushFilter from '../lib/silent-push/WalletPushFilter';
 
 export const storage = new MMKV();
 
@@ -125,6 +133,34 @@ const FS_BACKUP_TRIGGER_ACTIONS = new Set<string>([
 
 let backupTriggerAction: string | null = null;
 
+// Actions whose persisted state goes to MMKV without waiting for the
+// write-behind interval: the backup triggers, and actions followed by a JS
+// reload that would otherwise drop the held-back write.
+const IMMEDIATE_WRITE_ACTIONS = new Set<string>([
+  ...FS_BACKUP_TRIGGER_ACTIONS,
+  AppActionTypes.NETWORK_CHANGED,
+]);
+
+let immediateWriteAction: string | null = null;
+
+// Rebuilds the native silent push wallet filter after rehydration and every
+// wallet action. Keys are created, imported, joined and synced through many
+// different actions, and WalletPushFilter.update is a no-op unless the set of
+// wallet ids changed.
+const walletPushFilterMiddleware: Middleware =
+  store => next => (action: AnyAction) => {
+    const result = next(action);
+    if (
+      action &&
+      typeof action.type === 'string' &&
+      (action.type === 'persist/REHYDRATE' ||
+        action.type.startsWith('WALLET/'))
+    ) {
+      WalletPushFilter.update(store.getState()?.WALLET?.keys);
+    }
+    return result;
+  };
+
 // Module-scoped logger that safely logs before and after store initialization
 let storeDispatch: ((action: AnyAction) => void) | null = null;
 const addLog = (log: AddLog) => {
@@ -170,42 +206,61 @@ const restoreFromBackup = (reason: string): Promise<string | null> => {
     .catch(() => null);
 };
 
-export const reduxStorage: Storage = {
-  setItem: async (key, value) => {
-    try {
-      storage.set(key, value);
-    } catch (err) {
-      addLog(
-        LogActions.persistLog(
-          LogActions.error(
-            `MMKV setItem failed - key:${key} len:${
-              value?.length ?? 0
-            } - ${getErrorString(err)}`,
-          ),
+const persistItem = (key: string, value: string) => {
+  try {
+    storage.set(key, value);
+  } catch (err) {
+    addLog(
+      LogActions.persistLog(
+        LogActions.error(
+          `MMKV setItem failed - key:${key} len:${
+            value?.length ?? 0
+          } - ${getErrorString(err)}`,
         ),
-      );
-      Sentry.captureException(err, {
-        level: 'error',
-      });
-    }
-    try {
-      if (key === 'persist:root' && typeof value === 'string') {
-        const hasBackup = await backupFileExists();
-        if (backupTriggerAction || !hasBackup) {
-          const triggerLabel = backupTriggerAction ?? 'no existing backup';
-          backupPersistRoot(value)
-            .then(() =>
-              logManager.debug(
-                `Backed up store to filesystem, triggered by ${triggerLabel}.`,
-              ),
-            )
-            .catch(() => {});
-          backupTriggerAction = null;
-        }
+      ),
+    );
+    Sentry.captureException(err, {
+      level: 'error',
+    });
+  }
+  if (key !== 'persist:root' || typeof value !== 'string') {
+    return;
+  }
+  const trigger = backupTriggerAction;
+  backupTriggerAction = null;
+  backupFileExists()
+    .then(hasBackup => {
+      if (trigger || !hasBackup) {
+        const triggerLabel = trigger ?? 'no existing backup';
+        return backupPersistRoot(value).then(() =>
+          logManager.debug(
+            `Backed up store to filesystem, triggered by ${triggerLabel}.`,
+          ),
+        );
       }
-    } catch (_) {}
+    })
+    .catch(() => {});
+};
+
+configureWriteBehind({persist: persistItem});
+
+export const reduxStorage: Storage = {
+  setItem: (key, value) => {
+    // Writes are coalesced and flushed on an interval, except after the
+    // actions in IMMEDIATE_WRITE_ACTIONS (new keys, deletions, lock changes,
+    // network switches), which go to MMKV straight away.
+    const immediate = !!immediateWriteAction;
+    if (key === 'persist:root') {
+      immediateWriteAction = null;
+    }
+    setWriteBehind(key, value, immediate);
+    return Promise.resolve();
   },
   getItem: key => {
+    const pendingValue = getPendingWrite(key);
+    if (pendingValue !== undefined) {
+      return Promise.resolve(pendingValue);
+    }
     try {
       const value = storage.getString(key);
       if (value == null && key === 'persist:root') {
@@ -232,6 +287,7 @@ export const reduxStorage: Storage = {
     }
   },
   removeItem: key => {
+    discardPendingWrite(key);
     try {
       storage.delete(key);
     } catch (err) {
@@ -406,6 +462,9 @@ const getStore = async () => {
           if (FS_BACKUP_TRIGGER_ACTIONS.has(action.type)) {
             backupTriggerAction = action.type;
           }
+          if (IMMEDIATE_WRITE_ACTIONS.has(action.type)) {
+            immediateWriteAction = action.type;
+          }
         }
       } catch (_) {}
       return next(action);
@@ -413,6 +472,7 @@ const getStore = async () => {
 
   middlewares.push(lastActionMiddleware());
   middlewares.push(cleanupPortfolioOnDeleteKeyMiddleware);
+  middlewares.push(walletPushFilterMiddleware);
 
   if (__DEV__ && !(DISABLE_DEVELOPMENT_LOGGING === 'true')) {
     // @ts-ignore
@@ -435,6 +495,7 @@ const getStore = async () => {
       transformContacts,
       transformPortfolioPopulateStatus,
       transformPortfolioSnapshotSeries,
+      transformFiatRateSeriesCache,
       createTransform<RootState, RootState, RootState>((inboundState, key) => {
         // Clear out nested blacklisted fields before encrypting and persisting
         if (typeof key === 'string') {
@@ -570,7 +631,10 @@ export type Effect<ReturnType = void> = ThunkAction<
 export default getStore;
 
 export function configureTestStore(initialState: any) {
-  const middlewares = [thunkMiddleware];
+  const middlewares = [
+    thunkMiddleware as unknown as Middleware,
+    walletPushFilterMiddleware,
+  ];
   const middlewareEnhancers = composeWithDevTools({
     trace: true,
     traceLimit: 25,
@@ -0,0 +1,133 @@
+const mockAttach = jest.fn();
+jest.mock('../../specs/NativeWriteBehind', () => ({
+  __esModule: true,
+  default: {attach: () => mockAttach()},
+}));
+
+const mockSetContext = jest.fn();
+jest.mock('@sentry/react-native', () => ({
+  setContext: (...args: unknown[]) => mockSetContext(...args),
+}));
+
+type WriteBehind = typeof import('./write-behind');
+type ReactNative = typeof import('react-native');
+
+// The layer keeps module-level state, so every test gets a fresh copy, along
+// with the DeviceEventEmitter instance it listens on.
+const load = (flushIntervalMs = 1000) => {
+  let writeBehind!: WriteBehind;
+  let reactNative!: ReactNative;
+  jest.isolateModules(() => {
+    reactNative = require('react-native');
+    writeBehind = require('./write-behind');
+  });
+  const persist = jest.fn();
+  writeBehind.configureWriteBehind({persist, flushIntervalMs});
+  return {writeBehind, persist, emitter: reactNative.DeviceEventEmitter};
+};
+
+describe('write-behind', () => {
+  beforeEach(() => {
+    jest.useFakeTimers();
+    jest.clearAllMocks();
+  });
+
+  afterEach(() => {
+    jest.useRealTimers();
+  });
+
+  it('keeps only the latest value per key until the interval elapses', () => {
+    const {writeBehind, persist} = load();
+
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    writeBehind.setWriteBehind('persist:root', 'v2');
+    writeBehind.setWriteBehind('other', 'x');
+    expect(persist).not.toHaveBeenCalled();
+
+    jest.advanceTimersByTime(1000);
+
+    expect(persist).toHaveBeenCalledTimes(2);
+    expect(persist).toHaveBeenCalledWith('persist:root', 'v2');
+    expect(persist).toHaveBeenCalledWith('other', 'x');
+    expect(writeBehind.getWriteBehindStats()).toMatchObject({
+      writes: 3,
+      coalescedWrites: 1,
+      flushes: 1,
+      flushedValues: 2,
+      lastFlushReason: 'interval',
+    });
+  });
+
+  it('flushes everything pending on an immediate write', () => {
+    const {writeBehind, persist} = load();
+
+    writeBehind.setWriteBehind('other', 'x');
+    writeBehind.setWriteBehind('persist:root', 'v1', true);
+
+    expect(persist).toHaveBeenCalledWith('other', 'x');
+    expect(persist).toHaveBeenCalledWith('persist:root', 'v1');
+    expect(writeBehind.getWriteBehindStats().lastFlushReason).toBe(
+      'immediate',
+    );
+
+    jest.advanceTimersByTime(1000);
+    expect(persist).toHaveBeenCalledTimes(2);
+  });
+
+  it('serves pending values to reads until they are flushed', () => {
+    const {writeBehind} = load();
+
+    expect(writeBehind.getPendingWrite('persist:root')).toBeUndefined();
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    expect(writeBehind.getPendingWrite('persist:root')).toBe('v1');
+
+    writeBehind.flushWriteBehind('immediate');
+    expect(writeBehind.getPendingWrite('persist:root')).toBeUndefined();
+  });
+
+  it('drops the pending value of a removed key', () => {
+    const {writeBehind, persist} = load();
+
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    writeBehind.setWriteBehind('other', 'x');
+    writeBehind.discardPendingWrite('persist:root');
+    expect(writeBehind.getPendingWrite('persist:root')).toBeUndefined();
+
+    jest.advanceTimersByTime(1000);
+    expect(persist).toHaveBeenCalledTimes(1);
+    expect(persist).toHaveBeenCalledWith('other', 'x');
+  });
+
+  it('flushes when the native side asks for it', () => {
+    const {writeBehind, persist, emitter} = load();
+    expect(mockAttach).toHaveBeenCalledTimes(1);
+
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    emitter.emit('WriteBehindFlush', 'pause');
+
+    expect(persist).toHaveBeenCalledWith('persist:root', 'v1');
+    expect(writeBehind.getWriteBehindStats().lastFlushReason).toBe('pause');
+  });
+
+  it('writes straight through when the interval is disabled', () => {
+    const {writeBehind, persist} = load(0);
+
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    expect(persist).toHaveBeenCalledWith('persist:root', 'v1');
+  });
+
+  it('reports and resets the counters', () => {
+    const {writeBehind} = load();
+
+    writeBehind.reportWriteBehindStats();
+    expect(mockSetContext).not.toHaveBeenCalled();
+
+    writeBehind.setWriteBehind('persist:root', 'v1');
+    writeBehind.reportWriteBehindStats();
+    expect(mockSetContext).toHaveBeenCalledWith(
+      'persist_write_behind',
+      expect.objectContaining({writes: 1}),
+    );
+    expect(writeBehind.getWriteBehindStats().writes).toBe(0);
+  });
+});
@@ -0,0 +1,134 @@
+import {DeviceEventEmitter} from 'react-native';
+import * as Sentry from '@sentry/react-native';
+import NativeWriteBehind from '../../specs/NativeWriteBehind';
+
+export type WriteBehindFlushReason =
+  | 'interval'
+  | 'immediate'
+  | 'pause'
+  | 'trimMemory'
+  | 'background';
+
+export interface WriteBehindStats {
+  // setItem calls accepted
+  writes: number;
+  // setItem calls that replaced a value still waiting to be flushed
+  coalescedWrites: number;
+  flushes: number;
+  flushedValues: number;
+  totalFlushMs: number;
+  maxFlushMs: number;
+  lastFlushReason?: WriteBehindFlushReason;
+}
+
+type Persist = (key: string, value: string) => void;
+
+const DEFAULT_FLUSH_INTERVAL_MS = 1000;
+
+let persist: Persist | undefined;
+let flushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+let flushTimer: ReturnType<typeof setTimeout> | null = null;
+const pending = new Map<string, string>();
+
+const emptyStats = (): WriteBehindStats => ({
+  writes: 0,
+  coalescedWrites: 0,
+  flushes: 0,
+  flushedValues: 0,
+  totalFlushMs: 0,
+  maxFlushMs: 0,
+});
+let stats = emptyStats();
+
+/**
+ * Write-behind layer for redux-persist storage: keeps only the latest value
+ * per key and hands it to persist at most once per flush interval.
+ *
+ * Reads go through getPendingWrite first so they see values not yet flushed.
+ * On Android the native WriteBehind module asks for a flush when MainActivity
+ * pauses or memory is trimmed, so the process can't be reclaimed with writes
+ * still held back.
+ */
+export const configureWriteBehind = (options: {
+  persist: Persist;
+  flushIntervalMs?: number;
+}) => {
+  const firstCall = !persist;
+  persist = options.persist;
+  flushIntervalMs = options.flushIntervalMs ?? DEFAULT_FLUSH_INTERVAL_MS;
+  if (firstCall) {
+    DeviceEventEmitter.addListener(
+      'WriteBehindFlush',
+      (reason: WriteBehindFlushReason) => flushWriteBehind(reason),
+    );
+    NativeWriteBehind?.attach();
+  }
+};
+
+/**
+ * Queues value for key. With immediate set, everything pending is flushed
+ * right away instead of on the next interval.
+ */
+export const setWriteBehind = (
+  key: string,
+  value: string,
+  immediate = false,
+) => {
+  stats.writes++;
+  if (pending.has(key)) {
+    stats.coalescedWrites++;
+  }
+  pending.set(key, value);
+
+  if (immediate || !persist || flushIntervalMs <= 0) {
+    flushWriteBehind('immediate');
+  } else if (!flushTimer) {
+    flushTimer = setTimeout(
+      () => flushWriteBehind('interval'),
+      flushIntervalMs,
+    );
+  }
+};
+
+export const getPendingWrite = (key: string): string | undefined =>
+  pending.get(key);
+
+export const discardPendingWrite = (key: string) => {
+  pending.delete(key);
+};
+
+export const flushWriteBehind = (reason: WriteBehindFlushReason) => {
+  if (flushTimer) {
+    clearTimeout(flushTimer);
+    flushTimer = null;
+  }
+  if (!persist || !pending.size) {
+    return;
+  }
+
+  const startTs = Date.now();
+  const entries = Array.from(pending.entries());
+  pending.clear();
+  entries.forEach(([key, value]) => persist!(key, value));
+
+  const durationMs = Date.now() - startTs;
+  stats.flushes++;
+  stats.flushedValues += entries.length;
+  stats.totalFlushMs += durationMs;
+  stats.maxFlushMs = Math.max(stats.maxFlushMs, durationMs);
+  stats.lastFlushReason = reason;
+};
+
+export const getWriteBehindStats = (): WriteBehindStats => ({...stats});
+
+/**
+ * Sends the counters collected since the last report to Sentry, then resets
+ * them.
+ */
+export const reportWriteBehindStats = () => {
+  if (!stats.writes) {
+    return;
+  }
+  Sentry.setContext('persist_write_behind', {...stats});
+  stats = emptyStats();
+};
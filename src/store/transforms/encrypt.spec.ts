@@ -0,0 +1,138 @@
+import Aes from 'crypto-js/aes.js';
+
+const mockNativeStoreCrypto = {
+  encryptBatch: jest.fn((values: string[]) =>
+    values.map(
+      value => `encrypted:gcm1:${Buffer.from(value).toString('base64')}`,
+    ),
+  ),
+  decryptBatch: jest.fn((values: string[]) =>
+    values.map(value =>
+      value === 'encrypted:gcm1:corrupt'
+        ? ''
+        : Buffer.from(
+            value.replace('encrypted:gcm1:', ''),
+            'base64',
+          ).toString(),
+    ),
+  ),
+};
+
+let mockModuleAvailable = true;
+jest.mock('../../specs/NativeStoreCrypto', () => ({
+  __esModule: true,
+  get default() {
+    return mockModuleAvailable ? mockNativeStoreCrypto : null;
+  },
+}));
+
+import {
+  decryptShopStore,
+  decryptWalletStore,
+  encryptWalletStore,
+} from './encrypt';
+
+const secretKey = 'test-secret';
+
+const legacyEncrypt = (value: string) =>
+  `encrypted:${Aes.encrypt(value, secretKey).toString()}`;
+
+const walletState = (properties: Record<string, Record<string, string>>) => ({
+  keys: Object.fromEntries(
+    Object.entries(properties).map(([keyId, props]) => [
+      keyId,
+      {id: keyId, properties: props},
+    ]),
+  ),
+});
+
+describe('wallet store encryption', () => {
+  beforeEach(() => {
+    mockModuleAvailable = true;
+    jest.clearAllMocks();
+  });
+
+  it('encrypts every key in a single native batch', () => {
+    const state = walletState({
+      key1: {mnemonic: 'one two three', xPrivKey: 'xprv1'},
+      key2: {mnemonic: 'four five six'},
+    });
+
+    const encrypted = encryptWalletStore(state, secretKey);
+
+    const [batch] = mockNativeStoreCrypto.encryptBatch.mock.calls[0];
+    expect(mockNativeStoreCrypto.encryptBatch).toHaveBeenCalledTimes(1);
+    expect(batch).toHaveLength(3);
+    const {mnemonic} = encrypted.keys.key1.properties;
+    expect(mnemonic).toMatch(/^encrypted:gcm1:/);
+    expect(decryptWalletStore(encrypted, secretKey)).toEqual(state);
+    expect(mockNativeStoreCrypto.decryptBatch).toHaveBeenCalledTimes(1);
+  });
+
+  it('keeps decrypting legacy crypto-js payloads', () => {
+    const state = walletState({
+      key1: {mnemonic: legacyEncrypt('legacy words'), xPrivKey: 'plain'},
+    });
+
+    const decrypted = decryptWalletStore(state, secretKey);
+
+    expect(decrypted.keys.key1.properties.mnemonic).toBe('legacy words');
+    expect(decrypted.keys.key1.properties.xPrivKey).toBe('plain');
+    expect(mockNativeStoreCrypto.decryptBatch).not.toHaveBeenCalled();
+  });
+
+  it('decrypts a mix of legacy and native payloads', () => {
+    const state = walletState({
+      key1: {mnemonic: legacyEncrypt('legacy words')},
+      key2: {
+        mnemonic: `encrypted:gcm1:${Buffer.from('native words').toString(
+          'base64',
+        )}`,
+      },
+    });
+
+    const decrypted = decryptWalletStore(state, secretKey);
+
+    expect(decrypted.keys.key1.properties.mnemonic).toBe('legacy words');
+    expect(decrypted.keys.key2.properties.mnemonic).toBe('native words');
+  });
+
+  it('leaves values that fail to decrypt untouched', () => {
+    const state = walletState({key1: {mnemonic: 'encrypted:gcm1:corrupt'}});
+
+    expect(
+      decryptWalletStore(state, secretKey).keys.key1.properties.mnemonic,
+    ).toBe('encrypted:gcm1:corrupt');
+  });
+
+  it('falls back to crypto-js when the native module is unavailable', () => {
+    mockModuleAvailable = false;
+    const state = walletState({key1: {mnemonic: 'one two three'}});
+
+    const encrypted = encryptWalletStore(state, secretKey);
+
+    const {mnemonic} = encrypted.keys.key1.properties;
+    expect(mnemonic).toMatch(/^encrypted:U2F/);
+    expect(decryptWalletStore(encrypted, secretKey)).toEqual(state);
+  });
+});
+
+describe('shop store encryption', () => {
+  it('drops invoices and decrypts every gift card field', () => {
+    const state = {
+      giftCards: {
+        livenet: [
+          {claimCode: legacyEncrypt('CODE-1'), invoice: {id: 'a'}},
+          {pin: legacyEncrypt('1234'), invoice: {id: 'b'}},
+        ],
+      },
+    };
+
+    const decrypted = decryptShopStore(state, secretKey);
+
+    expect(decrypted.giftCards.livenet).toEqual([
+      {claimCode: 'CODE-1', invoice: undefined},
+      {pin: '1234', invoice: undefined},
+    ]);
+  });
+});
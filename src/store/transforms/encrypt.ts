@@ -1,8 +1,11 @@
 import Aes from 'crypto-js/aes.js';
 import CryptoJsCore from 'crypto-js/core.js';
 import {Network} from '../../constants';
+import NativeStoreCrypto from '../../specs/NativeStoreCrypto';
 
 const encryptedPrefix = 'encrypted:';
+// AES-256-GCM payloads written by the native StoreCrypto module (Android)
+const gcmPrefix = `${encryptedPrefix}gcm1:`;
 
 export const encryptValue = (value: any, secretKey: string): string => {
   // Skip encryption for already encrypted values
@@ -24,6 +27,9 @@ export const decryptValue = (value: any, secretKey: string): any => {
   if (typeof value !== 'string' || !value.startsWith(encryptedPrefix)) {
     return value;
   }
+  if (value.startsWith(gcmPrefix)) {
+    return decryptValues([value], secretKey)[0];
+  }
   try {
     const encryptedText = value.replace(encryptedPrefix, '');
     const result = Aes.decrypt(encryptedText, secretKey).toString(
@@ -38,67 +44,136 @@ export const decryptValue = (value: any, secretKey: string): any => {
   }
 };
 
+/**
+ * Encrypts every value in one native call when the StoreCrypto module is
+ * available, falling back to crypto-js one value at a time. A value that fails
+ * to encrypt is returned unchanged, as encryptValue does.
+ */
+export const encryptValues = (
+  values: string[],
+  secretKey: string,
+): string[] => {
+  if (!NativeStoreCrypto || !values.length) {
+    return values.map(value => encryptValue(value, secretKey));
+  }
+  const pending = values.filter(value => !value.startsWith(encryptedPrefix));
+  if (!pending.length) {
+    return values;
+  }
+  let encrypted: string[];
+  try {
+    encrypted = NativeStoreCrypto.encryptBatch(pending, {secret: secretKey});
+  } catch (err) {
+    return values.map(value => encryptValue(value, secretKey));
+  }
+  let next = 0;
+  return values.map(value => {
+    if (value.startsWith(encryptedPrefix)) {
+      return value;
+    }
+    const result = encrypted[next++];
+    return result || encryptValue(value, secretKey);
+  });
+};
+
+/**
+ * Decrypts a mix of native AES-GCM and legacy crypto-js payloads. GCM payloads
+ * go to the StoreCrypto module in a single call; anything that can't be
+ * decrypted is returned unchanged, as decryptValue does.
+ */
+export const decryptValues = (
+  values: string[],
+  secretKey: string,
+): string[] => {
+  const gcmValues = values.filter(value => value.startsWith(gcmPrefix));
+  let decrypted: string[] = [];
+  if (gcmValues.length && NativeStoreCrypto) {
+    try {
+      decrypted = NativeStoreCrypto.decryptBatch(gcmValues, {
+        secret: secretKey,
+      });
+    } catch (err) {
+      decrypted = [];
+    }
+  }
+  let next = 0;
+  return values.map(value => {
+    if (value.startsWith(gcmPrefix)) {
+      return decrypted[next++] || value;
+    }
+    return decryptValue(value, secretKey);
+  });
+};
+
 // Generic function to transform wallet store (encrypt or decrypt)
 const transformWalletStore = (
   state: any,
   secretKey: string,
-  transformer: (value: any, secretKey: string) => any,
+  transformer: (values: string[], secretKey: string) => string[],
   checkCondition: (value: string) => boolean,
 ): any => {
   if (!state || !state.keys) {
     return state;
   }
 
-  // Create a copy of the state to maintain immutability
-  const newState = {...state};
+  const fieldsToTransform = [
+    'mnemonic',
+    'mnemonicEncrypted',
+    'xPrivKey',
+    'xPrivKeyEncrypted',
+    'xPrivKeyEDDSA',
+    'xPrivKeyEDDSAEncrypted',
+  ];
 
+  // Collect every value first so all keys are transformed in one batch
+  const targets: {keyId: string; field: string}[] = [];
+  const values: string[] = [];
   Object.keys(state.keys).forEach(keyId => {
     const properties = state.keys[keyId]?.properties;
     if (!properties) {
       return;
     }
+    fieldsToTransform.forEach(field => {
+      const value = properties[field];
+      if (value && typeof value === 'string' && checkCondition(value)) {
+        targets.push({keyId, field});
+        values.push(value);
+      }
+    });
+  });
 
-    const fieldsToTransform = [
-      'mnemonic',
-      'mnemonicEncrypted',
-      'xPrivKey',
-      'xPrivKeyEncrypted',
-      'xPrivKeyEDDSA',
-      'xPrivKeyEDDSAEncrypted',
-    ];
-    const updatedProperties = fieldsToTransform.reduce(
-      (latestProperties, field) => {
-        const value = properties[field];
-        if (value && typeof value === 'string' && checkCondition(value)) {
-          latestProperties[field] = transformer(value, secretKey);
-        }
-        return latestProperties;
-      },
-      {...properties},
-    );
-    newState.keys = {
-      ...newState.keys,
-      [keyId]: {
-        ...newState.keys[keyId],
-        properties: updatedProperties,
+  if (!values.length) {
+    return state;
+  }
+
+  const results = transformer(values, secretKey);
+
+  // Create a copy of the state to maintain immutability
+  const newKeys = {...state.keys};
+  targets.forEach(({keyId, field}, index) => {
+    newKeys[keyId] = {
+      ...newKeys[keyId],
+      properties: {
+        ...newKeys[keyId].properties,
+        [field]: results[index],
       },
     };
   });
 
-  return newState;
+  return {...state, keys: newKeys};
 };
 
 export const encryptWalletStore = (state: any, secretKey: string): any => {
   return transformWalletStore(
     state,
     secretKey,
-    encryptValue,
+    encryptValues,
     value => !value.startsWith(encryptedPrefix),
   );
 };
 
 export const decryptWalletStore = (state: any, secretKey: string): any => {
-  return transformWalletStore(state, secretKey, decryptValue, value =>
+  return transformWalletStore(state, secretKey, decryptValues, value =>
     value.startsWith(encryptedPrefix),
   );
 };
@@ -107,7 +182,7 @@ export const decryptWalletStore = (state: any, secretKey: string): any => {
 const transformAppStore = (
   state: any,
   secretKey: string,
-  transformer: (value: any, secretKey: string) => any,
+  transformer: (values: string[], secretKey: string) => string[],
   checkCondition: (value: string) => boolean,
 ): any => {
   if (!state || !state.identity) {
@@ -127,7 +202,7 @@ const transformAppStore = (
         ...state.identity,
         [Network.mainnet]: {
           ...identity,
-          priv: transformer(privValue, secretKey),
+          priv: transformer([privValue], secretKey)[0],
         },
       },
     };
@@ -139,13 +214,13 @@ export const encryptAppStore = (state: any, secretKey: string): any => {
   return transformAppStore(
     state,
     secretKey,
-    encryptValue,
+    encryptValues,
     value => !value.startsWith(encryptedPrefix),
   );
 };
 
 export const decryptAppStore = (state: any, secretKey: string): any => {
-  return transformAppStore(state, secretKey, decryptValue, value =>
+  return transformAppStore(state, secretKey, decryptValues, value =>
     value.startsWith(encryptedPrefix),
   );
 };
@@ -154,7 +229,7 @@ export const decryptAppStore = (state: any, secretKey: string): any => {
 const transformShopStore = (
   state: any,
   secretKey: string,
-  transformer: (value: any, secretKey: string) => any,
+  transformer: (values: string[], secretKey: string) => string[],
   checkCondition: (value: string) => boolean,
 ): any => {
   if (!state || !state.giftCards || !state.giftCards[Network.mainnet]) {
@@ -175,18 +250,27 @@ const transformShopStore = (
     'pin',
   ];
 
-  // Transform each gift card in mainnet
-  const newGiftCards = giftCards.map((card: any) => {
-    const updatedCard = {...card};
+  // Collect every value first so all gift cards are transformed in one batch
+  const targets: {index: number; field: string}[] = [];
+  const values: string[] = [];
+  giftCards.forEach((card: any, index: number) => {
     fieldsToTransform.forEach(field => {
       const value = card[field];
       if (value && typeof value === 'string' && checkCondition(value)) {
-        updatedCard[field] = transformer(value, secretKey);
+        targets.push({index, field});
+        values.push(value);
       }
     });
+  });
+  const results = values.length ? transformer(values, secretKey) : [];
+
+  const newGiftCards = giftCards.map((card: any) => ({
+    ...card,
     // Always set invoice to undefined for persisted state
-    updatedCard.invoice = undefined;
-    return updatedCard;
+    invoice: undefined,
+  }));
+  targets.forEach(({index, field}, resultIndex) => {
+    newGiftCards[index][field] = results[resultIndex];
   });
 
   return {
@@ -202,13 +286,13 @@ export const encryptShopStore = (state: any, secretKey: string): any => {
   return transformShopStore(
     state,
     secretKey,
-    encryptValue,
+    encryptValues,
     value => !value.startsWith(encryptedPrefix),
   );
 };
 
 export const decryptShopStore = (state: any, secretKey: string): any => {
-  return transformShopStore(state, secretKey, decryptValue, value =>
+  return transformShopStore(state, secretKey, decryptValues, value =>
     value.startsWith(encryptedPrefix),
   );
 };
@@ -0,0 +1,147 @@
+import type {RateSeriesColumns} from '../../specs/NativeRateSeriesStore';
+
+const mockStored: {[key: string]: RateSeriesColumns} = {};
+const mockNativeRateSeriesStore = {
+  put: jest.fn(
+    (key: string, fetchedOn: number, ts: number[], rates: number[]) => {
+      mockStored[key] = {fetchedOn, ts, rates};
+    },
+  ),
+  getMany: jest.fn((keys: string[]) =>
+    Object.fromEntries(
+      keys.filter(key => mockStored[key]).map(key => [key, mockStored[key]]),
+    ),
+  ),
+  getSizes: jest.fn(() =>
+    Object.fromEntries(
+      Object.entries(mockStored).map(([key, columns]) => [
+        key,
+        columns.ts.length,
+      ]),
+    ),
+  ),
+  retain: jest.fn((keys: string[]) => {
+    Object.keys(mockStored)
+      .filter(key => !keys.includes(key))
+      .forEach(key => delete mockStored[key]);
+  }),
+};
+
+let mockModuleAvailable = true;
+jest.mock('../../specs/NativeRateSeriesStore', () => ({
+  __esModule: true,
+  get default() {
+    return mockModuleAvailable ? mockNativeRateSeriesStore : null;
+  },
+}));
+
+import {transformFiatRateSeriesCache} from './fiat-rate-series';
+import RateSeriesStore from '../../lib/rate-series/RateSeriesStore';
+
+const series = (fetchedOn: number, count: number, start = 1700000000000) => ({
+  fetchedOn,
+  points: Array.from({length: count}, (_, i) => ({
+    ts: start + i * 3600000,
+    rate: 100 + i * 0.25,
+  })),
+});
+
+const persist = (state: any) =>
+  transformFiatRateSeriesCache.in(state, 'RATE', {} as any) as any;
+const rehydrate = (state: any) =>
+  transformFiatRateSeriesCache.out(state, 'RATE', {} as any) as any;
+
+describe('transformFiatRateSeriesCache', () => {
+  beforeEach(() => {
+    mockModuleAvailable = true;
+    Object.keys(mockStored).forEach(key => delete mockStored[key]);
+    jest.clearAllMocks();
+  });
+
+  it('persists stubs and restores the series from the native store', () => {
+    const state = {
+      rates: {},
+      fiatRateSeriesCache: {
+        'USD:btc:1D': series(1, 24),
+        'USD:eth:1W': series(2, 168),
+      },
+    };
+
+    const persisted = persist(state);
+
+    expect(persisted.rates).toBe(state.rates);
+    expect(persisted.fiatRateSeriesCache).toEqual({
+      'USD:btc:1D': {fetchedOn: 1, stored: 'native'},
+      'USD:eth:1W': {fetchedOn: 2, stored: 'native'},
+    });
+    expect(mockNativeRateSeriesStore.put).toHaveBeenCalledTimes(2);
+    expect(rehydrate(persisted)).toEqual(state);
+  });
+
+  it('does not hand an unchanged series to the store again', () => {
+    const state = {fiatRateSeriesCache: {'USD:btc:1D': series(1, 24)}};
+
+    persist(state);
+    persist({...state});
+
+    expect(mockNativeRateSeriesStore.put).toHaveBeenCalledTimes(1);
+    const restored = rehydrate(persist(state));
+    persist(restored);
+    expect(mockNativeRateSeriesStore.put).toHaveBeenCalledTimes(1);
+  });
+
+  it('retains only the keys still in the cache', () => {
+    persist({
+      fiatRateSeriesCache: {
+        'USD:btc:1D': series(1, 24),
+        'USD:eth:1D': series(1, 24),
+      },
+    });
+    expect(mockNativeRateSeriesStore.retain).toHaveBeenLastCalledWith([
+      'USD:btc:1D',
+      'USD:eth:1D',
+    ]);
+
+    persist({fiatRateSeriesCache: {'USD:btc:1D': series(3, 24)}});
+    expect(mockNativeRateSeriesStore.retain).toHaveBeenLastCalledWith([
+      'USD:btc:1D',
+    ]);
+    expect(Object.keys(mockStored)).toEqual(['USD:btc:1D']);
+  });
+
+  it('builds restored points only when they are first read', () => {
+    persist({fiatRateSeriesCache: {'USD:btc:1D': series(1, 24)}});
+
+    const restored = rehydrate({
+      fiatRateSeriesCache: {'USD:btc:1D': {fetchedOn: 1, stored: 'native'}},
+    });
+    const restoredSeries = restored.fiatRateSeriesCache['USD:btc:1D'];
+
+    expect(mockNativeRateSeriesStore.getMany).not.toHaveBeenCalled();
+    expect(restoredSeries.fetchedOn).toBe(1);
+    expect(RateSeriesStore.getSize(restoredSeries)).toBe(24);
+    expect(mockNativeRateSeriesStore.getMany).not.toHaveBeenCalled();
+
+    expect(restoredSeries.points).toEqual(series(1, 24).points);
+    expect(restoredSeries.points).toBe(restoredSeries.points);
+    expect(mockNativeRateSeriesStore.getMany).toHaveBeenCalledTimes(1);
+  });
+
+  it('drops a stub whose series is no longer stored', () => {
+    const restored = rehydrate({
+      fiatRateSeriesCache: {
+        'USD:btc:1D': {fetchedOn: 1, stored: 'native'},
+      },
+    });
+
+    expect(restored.fiatRateSeriesCache).toEqual({});
+  });
+
+  it('leaves the state alone without the native module', () => {
+    mockModuleAvailable = false;
+    const state = {fiatRateSeriesCache: {'USD:btc:1D': series(1, 24)}};
+
+    expect(persist(state)).toBe(state);
+    expect(mockNativeRateSeriesStore.put).not.toHaveBeenCalled();
+  });
+});
@@ -0,0 +1,90 @@
+import {createTransform} from 'redux-persist';
+import type {RateState} from '../rate/rate.reducer';
+import type {FiatRateSeries, FiatRateSeriesCache} from '../rate/rate.models';
+import RateSeriesStore from '../../lib/rate-series/RateSeriesStore';
+
+// Fiat rate series are persisted by the native RateSeriesStore; persist:root
+// only keeps a stub per key. Series objects already handed to the store are
+// remembered so an unchanged series is not copied across on every persist,
+// and rehydrated series only build their points when first read.
+type StoredFiatRateSeriesStub = {fetchedOn: number; stored: 'native'};
+
+let nativeStoredFiatRateSeriesKeys = '';
+
+const isStoredFiatRateSeriesStub = (
+  value: unknown,
+): value is StoredFiatRateSeriesStub =>
+  (value as StoredFiatRateSeriesStub)?.stored === 'native';
+
+export const transformFiatRateSeriesCache = createTransform<RateState, any>(
+  inboundState => {
+    if (!RateSeriesStore.isAvailable()) {
+      return inboundState;
+    }
+    try {
+      const cache = inboundState?.fiatRateSeriesCache || {};
+      const stubs: Record<string, StoredFiatRateSeriesStub> = {};
+
+      for (const [cacheKey, series] of Object.entries(cache)) {
+        if (!series || !Array.isArray(series.points)) continue;
+        if (RateSeriesStore.getStoredKey(series) !== cacheKey) {
+          RateSeriesStore.put(cacheKey, series.fetchedOn, series.points);
+          RateSeriesStore.markStored(cacheKey, series);
+        }
+        stubs[cacheKey] = {fetchedOn: series.fetchedOn, stored: 'native'};
+      }
+
+      const keys = Object.keys(stubs).sort();
+      const keysId = keys.join('|');
+      if (keysId !== nativeStoredFiatRateSeriesKeys) {
+        RateSeriesStore.retain(keys);
+        nativeStoredFiatRateSeriesKeys = keysId;
+      }
+
+      return {
+        ...inboundState,
+        fiatRateSeriesCache: stubs,
+      };
+    } catch (_) {
+      return inboundState;
+    }
+  },
+  outboundState => {
+    const cache = (outboundState as any)?.fiatRateSeriesCache || {};
+    const storedKeys = Object.keys(cache).filter(cacheKey =>
+      isStoredFiatRateSeriesStub(cache[cacheKey]),
+    );
+    if (!storedKeys.length) {
+      return outboundState;
+    }
+
+    let sizes: ReturnType<typeof RateSeriesStore.getSizes> = {};
+    try {
+      sizes = RateSeriesStore.getSizes();
+    } catch (_) {}
+
+    // A stub without a stored series (e.g. cleared cache) is dropped so the
+    // series is fetched again.
+    const next: FiatRateSeriesCache = {};
+    for (const [cacheKey, value] of Object.entries(cache)) {
+      if (!isStoredFiatRateSeriesStub(value)) {
+        next[cacheKey] = value as FiatRateSeries;
+        continue;
+      }
+      const size = sizes[cacheKey];
+      if (typeof size === 'number') {
+        next[cacheKey] = RateSeriesStore.restore(
+          cacheKey,
+          (value as StoredFiatRateSeriesStub).fetchedOn,
+          size,
+        );
+      }
+    }
+
+    return {
+      ...outboundState,
+      fiatRateSeriesCache: next,
+    };
+  },
+  {whitelist: ['RATE']},
+);
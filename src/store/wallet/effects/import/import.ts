@@ -88,6 +88,10 @@ import {
 import {t} from 'i18next';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import RNRestart from 'react-native-restart';
+import {
+  discardPendingWrite,
+  flushWriteBehind,
+} from '../../../storage/write-behind';
 import uniqBy from 'lodash.uniqby';
 import {credentialsFromExtendedPublicKey} from '../../../../utils/wallet-hardware';
 import {
@@ -171,6 +175,10 @@ export const startMigrationMMKVStorage =
         return Promise.resolve();
       }
       const value = await AsyncStorage.getItem('persist:root');
+      // Persist what is still held back before the reload, except a
+      // persist:root write that would overwrite the migrated state
+      discardPendingWrite('persist:root');
+      flushWriteBehind('immediate');
       if (value != null) {
         storage.set('persist:root', value);
       }
@@ -49,6 +49,7 @@ import {logManager} from '../../../../managers/LogManager';
 import type {Key, Wallet} from '../../wallet.models';
 import {normalizeFiatRateSeriesCoin} from '../../../../utils/portfolio/core/pnl/rates';
 import {isSortedByTsAsc} from '../../../../utils/portfolio/timeSeries';
+import RateFeed from '../../../../lib/rate-feed/RateFeed';
 
 const FIATRATES_MARKETSTATS_BASE_URL =
   __DEV__ && BASE_FIATRATES_MARKETSTATS_URL_DEVELOPMENT
@@ -222,6 +223,15 @@ const sanitizeSortDedupePoints = (rawPoints: unknown): FiatRatePoint[] => {
   return dedupeFiatRatePointsByTs(points);
 };
 
+// Decoded natively off the JS thread where available
+const getFiatRates = async (url: string): Promise<Rates> => {
+  if (RateFeed.isAvailable()) {
+    return RateFeed.fetchRates(url);
+  }
+  const {data} = await axios.get(url);
+  return data;
+};
+
 const fiatRateSeriesRequestsInFlightByKey = new Map<string, Promise<void>>();
 
 const getFiatRateSeriesInFlightKey = (args: {
@@ -288,13 +298,13 @@ export const startGetRates =
         logManager.info(
           `startGetRates: get request to: ${BASE_BWS_URL}/v3/fiatrates/`,
         );
-        const {data: rates} = await axios.get(`${BASE_BWS_URL}/v3/fiatrates/`);
+        const rates = await getFiatRates(`${BASE_BWS_URL}/v3/fiatrates/`);
         logManager.info('startGetRates: success get request');
 
         logManager.info(
           `startGetRates: get request (yesterday) to: ${BASE_BWS_URL}/v3/fiatrates?ts=${yesterday}`,
         );
-        const {data: lastDayRates} = await axios.get(
+        const lastDayRates = await getFiatRates(
           `${BASE_BWS_URL}/v3/fiatrates?ts=${yesterday}`,
         );
         logManager.info('startGetRates: success get request (yesterday)');
@@ -627,10 +637,19 @@ export const fetchFiatRateSeriesInterval =
         fiatCode || ''
       ).toUpperCase()}/${contextCoin}/${interval}`;
 
+      // The native path returns points already sanitized, sorted and deduped
+      const decodedNatively = RateFeed.isAvailable();
       let data: unknown;
       try {
-        const response = await axios.get(url);
-        data = response.data;
+        if (decodedNatively) {
+          data = await RateFeed.fetchRateSeries(
+            url,
+            normalizedRequestedCoin || undefined,
+          );
+        } else {
+          const response = await axios.get(url);
+          data = response.data;
+        }
       } catch (error) {
         requestFailed = true;
         if (axios.isAxiosError(error)) {
@@ -701,7 +720,9 @@ export const fetchFiatRateSeriesInterval =
           return;
         }
 
-        const deduped = sanitizeSortDedupePoints(responseByCoin[seriesCoin]);
+        const deduped = decodedNatively
+          ? (responseByCoin[seriesCoin] as FiatRatePoint[])
+          : sanitizeSortDedupePoints(responseByCoin[seriesCoin]);
         if (!deduped.length) {
           return;
         }
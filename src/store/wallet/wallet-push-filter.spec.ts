@@ -0,0 +1,77 @@
+import crypto from 'crypto';
+import configureTestStore from '@test/store';
+import {Key} from './wallet.models';
+import {
+  deleteKey,
+  successCreateKey,
+  successImport,
+  successUpdateKey,
+} from './wallet.actions';
+
+const mockSetWalletFilter = jest.fn();
+jest.mock('../../specs/NativeSilentPushModule', () => ({
+  __esModule: true,
+  default: {
+    setWalletFilter: (hashes: string[]) => mockSetWalletFilter(hashes),
+  },
+}));
+
+const sha256 = (value: string) =>
+  crypto.createHash('sha256').update(value).digest('hex');
+
+const makeKey = (id: string, walletIds: string[]) =>
+  ({
+    id,
+    wallets: walletIds.map(walletId => ({credentials: {walletId}})),
+  } as unknown as Key);
+
+const lastFilter = (): string[] =>
+  mockSetWalletFilter.mock.calls[mockSetWalletFilter.mock.calls.length - 1][0];
+
+describe('silent push wallet filter', () => {
+  beforeEach(() => {
+    jest.clearAllMocks();
+  });
+
+  it('is rebuilt when a key is created', () => {
+    const store = configureTestStore({});
+
+    store.dispatch(successCreateKey({key: makeKey('created', ['wallet-c1'])}));
+
+    expect(mockSetWalletFilter).toHaveBeenCalledTimes(1);
+    expect(lastFilter()).toContain(sha256('wallet-c1'));
+  });
+
+  it('is rebuilt when a key is imported or updated', () => {
+    const store = configureTestStore({});
+
+    store.dispatch(successImport({key: makeKey('imported', ['wallet-i1'])}));
+    expect(lastFilter()).toContain(sha256('wallet-i1'));
+
+    store.dispatch(
+      successUpdateKey({key: makeKey('imported', ['wallet-i1', 'wallet-i2'])}),
+    );
+    expect(lastFilter()).toContain(sha256('wallet-i2'));
+  });
+
+  it('drops the wallets of a deleted key', () => {
+    const store = configureTestStore({});
+    store.dispatch(successCreateKey({key: makeKey('kept', ['wallet-k1'])}));
+    store.dispatch(successCreateKey({key: makeKey('gone', ['wallet-g1'])}));
+
+    store.dispatch(deleteKey({keyId: 'gone'}));
+
+    expect(lastFilter()).toContain(sha256('wallet-k1'));
+    expect(lastFilter()).not.toContain(sha256('wallet-g1'));
+  });
+
+  it('is left alone by wallet actions that keep the same wallets', () => {
+    const store = configureTestStore({});
+    store.dispatch(successCreateKey({key: makeKey('same', ['wallet-s1'])}));
+    mockSetWalletFilter.mockClear();
+
+    store.dispatch(successUpdateKey({key: makeKey('same', ['wallet-s1'])}));
+
+    expect(mockSetWalletFilter).not.toHaveBeenCalled();
+  });
+});
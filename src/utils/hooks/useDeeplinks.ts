@@ -5,7 +5,7 @@ import {
   PathConfig,
 } from '@react-navigation/native';
 import {useMemo, useRef} from 'react';
-import {DeviceEventEmitter, Linking, NativeModules} from 'react-native';
+import {DeviceEventEmitter, Linking} from 'react-native';
 import AppsFlyer from 'react-native-appsflyer';
 import InAppBrowser from 'react-native-inappbrowser-reborn';
 import {
@@ -30,6 +30,7 @@ import {GiftCardScreens} from '../../navigation/tabs/shop/gift-card/GiftCardGrou
 import useAppSelector from './useAppSelector';
 import {DeviceEmitterEvents} from '../../constants/device-emitter-events';
 import {ExternalServicesScreens} from '../../navigation/services/ExternalServicesGroup';
+import MonotonicClock from '../../lib/monotonic-clock/MonotonicClock';
 
 const getLinkingConfig = (): LinkingOptions<RootStackParamList>['config'] => ({
   initialRouteName: RootStacks.TABS,
@@ -186,10 +187,10 @@ export const useDeeplinks = () => {
 
         if (pinLockActive || biometricLockActive) {
           if (lockAuthorizedUntil) {
-            const timeSinceBoot = await NativeModules.Timer.getRelativeTime();
-            const totalSecs =
-              Number(lockAuthorizedUntil) - Number(timeSinceBoot);
-            if (totalSecs < 0 && !inAppBrowserOpen) {
+            const remainingMs = MonotonicClock.getRemainingLockTime(
+              Number(lockAuthorizedUntil),
+            );
+            if (remainingMs <= 0 && !inAppBrowserOpen) {
               const subscription = DeviceEventEmitter.addListener(
                 DeviceEmitterEvents.APP_LOCK_MODAL_DISMISSED,
                 () => {
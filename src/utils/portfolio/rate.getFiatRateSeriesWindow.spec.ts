@@ -0,0 +1,129 @@
+import type {RateSeriesColumns} from '../../specs/NativeRateSeriesStore';
+
+const mockStored: {[key: string]: RateSeriesColumns} = {};
+const mockNativeRateSeriesStore = {
+  getMany: jest.fn((keys: string[]) =>
+    Object.fromEntries(
+      keys.filter(key => mockStored[key]).map(key => [key, mockStored[key]]),
+    ),
+  ),
+  // Stands in for RateSeriesStore.query: the window, first and last points
+  // only, and the highest rate before the last
+  getRange: jest.fn(
+    (key: string, fromTs: number, toTs: number, _maxPoints: number) => {
+      const columns = mockStored[key];
+      if (!columns) {
+        return null;
+      }
+      const idx = columns.ts
+        .map((_ts, i) => i)
+        .filter(i => columns.ts[i] >= fromTs && columns.ts[i] <= toTs);
+      const kept = [idx[0], idx[idx.length - 1]];
+      return {
+        fetchedOn: columns.fetchedOn,
+        ts: kept.map(i => columns.ts[i]),
+        rates: kept.map(i => columns.rates[i]),
+        maxRateBeforeLast: Math.max(
+          ...idx.slice(0, -1).map(i => columns.rates[i]),
+        ),
+      };
+    },
+  ),
+};
+
+jest.mock('../../specs/NativeRateSeriesStore', () => ({
+  __esModule: true,
+  default: mockNativeRateSeriesStore,
+}));
+
+import RateSeriesStore from '../../lib/rate-series/RateSeriesStore';
+import {getFiatRateSeriesMaxRate, getFiatRateSeriesWindow} from './rate';
+
+const HOUR = 3600000;
+const START = 1700000000000;
+
+const points = (rates: number[]) =>
+  rates.map((rate, i) => ({ts: START + i * HOUR, rate}));
+
+describe('getFiatRateSeriesWindow', () => {
+  beforeEach(() => {
+    Object.keys(mockStored).forEach(key => delete mockStored[key]);
+    jest.clearAllMocks();
+  });
+
+  it('cuts and downsamples a series held in JS', () => {
+    const rates = Array.from({length: 500}, (_, i) => 100 + (i % 7));
+    rates[250] = 400;
+    const window = getFiatRateSeriesWindow({
+      series: {fetchedOn: 1, points: points(rates)},
+      targetLen: 50,
+      fromTs: START + 100 * HOUR,
+    });
+
+    expect(window?.points).toHaveLength(50);
+    expect(window?.points[0].ts).toBe(START + 100 * HOUR);
+    expect(window?.points[49].ts).toBe(START + 499 * HOUR);
+    expect(window?.maxRate).toBe(400);
+    expect(mockNativeRateSeriesStore.getRange).not.toHaveBeenCalled();
+  });
+
+  it('replaces the last rate and counts it in the max', () => {
+    const series = {fetchedOn: 1, points: points([5, 9, 7])};
+
+    const higher = getFiatRateSeriesWindow({
+      series,
+      targetLen: 10,
+      lastRate: 12,
+    });
+    expect(higher?.points.map(p => p.rate)).toEqual([5, 9, 12]);
+    expect(higher?.maxRate).toBe(12);
+    expect(series.points[2].rate).toBe(7);
+
+    // The replaced rate no longer counts, even when it was the highest
+    const lastWasMax = {fetchedOn: 1, points: points([5, 9, 20])};
+    const lower = getFiatRateSeriesWindow({
+      series: lastWasMax,
+      targetLen: 10,
+      lastRate: 8,
+    });
+    expect(lower?.maxRate).toBe(9);
+  });
+
+  it('reads a restored series through the native range query', () => {
+    const rates = [3, 11, 4, 6];
+    mockStored['USD:btc:ALL'] = {
+      fetchedOn: 1,
+      ts: points(rates).map(p => p.ts),
+      rates,
+    };
+    const series = RateSeriesStore.restore('USD:btc:ALL', 1, rates.length);
+
+    const window = getFiatRateSeriesWindow({
+      series,
+      targetLen: 89,
+      fromTs: START + HOUR,
+      lastRate: 7,
+    });
+
+    expect(mockNativeRateSeriesStore.getRange).toHaveBeenCalledWith(
+      'USD:btc:ALL',
+      START + HOUR,
+      Infinity,
+      89,
+    );
+    expect(window?.points).toEqual([
+      {ts: START + HOUR, rate: 11},
+      {ts: START + 3 * HOUR, rate: 7},
+    ]);
+    expect(window?.maxRate).toBe(11);
+    expect(getFiatRateSeriesMaxRate(series)).toBe(11);
+    // The full points array was never built
+    expect(mockNativeRateSeriesStore.getMany).not.toHaveBeenCalled();
+  });
+
+  it('is undefined without a series', () => {
+    expect(getFiatRateSeriesWindow({series: undefined, targetLen: 89})).toBe(
+      undefined,
+    );
+  });
+});
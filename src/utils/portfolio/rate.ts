@@ -2,11 +2,14 @@ import type {
   CachedFiatRateInterval,
   FiatRateInterval,
   FiatRatePoint,
+  FiatRateSeries,
   FiatRateSeriesCache,
 } from '../../store/rate/rate.models';
 import {getFiatRateSeriesCacheKey} from '../../store/rate/rate.models';
 import {normalizeFiatRateSeriesCoin} from './core/pnl/rates';
 import {getLastDayTimestampStartOfHourMs} from '../helper-methods';
+import {ensureSortedByTsAsc, lowerBoundByTs} from './timeSeries';
+import RateSeriesStore from '../../lib/rate-series/RateSeriesStore';
 
 export type RatePoint = {
   ts: number;
@@ -511,6 +514,107 @@ export const downsampleSeries = (
   return series.filter((p): p is RatePoint => p !== null);
 };
 
+export type FiatRateSeriesWindow = {
+  // Downsampled to at most targetLen, first and last points kept
+  points: RatePoint[];
+  // Highest finite rate in the window before downsampling
+  maxRate: number | undefined;
+};
+
+const maxFiniteRate = (
+  a: number | undefined,
+  b: number | undefined,
+): number | undefined => {
+  const finiteA = typeof a === 'number' && Number.isFinite(a) ? a : undefined;
+  const finiteB = typeof b === 'number' && Number.isFinite(b) ? b : undefined;
+  if (finiteA === undefined) {
+    return finiteB;
+  }
+  return finiteB === undefined ? finiteA : Math.max(finiteA, finiteB);
+};
+
+/**
+ * The points of series with ts >= fromTs, downsampled with LTTB to targetLen,
+ * and their highest rate. lastRate, when given, replaces the rate of the last
+ * point after downsampling.
+ *
+ * Series held by the native RateSeriesStore are cut and downsampled natively,
+ * so only the points that are drawn cross into JS and a rehydrated series
+ * never builds its full points array.
+ */
+export const getFiatRateSeriesWindow = (args: {
+  series: FiatRateSeries | undefined;
+  targetLen: number;
+  fromTs?: number;
+  lastRate?: number;
+}): FiatRateSeriesWindow | undefined => {
+  const {series, fromTs, lastRate} = args;
+  if (!series) {
+    return undefined;
+  }
+  // LTTB keeps the first and last points, so never ask for fewer than two
+  const targetLen = Math.max(2, args.targetLen);
+
+  const window = ((): {points: RatePoint[]; maxRateBeforeLast?: number} => {
+    const storedKey = RateSeriesStore.getStoredKey(series);
+    const range = storedKey
+      ? RateSeriesStore.getRange(
+          storedKey,
+          fromTs ?? -Infinity,
+          Infinity,
+          targetLen,
+        )
+      : undefined;
+    if (range) {
+      return {
+        points: RateSeriesStore.toPoints(range),
+        maxRateBeforeLast: range.maxRateBeforeLast,
+      };
+    }
+
+    const sorted = ensureSortedByTsAsc(
+      Array.isArray(series.points) ? series.points : [],
+    );
+    const startIdx =
+      typeof fromTs === 'number' ? lowerBoundByTs(sorted, fromTs) : 0;
+    let maxRateBeforeLast: number | undefined;
+    for (let i = startIdx; i < sorted.length - 1; i++) {
+      maxRateBeforeLast = maxFiniteRate(maxRateBeforeLast, sorted[i].rate);
+    }
+    return {
+      points: downsampleSeries(sorted.slice(startIdx), targetLen, {
+        strategy: 'lttb',
+        mode: 'per_coin',
+      }),
+      maxRateBeforeLast,
+    };
+  })();
+
+  let points = window.points;
+  const lastIdx = points.length - 1;
+  if (
+    lastIdx >= 0 &&
+    typeof lastRate === 'number' &&
+    Number.isFinite(lastRate) &&
+    points[lastIdx].rate !== lastRate
+  ) {
+    // Never mutate cached series points in Redux; only override in-memory.
+    points = [...points];
+    points[lastIdx] = {...points[lastIdx], rate: lastRate};
+  }
+
+  return {
+    points,
+    maxRate: maxFiniteRate(window.maxRateBeforeLast, points[lastIdx]?.rate),
+  };
+};
+
+/** Highest finite rate of the whole series, read natively when stored. */
+export const getFiatRateSeriesMaxRate = (
+  series: FiatRateSeries | undefined,
+): number | undefined =>
+  getFiatRateSeriesWindow({series, targetLen: 2})?.maxRate;
+
 function keepIndicesLTTB(
   series: AlignedRatePoint[],
   targetLen: number,